@@ -0,0 +1,102 @@
+package com.jorge.project.benchmark;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import com.jorge.project.persistence.SnapshotFormat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Generador de catálogos sintéticos y deterministas para los benchmarks.
+ */
+final class Catalogs {
+    static final long SEED = 42L;
+    static final double MAX_PRICE = 1_000.0;
+
+    private static final String[] ADJECTIVES = {
+            "Smart", "Classic", "Ultra", "Mini", "Pro", "Eco", "Deluxe", "Compact", "Portable", "Wireless"
+    };
+    private static final String[] NOUNS = {
+            "Laptop", "Chair", "Lamp", "Phone", "Desk", "Sneaker", "Puzzle", "Racket", "Speaker", "Backpack",
+            "Monitor", "Kettle", "Notebook", "Jacket", "Drone", "Ball"
+    };
+    private static final Category[] CATEGORIES = Category.values();
+
+    private Catalogs() {
+    }
+
+    /**
+     * @param random generador de números aleatorios
+     * @return un producto nuevo sin ID
+     */
+    static Product randomProduct(SplittableRandom random) {
+        String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                + NOUNS[random.nextInt(NOUNS.length)] + " " + random.nextInt(100_000);
+        double price = Math.round(random.nextDouble(1.0, MAX_PRICE) * 100) / 100.0;
+        return new Product(name, price, random.nextInt(1_000), CATEGORIES[random.nextInt(CATEGORIES.length)]);
+    }
+
+    /**
+     * @param size número de productos
+     * @return productos con IDs consecutivos desde 1
+     */
+    static List<Product> generate(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Product product = randomProduct(random);
+            product.setId(i);
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Escribe un snapshot con un catálogo generado en un directorio temporal.
+     *
+     * @param size   número de productos
+     * @param format formato del snapshot
+     * @param mode   modo de persistencia de la configuración devuelta
+     * @return configuración que apunta al snapshot escrito
+     */
+    static PersistenceConfig write(int size, SnapshotFormat format, PersistenceMode mode) {
+        try {
+            Path dir = Files.createTempDirectory("inventory-bench");
+            Path file = dir.resolve(format == SnapshotFormat.BINARY ? "products.bin" : "products.json");
+            format.write(file.toString(), generate(size), false);
+            return PersistenceConfig.defaults()
+                    .withPath(file.toString())
+                    .withFormat(format)
+                    .withMode(mode)
+                    .withPrettyPrint(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Borra el directorio temporal de un snapshot escrito con {@link #write}.
+     *
+     * @param config configuración devuelta por {@link #write}
+     */
+    static void delete(PersistenceConfig config) {
+        Path dir = Path.of(config.path()).getParent();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.jorge.project.benchmark;
+
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import com.jorge.project.persistence.SnapshotFormat;
+import com.jorge.project.service.ProductServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arranque del servicio: lectura del snapshot y construcción de los índices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"JSON", "BINARY"})
+    public SnapshotFormat format;
+
+    private PersistenceConfig config;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        config = Catalogs.write(size, format, PersistenceMode.SNAPSHOT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Catalogs.delete(config);
+    }
+
+    @Benchmark
+    public int load() throws Exception {
+        try (ProductServiceImpl service = new ProductServiceImpl(config)) {
+            return service.findAll().size();
+        }
+    }
+}
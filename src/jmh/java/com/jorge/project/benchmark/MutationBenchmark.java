@@ -0,0 +1,73 @@
+package com.jorge.project.benchmark;
+
+import com.jorge.project.model.Product;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import com.jorge.project.persistence.SnapshotFormat;
+import com.jorge.project.service.ProductServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Altas, modificaciones y bajas incluyendo el coste de persistencia de cada modo.
+ * En modo SNAPSHOT cada operación reescribe el catálogo completo, así que los tamaños grandes son lentos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MutationBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"SNAPSHOT", "LOG", "ASYNC"})
+    public PersistenceMode mode;
+
+    private PersistenceConfig config;
+    private ProductServiceImpl service;
+    private final SplittableRandom random = new SplittableRandom(Catalogs.SEED);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        config = Catalogs.write(size, SnapshotFormat.JSON, mode);
+        service = new ProductServiceImpl(config);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        service.close();
+        Catalogs.delete(config);
+    }
+
+    @Benchmark
+    public boolean update() {
+        return service.update(random.nextInt(1, size + 1), Catalogs.randomProduct(random));
+    }
+
+    /**
+     * Crea un producto y lo elimina para que el tamaño del catálogo no crezca durante la medición.
+     */
+    @Benchmark
+    public boolean createAndDelete() {
+        Product product = Catalogs.randomProduct(random);
+        service.create(product);
+        return service.delete(product.getId());
+    }
+}
@@ -0,0 +1,120 @@
+package com.jorge.project.benchmark;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import com.jorge.project.persistence.SnapshotFormat;
+import com.jorge.project.service.ProductServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de solo lectura sobre un catálogo cargado en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+    private static final int KEYS = 1024;
+    private static final String[] NAME_PARTS = {"lamp", "smart desk", "pro", "wireless", "99", "z"};
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private PersistenceConfig config;
+    private ProductServiceImpl service;
+    private final int[] ids = new int[KEYS];
+    private final double[] minPrices = new double[KEYS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        config = Catalogs.write(size, SnapshotFormat.BINARY, PersistenceMode.SNAPSHOT);
+        service = new ProductServiceImpl(config);
+        SplittableRandom random = new SplittableRandom(Catalogs.SEED);
+        for (int i = 0; i < KEYS; i++) {
+            ids[i] = random.nextInt(1, size + 1);
+            minPrices[i] = random.nextDouble(0, Catalogs.MAX_PRICE - 10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        service.close();
+        Catalogs.delete(config);
+    }
+
+    private int nextKey() {
+        return next = (next + 1) & (KEYS - 1);
+    }
+
+    @Benchmark
+    public Product findById() {
+        return service.findById(ids[nextKey()]);
+    }
+
+    @Benchmark
+    public List<Product> findByName() {
+        return service.findByName(NAME_PARTS[nextKey() % NAME_PARTS.length]);
+    }
+
+    @Benchmark
+    public List<Product> findByNameTop10() {
+        return service.findByName(NAME_PARTS[nextKey() % NAME_PARTS.length], 10);
+    }
+
+    @Benchmark
+    public List<Product> findByPriceInRange() {
+        double min = minPrices[nextKey()];
+        return service.findByPriceInRange(min, min + 10);
+    }
+
+    @Benchmark
+    public List<Product> findByPriceInRangeFirstPage() {
+        double min = minPrices[nextKey()];
+        return service.findByPriceInRange(min, min + 10, 0, 20);
+    }
+
+    @Benchmark
+    public List<Product> queryNameAndPriceTop20ByPrice() {
+        double min = minPrices[nextKey()];
+        return service.query(ProductQuery.all()
+                .withName(NAME_PARTS[next % NAME_PARTS.length])
+                .withPriceBetween(min, min + 100)
+                .orderBy(ProductOrder.PRICE)
+                .withLimit(20));
+    }
+
+    @Benchmark
+    public List<Product> queryCategoryAndLowStock() {
+        return service.query(ProductQuery.all()
+                .withCategory(Category.values()[nextKey() % Category.values().length])
+                .withMaxStock(10));
+    }
+
+    @Benchmark
+    public List<Product> findAll() {
+        return service.findAll();
+    }
+}
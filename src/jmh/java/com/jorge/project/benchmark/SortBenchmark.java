@@ -0,0 +1,79 @@
+package com.jorge.project.benchmark;
+
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import com.jorge.project.persistence.SnapshotFormat;
+import com.jorge.project.service.ProductServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listados ordenados de las opciones 6 y 7 del menú: ordenar una copia del catálogo frente a
+ * leer los órdenes que mantiene el servicio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"NAME", "PRICE"})
+    public ProductOrder order;
+
+    private PersistenceConfig config;
+    private ProductServiceImpl service;
+    private Product middle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        config = Catalogs.write(size, SnapshotFormat.BINARY, PersistenceMode.SNAPSHOT);
+        service = new ProductServiceImpl(config);
+        middle = service.findAllSorted(order, size / 2, 1).getFirst();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        service.close();
+        Catalogs.delete(config);
+    }
+
+    @Benchmark
+    public List<Product> sortCopy() {
+        List<Product> copy = new ArrayList<>(service.findAll());
+        copy.sort(order.comparator());
+        return copy;
+    }
+
+    @Benchmark
+    public List<Product> firstPage() {
+        return service.findAllSorted(order, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Product> pageAfterCursor() {
+        return service.findAllSorted(order, middle, PAGE_SIZE);
+    }
+}
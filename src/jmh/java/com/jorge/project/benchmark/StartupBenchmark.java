@@ -0,0 +1,81 @@
+package com.jorge.project.benchmark;
+
+import com.jorge.project.model.Product;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import com.jorge.project.persistence.SnapshotFormat;
+import com.jorge.project.service.IProductService;
+import com.jorge.project.service.LazyProductService;
+import com.jorge.project.service.ProductServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo hasta la primera consulta por ID: carga completa antes de responder frente a {@link LazyProductService},
+ * que responde desde el índice de posiciones. lazyReady mide cuánto tarda la carga en segundo plano en terminar.
+ * El cierre del servicio queda fuera de la medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"JSON", "BINARY"})
+    public SnapshotFormat format;
+
+    private PersistenceConfig config;
+    private IProductService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        config = Catalogs.write(size, format, PersistenceMode.SNAPSHOT);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeService() {
+        service.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Catalogs.delete(config);
+    }
+
+    @Benchmark
+    public Product eagerFirstLookup() {
+        service = new ProductServiceImpl(config);
+        return service.findById(size / 2);
+    }
+
+    @Benchmark
+    public Product lazyFirstLookup() {
+        service = new LazyProductService(config);
+        return service.findById(size / 2);
+    }
+
+    @Benchmark
+    public void lazyReady() {
+        LazyProductService lazy = new LazyProductService(config);
+        service = lazy;
+        lazy.ready().join();
+    }
+}
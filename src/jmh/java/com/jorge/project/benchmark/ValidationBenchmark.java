@@ -0,0 +1,125 @@
+package com.jorge.project.benchmark;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.exceptions.ValidationError;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validación de filas con distintos porcentajes de datos inválidos: una excepción nueva con traza por error
+ * (como antes), la que lanza el constructor de {@link Product} con su código, la excepción preasignada de
+ * {@link ValidationError#sharedException()} y los códigos de {@link Product#validate}. Cada operación es una fila.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    private static final int ROWS = 1_024;
+
+    @Param({"0", "10", "50"})
+    public int invalidPercent;
+
+    private final String[] names = new String[ROWS];
+    private final double[] prices = new double[ROWS];
+    private final int[] stocks = new int[ROWS];
+    private final Category[] categories = new Category[ROWS];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(Catalogs.SEED);
+        for (int i = 0; i < ROWS; i++) {
+            Product product = Catalogs.randomProduct(random);
+            names[i] = product.getName();
+            prices[i] = product.getPrice();
+            stocks[i] = product.getStock();
+            categories[i] = product.getCategory();
+            if (random.nextInt(100) < invalidPercent) {
+                switch (random.nextInt(3)) {
+                    case 0 -> names[i] = "   ";
+                    case 1 -> prices[i] = -prices[i];
+                    default -> stocks[i] = -1;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void freshException(Blackhole blackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            try {
+                legacyValidate(names[i], prices[i], stocks[i], categories[i]);
+                blackhole.consume(new Product(names[i], prices[i], stocks[i], categories[i]));
+            } catch (ProductException e) {
+                blackhole.consume(e.getMessage());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void constructorException(Blackhole blackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            try {
+                blackhole.consume(new Product(names[i], prices[i], stocks[i], categories[i]));
+            } catch (ProductException e) {
+                blackhole.consume(e.getError());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void sharedException(Blackhole blackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            try {
+                ValidationError error = Product.validate(names[i], prices[i], stocks[i], categories[i]);
+                if (error != null) throw error.sharedException();
+                blackhole.consume(new Product(names[i], prices[i], stocks[i], categories[i]));
+            } catch (ProductException e) {
+                blackhole.consume(e.getError());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void validationCodes(Blackhole blackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            ValidationError error = Product.validate(names[i], prices[i], stocks[i], categories[i]);
+            if (error == null) {
+                blackhole.consume(new Product(names[i], prices[i], stocks[i], categories[i]));
+            } else {
+                blackhole.consume(error.getMessage());
+            }
+        }
+    }
+
+    // Previous validation: a new exception with its stack trace for every rejected row
+    private static void legacyValidate(String name, double price, int stock, Category category) {
+        if (name == null || name.trim().isBlank()) throw new ProductException("Nombre no puede estar vacío");
+        if (price <= 0) throw new ProductException("Precio debe ser mayor que cero");
+        if (stock < 0) throw new ProductException("Stock no puede ser negativo");
+        if (category == null) throw new ProductException("Categoría no puede ser nulo");
+    }
+}
@@ -1,19 +1,79 @@
 package com.jorge.project;
 
 import com.jorge.project.controller.ProductController;
+import com.jorge.project.http.ProductHttpServer;
+import com.jorge.project.metrics.InventoryMetrics;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.service.ConcurrentProductServiceImpl;
 import com.jorge.project.service.IProductService;
+import com.jorge.project.service.LazyProductService;
+import com.jorge.project.service.MeteredProductService;
 import com.jorge.project.service.ProductServiceImpl;
+import com.jorge.project.service.RepositoryProductServiceImpl;
+import com.jorge.project.service.ShardedProductService;
 import com.jorge.project.ui.UI;
 
+import java.io.IOException;
+
 /**
  * Hello world!
- *
+ * Con -Dinventory.http.port=puerto arranca la API HTTP en lugar de la consola
+ * Con -Dinventory.cacheSize=N los productos viven en disco y solo los N más pedidos quedan en memoria
+ * Con -Dinventory.shards=N el catálogo se reparte entre N particiones, cada una con su propio archivo
+ * Con -Dinventory.lazyStartup=true la consola arranca sin esperar a que se cargue el catálogo
  */
 public class App {
     public static void main(String[] args) {
-        IProductService productService = new ProductServiceImpl();
-        ProductController productController = new ProductController(productService);
-        UI ui = new UI(productController);
-        ui.run();
+        PersistenceConfig config = PersistenceConfig.fromSystemProperties();
+        if (config.metrics() instanceof InventoryMetrics metrics) metrics.register();
+        Integer port = Integer.getInteger("inventory.http.port");
+        Integer cacheSize = Integer.getInteger("inventory.cacheSize");
+        Integer shards = Integer.getInteger("inventory.shards");
+        if (port != null) {
+            serve(config, port, cacheSize, shards);
+            return;
+        }
+        IProductService service = shards != null
+                ? ShardedProductService.open(config, shards)
+                : cacheSize != null
+                ? new RepositoryProductServiceImpl(config, cacheSize)
+                : Boolean.getBoolean("inventory.lazyStartup")
+                ? new LazyProductService(config)
+                : new ProductServiceImpl(config);
+        try (IProductService productService = metered(service, config)) {
+            ProductController productController = new ProductController(productService);
+            UI ui = new UI(productController);
+            ui.run();
+        }
+    }
+
+    // Requests run concurrently, so the server needs the thread-safe service; it stops on Ctrl+C
+    private static void serve(PersistenceConfig config, int port, Integer cacheSize, Integer shards) {
+        IProductService service = shards != null
+                ? ShardedProductService.open(config, shards)
+                : cacheSize != null
+                ? new RepositoryProductServiceImpl(config, cacheSize)
+                : new ConcurrentProductServiceImpl(config);
+        IProductService productService = metered(service, config);
+        // Headers and body go out in separate writes; with Nagle on, each response waits ~40 ms for the delayed ACK.
+        // The JDK reads this once, when the first HttpServer in the JVM is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        try {
+            ProductHttpServer server = new ProductHttpServer(new ProductController(productService), port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                productService.close();
+            }));
+            System.out.println("Listening on http://localhost:" + server.port());
+        } catch (IOException e) {
+            System.out.println("Error starting HTTP server: " + e.getMessage());
+            productService.close();
+        }
+    }
+
+    private static IProductService metered(IProductService service, PersistenceConfig config) {
+        return config.metrics().enabled() ? new MeteredProductService(service, config.metrics()) : service;
     }
 }
@@ -0,0 +1,31 @@
+package com.jorge.project.bulk;
+
+public enum BulkFormat {
+
+    CSV("CSV con cabecera"),
+    JSON_LINES("Un objeto JSON por línea");
+
+    private final String message;
+
+    BulkFormat(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @param path ruta del archivo
+     * @return JSON_LINES si la ruta termina en ".jsonl" o ".ndjson", CSV en otro caso
+     */
+    public static BulkFormat forPath(String path) {
+        String lower = path.toLowerCase();
+        return lower.endsWith(".jsonl") || lower.endsWith(".ndjson") ? JSON_LINES : CSV;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
@@ -0,0 +1,14 @@
+package com.jorge.project.bulk;
+
+/**
+ * Resultado de una exportación
+ *
+ * @param rows         productos escritos
+ * @param elapsedNanos duración total
+ */
+public record ExportReport(long rows, long elapsedNanos) {
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,19 @@
+package com.jorge.project.bulk;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación
+ *
+ * @param rows         filas leídas, sin contar la cabecera ni las líneas vacías
+ * @param imported     productos creados
+ * @param failed       filas rechazadas
+ * @param errors       detalle de las primeras filas rechazadas, en orden de línea
+ * @param elapsedNanos duración total
+ */
+public record ImportReport(long rows, long imported, long failed, List<RowError> errors, long elapsedNanos) {
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+}
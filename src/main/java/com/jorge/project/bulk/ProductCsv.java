@@ -0,0 +1,231 @@
+package com.jorge.project.bulk;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.exceptions.ValidationError;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filas CSV de productos (RFC 4180; {@link RowReader} junta las filas con saltos de línea dentro de un campo entre
+ * comillas). Las columnas se ubican por el nombre
+ * en la cabecera, así el archivo puede traerlas en cualquier orden y con columnas extra, que se ignoran.
+ * Los números y la categoría se revisan antes de convertirlos, así los valores inválidos no llegan a lanzar
+ * {@link NumberFormatException} ni {@link IllegalArgumentException}
+ */
+final class ProductCsv implements RowParser {
+    static final String HEADER = "id,name,price,stock,category";
+
+    private static final long INVALID_STOCK = Long.MIN_VALUE;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final int nameColumn;
+    private final int priceColumn;
+    private final int stockColumn;
+    private final int categoryColumn;
+    private final int columns;
+
+    /**
+     * @param header primera línea del archivo
+     * @throws ProductException si la cabecera está mal formada o falta alguna de las columnas name, price, stock
+     *                          o category
+     */
+    ProductCsv(String header) {
+        List<String> fields = new ArrayList<>();
+        String malformed = split(header, fields);
+        if (malformed != null) throw new ProductException("Cabecera inválida: " + malformed);
+        List<String> names = fields.stream().map(name -> name.trim().toLowerCase()).toList();
+        nameColumn = column(names, "name");
+        priceColumn = column(names, "price");
+        stockColumn = column(names, "stock");
+        categoryColumn = column(names, "category");
+        columns = Math.max(Math.max(nameColumn, priceColumn), Math.max(stockColumn, categoryColumn)) + 1;
+    }
+
+    @Override
+    public Product parse(String line, long lineNumber, List<RowError> errors) {
+        List<String> fields = new ArrayList<>(columns + 1);
+        String malformed = split(line, fields);
+        if (malformed != null) return reject(errors, lineNumber, malformed);
+        if (fields.size() < columns) {
+            return reject(errors, lineNumber,
+                    "Se esperaban al menos %d columnas y hay %d".formatted(columns, fields.size()));
+        }
+        String name = fields.get(nameColumn);
+        double price = parsePrice(fields.get(priceColumn));
+        if (!Double.isFinite(price)) {
+            return reject(errors, lineNumber, "Precio inválido: '%s'".formatted(fields.get(priceColumn)));
+        }
+        long stock = parseStock(fields.get(stockColumn));
+        if (stock == INVALID_STOCK) {
+            return reject(errors, lineNumber, "Stock inválido: '%s'".formatted(fields.get(stockColumn)));
+        }
+        Category category = parseCategory(fields.get(categoryColumn));
+        if (category == null) {
+            return reject(errors, lineNumber, "Categoría inválida: '%s'".formatted(fields.get(categoryColumn)));
+        }
+        ValidationError error = Product.validate(name, price, (int) stock, category);
+        if (error != null) {
+            errors.add(new RowError(lineNumber, error));
+            return null;
+        }
+        return new Product(name, price, (int) stock, category);
+    }
+
+    static void append(StringBuilder out, Product product) {
+        out.append(product.getId()).append(',');
+        appendQuoted(out, product.getName());
+        out.append(',').append(product.getPrice())
+                .append(',').append(product.getStock())
+                .append(',').append(product.getCategory().name())
+                .append('\n');
+    }
+
+    /**
+     * @param line línea a revisar
+     * @return true si la línea termina dentro de un campo entre comillas, es decir, la fila sigue en la línea
+     * siguiente
+     */
+    static boolean endsInsideQuotes(String line) {
+        if (line.indexOf('"') < 0) return false;
+        int i = 0;
+        while (i < line.length()) {
+            if (line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) return true;
+                    char c = line.charAt(i++);
+                    if (c != '"') continue;
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+            }
+            int comma = line.indexOf(',', i);
+            if (comma < 0) return false;
+            i = comma + 1;
+        }
+        return false;
+    }
+
+    /**
+     * @param line   fila a separar
+     * @param fields donde se agregan los campos
+     * @return motivo si la línea está mal formada, o null
+     */
+    static String split(String line, List<String> fields) {
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) return "Comillas sin cerrar";
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < line.length() && line.charAt(i) != ',') return "Texto después de las comillas de cierre";
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                int comma = line.indexOf(',', i);
+                int end = comma < 0 ? line.length() : comma;
+                fields.add(line.substring(i, end));
+                i = end;
+            }
+            if (i >= line.length()) return null;
+            i++; // skip the comma
+        }
+    }
+
+    private static Product reject(List<RowError> errors, long lineNumber, String message) {
+        errors.add(new RowError(lineNumber, message));
+        return null;
+    }
+
+    private static void appendQuoted(StringBuilder out, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.append('"');
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static int column(List<String> names, String name) {
+        int index = names.indexOf(name);
+        if (index < 0) throw new ProductException("Falta la columna '%s' en la cabecera".formatted(name));
+        return index;
+    }
+
+    // NaN for anything that isn't a finite decimal number
+    private static double parsePrice(String raw) {
+        String value = raw.trim();
+        boolean digit = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return Double.NaN; // also keeps "NaN", "Infinity" and hex literals out
+            }
+        }
+        if (!digit) return Double.NaN;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN; // misplaced signs or exponents, rare enough to leave to parseDouble
+        }
+    }
+
+    private static long parseStock(String raw) {
+        int start = 0;
+        int end = raw.length();
+        while (start < end && raw.charAt(start) <= ' ') start++;
+        while (end > start && raw.charAt(end - 1) <= ' ') end--;
+        boolean negative = start < end && raw.charAt(start) == '-';
+        if (start < end && (negative || raw.charAt(start) == '+')) start++;
+        if (start == end || end - start > 10) return INVALID_STOCK;
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = raw.charAt(i);
+            if (c < '0' || c > '9') return INVALID_STOCK;
+            value = value * 10 + (c - '0');
+        }
+        if (negative) value = -value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? INVALID_STOCK : value;
+    }
+
+    private static Category parseCategory(String raw) {
+        int start = 0;
+        int end = raw.length();
+        while (start < end && raw.charAt(start) <= ' ') start++;
+        while (end > start && raw.charAt(end - 1) <= ' ') end--;
+        for (Category category : CATEGORIES) {
+            String name = category.name();
+            if (name.length() == end - start && raw.regionMatches(true, start, name, 0, name.length())) return category;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.jorge.project.bulk;
+
+import com.google.gson.Gson;
+import com.jorge.project.model.Product;
+import com.jorge.project.service.IProductService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta el catálogo a CSV o JSON por líneas recorriendo {@link IProductService#stream()}, sin reunirlo en una
+ * lista. Los archivos resultantes se pueden volver a importar con {@link ProductImporter}, también con nombres que
+ * tengan comas, comillas o saltos de línea; la columna id se ignora al importar.
+ */
+public class ProductExporter {
+    private static final Gson GSON = new Gson();
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Rows are formatted into a builder and written in blocks, which keeps per-row writer calls off the hot path
+    private static final int FLUSH_CHARS = 1 << 15;
+
+    private final IProductService service;
+
+    public ProductExporter(IProductService service) {
+        this.service = service;
+    }
+
+    /**
+     * @param path   ruta del archivo; se reemplaza si existe
+     * @param format formato del archivo
+     * @return resumen de la exportación
+     */
+    public ExportReport exportFile(String path, BulkFormat format) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(
+                Files.newBufferedWriter(Path.of(path), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return exportTo(writer, format);
+        }
+    }
+
+    /**
+     * @param writer destino; no se cierra, pero se vacía al terminar
+     * @param format formato de salida
+     * @return resumen de la exportación
+     */
+    public ExportReport exportTo(Writer writer, BulkFormat format) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        StringBuilder out = new StringBuilder(FLUSH_CHARS + 256);
+        if (format == BulkFormat.CSV) out.append(ProductCsv.HEADER).append('\n');
+        try (Stream<Product> products = service.stream()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                if (format == BulkFormat.CSV) {
+                    ProductCsv.append(out, product);
+                } else {
+                    GSON.toJson(product, out);
+                    out.append('\n');
+                }
+                rows++;
+                if (out.length() >= FLUSH_CHARS) {
+                    writer.append(out);
+                    out.setLength(0);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.append(out);
+        writer.flush();
+        return new ExportReport(rows, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,205 @@
+package com.jorge.project.bulk;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.exceptions.ValidationError;
+import com.jorge.project.model.Product;
+import com.jorge.project.service.IProductService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Importa catálogos grandes desde CSV o JSON por líneas sin cargarlos completos en memoria.
+ * Un hilo lee bloques de líneas; varios hilos los convierten en productos en paralelo con las reglas de
+ * {@link Product#validate}, sin lanzar excepciones por las filas inválidas; los bloques se insertan en orden con {@link IProductService#createAll(List)},
+ * así los IDs siguen el orden del archivo. Las filas inválidas se informan con su número de línea y no detienen
+ * la importación. Como mucho hay parallelism + 1 bloques en vuelo, lo que acota la memoria.
+ * CSV: la primera línea es la cabecera, con al menos las columnas name, price, stock y category (el nombre de la
+ * constante, p. ej. HOME); un campo entre comillas puede traer saltos de línea, y los errores se informan con la
+ * línea donde empieza la fila. JSON por líneas: un objeto por línea con los mismos campos.
+ */
+public class ProductImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+    public static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final Gson GSON = new Gson();
+
+    private final IProductService service;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public ProductImporter(IProductService service) {
+        this(service, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param service     servicio donde se crean los productos
+     * @param chunkSize   filas por bloque; cada bloque se inserta con una sola llamada al servicio
+     * @param parallelism hilos que convierten bloques
+     */
+    public ProductImporter(IProductService service, int chunkSize, int parallelism) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize debe ser mayor que cero");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism debe ser mayor que cero");
+        }
+        this.service = service;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param path   ruta del archivo, en UTF-8
+     * @param format formato del archivo
+     * @return resumen de la importación
+     * @throws ProductException si la cabecera CSV no tiene las columnas necesarias
+     */
+    public ImportReport importFile(String path, BulkFormat format) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+            return importFrom(reader, format);
+        }
+    }
+
+    /**
+     * @param reader origen de las filas; no se cierra
+     * @param format formato de las filas
+     * @return resumen de la importación
+     * @throws ProductException si la cabecera CSV no tiene las columnas necesarias
+     */
+    public ImportReport importFrom(BufferedReader reader, BulkFormat format) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        RowReader rows = new RowReader(reader, format == BulkFormat.CSV);
+        RowParser parser;
+        if (format == BulkFormat.CSV) {
+            String header = rows.next();
+            if (header == null) return progress.report(start);
+            parser = new ProductCsv(header);
+        } else {
+            parser = ProductImporter::parseJson;
+        }
+        try (ExecutorService workers = Executors.newFixedThreadPool(parallelism)) {
+            ArrayDeque<Future<Chunk>> pending = new ArrayDeque<>();
+            List<String> lines = new ArrayList<>(chunkSize);
+            long[] lineNumbers = new long[chunkSize];
+            String line;
+            while ((line = rows.next()) != null) {
+                lineNumbers[lines.size()] = rows.line();
+                lines.add(line);
+                if (lines.size() == chunkSize) {
+                    pending.add(submit(workers, lines, lineNumbers, parser));
+                    lines = new ArrayList<>(chunkSize);
+                    lineNumbers = new long[chunkSize];
+                    if (pending.size() > parallelism) insert(await(pending.poll()), progress);
+                }
+            }
+            if (!lines.isEmpty()) pending.add(submit(workers, lines, lineNumbers, parser));
+            while (!pending.isEmpty()) {
+                insert(await(pending.poll()), progress);
+            }
+        }
+        return progress.report(start);
+    }
+
+    private static Future<Chunk> submit(ExecutorService workers, List<String> lines, long[] lineNumbers,
+                                        RowParser parser) {
+        return workers.submit(() -> parse(lines, lineNumbers, parser));
+    }
+
+    // Runs on the workers: parsers report bad rows in chunk.errors, so one bad line never stops the chunk
+    private static Chunk parse(List<String> lines, long[] lineNumbers, RowParser parser) {
+        Chunk chunk = new Chunk(new ArrayList<>(lines.size()), new ArrayList<>());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) continue;
+            chunk.rows++;
+            Product product = parser.parse(line, lineNumbers[i], chunk.errors);
+            if (product != null) chunk.products.add(product);
+        }
+        return chunk;
+    }
+
+    private static Product parseJson(String line, long lineNumber, List<RowError> errors) {
+        Product parsed;
+        try {
+            parsed = GSON.fromJson(line, Product.class);
+        } catch (JsonParseException | NumberFormatException | IllegalStateException e) {
+            // Gson lets some malformed numbers and tokens through unwrapped
+            parsed = null;
+        }
+        if (parsed == null) {
+            errors.add(new RowError(lineNumber, "JSON inválido"));
+            return null;
+        }
+        // Gson skips the constructor, so the fields are checked here before copying
+        ValidationError error = Product.validate(parsed.getName(), parsed.getPrice(), parsed.getStock(),
+                parsed.getCategory());
+        if (error != null) {
+            errors.add(new RowError(lineNumber, error));
+            return null;
+        }
+        if (!Double.isFinite(parsed.getPrice())) {
+            errors.add(new RowError(lineNumber, "Precio debe ser un número finito"));
+            return null;
+        }
+        return new Product(parsed);
+    }
+
+    private void insert(Chunk chunk, Progress progress) {
+        if (!chunk.products.isEmpty()) service.createAll(chunk.products);
+        progress.rows += chunk.rows;
+        progress.imported += chunk.products.size();
+        progress.failed += chunk.errors.size();
+        for (RowError error : chunk.errors) {
+            if (progress.errors.size() == MAX_REPORTED_ERRORS) break;
+            progress.errors.add(error);
+        }
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Chunk {
+        private final List<Product> products;
+        private final List<RowError> errors;
+        private int rows;
+
+        Chunk(List<Product> products, List<RowError> errors) {
+            this.products = products;
+            this.errors = errors;
+        }
+    }
+
+    private static final class Progress {
+        private final List<RowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        ImportReport report(long start) {
+            return new ImportReport(rows, imported, failed, List.copyOf(errors), System.nanoTime() - start);
+        }
+    }
+}
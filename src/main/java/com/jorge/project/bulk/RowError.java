@@ -0,0 +1,21 @@
+package com.jorge.project.bulk;
+
+import com.jorge.project.exceptions.ValidationError;
+
+/**
+ * Fila rechazada durante una importación
+ *
+ * @param line    número de línea en el archivo, empezando en 1
+ * @param message motivo del rechazo
+ * @param error   regla de {@link com.jorge.project.model.Product} que no se cumple, o null si la fila está mal formada
+ */
+public record RowError(long line, String message, ValidationError error) {
+
+    public RowError(long line, ValidationError error) {
+        this(line, error.getMessage(), error);
+    }
+
+    public RowError(long line, String message) {
+        this(line, message, null);
+    }
+}
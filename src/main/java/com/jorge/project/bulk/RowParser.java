@@ -0,0 +1,21 @@
+package com.jorge.project.bulk;
+
+import com.jorge.project.model.Product;
+
+import java.util.List;
+
+/**
+ * Convierte una línea en producto informando los errores como resultado, sin excepciones: con datos sucios los
+ * rechazos son frecuentes y crear una excepción por fila costaría más que convertirla
+ */
+@FunctionalInterface
+interface RowParser {
+
+    /**
+     * @param line       línea no vacía
+     * @param lineNumber número de la línea donde empieza la fila, para el informe
+     * @param errors     donde se agrega el motivo si la fila no es válida
+     * @return producto válido, o null después de agregar el motivo a errors
+     */
+    Product parse(String line, long lineNumber, List<RowError> errors);
+}
@@ -0,0 +1,103 @@
+package com.jorge.project.bulk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Lee las filas de un archivo de importación. En CSV una fila puede ocupar varias líneas si un campo entre comillas
+ * trae saltos de línea, que se conservan tal cual (\n, \r\n o \r). Si la comilla no se cierra antes del final del
+ * archivo o de {@link #MAX_ROW_CHARS} caracteres, la fila es solo su primera línea y las siguientes se leen como
+ * filas propias, así una comilla suelta no se lleva el resto del archivo
+ */
+final class RowReader {
+    static final int MAX_ROW_CHARS = 1 << 16;
+
+    private final BufferedReader reader;
+    private final boolean quotedLineBreaks;
+    private long lineNumber;
+    private long rowLine;
+
+    /**
+     * @param reader           origen de las líneas
+     * @param quotedLineBreaks true para CSV: una fila sigue en la línea siguiente mientras haya un campo entre
+     *                         comillas abierto
+     */
+    RowReader(BufferedReader reader, boolean quotedLineBreaks) {
+        this.reader = reader;
+        this.quotedLineBreaks = quotedLineBreaks;
+    }
+
+    /**
+     * @return siguiente fila, sin el salto de línea final, o null al terminar el archivo
+     */
+    String next() throws IOException {
+        if (!quotedLineBreaks) {
+            rowLine = ++lineNumber;
+            return reader.readLine();
+        }
+        // Marked on every row so that the rare row continuing on the next line can be re-read with its exact breaks
+        reader.mark(MAX_ROW_CHARS + 4);
+        String line = reader.readLine();
+        rowLine = ++lineNumber;
+        if (line == null || line.length() >= MAX_ROW_CHARS || !ProductCsv.endsInsideQuotes(line)) return line;
+        reader.reset();
+        String row = readQuotedRow();
+        if (row != null) return row;
+        reader.reset();
+        return reader.readLine();
+    }
+
+    /**
+     * @return línea del archivo donde empieza la última fila devuelta por {@link #next()}, desde 1
+     */
+    long line() {
+        return rowLine;
+    }
+
+    // Returns null when the quote never closes. Otherwise goes back to the mark and consumes the row's last line with
+    // readLine(), so its terminator, \r\n included, is handled like every other line's
+    private String readQuotedRow() throws IOException {
+        StringBuilder row = new StringBuilder();
+        boolean quoted = false;
+        boolean quoteSeen = false;
+        boolean fieldStart = true;
+        int breaks = 0;
+        int lastLineStart = 0;
+        int c;
+        while ((c = reader.read()) >= 0) {
+            if (row.length() >= MAX_ROW_CHARS) return null;
+            char ch = (char) c;
+            if (quoteSeen) {
+                quoteSeen = false;
+                if (ch == '"') {
+                    row.append(ch);
+                    continue;
+                }
+                quoted = false; // that quote closed the field; ch belongs to what follows it
+            }
+            if (quoted) {
+                row.append(ch);
+                if (ch == '"') {
+                    quoteSeen = true;
+                } else if (ch == '\r' || ch == '\n') {
+                    if (ch == '\r' || row.length() < 2 || row.charAt(row.length() - 2) != '\r') breaks++;
+                    lastLineStart = row.length();
+                }
+                continue;
+            }
+            if (ch == '\n' || ch == '\r') break;
+            if (ch == '"' && fieldStart) quoted = true;
+            fieldStart = ch == ',';
+            row.append(ch);
+        }
+        if (quoted && !quoteSeen) return null;
+        reader.reset();
+        long skipped = 0;
+        while (skipped < lastLineStart) {
+            skipped += reader.skip(lastLineStart - skipped);
+        }
+        reader.readLine();
+        lineNumber += breaks;
+        return row.toString();
+    }
+}
@@ -1,9 +1,23 @@
 package com.jorge.project.controller;
 
+import com.jorge.project.bulk.BulkFormat;
+import com.jorge.project.bulk.ExportReport;
+import com.jorge.project.bulk.ImportReport;
+import com.jorge.project.bulk.ProductExporter;
+import com.jorge.project.bulk.ProductImporter;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
 import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
 import com.jorge.project.service.IProductService;
 
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public class ProductController {
     private final IProductService productService;
@@ -20,6 +34,46 @@ public class ProductController {
         return productService.findAll();
     }
 
+    public List<Product> getAllProducts(int offset, int limit) {
+        return productService.findAll(offset, limit);
+    }
+
+    public Stream<Product> streamProducts() {
+        return productService.stream();
+    }
+
+    public List<Product> findProducts(ProductQuery query) {
+        return productService.query(query);
+    }
+
+    public List<Product> getProductsByCategory(Category category) {
+        return productService.findByCategory(category);
+    }
+
+    public List<Product> getProductsByCategoryAndPriceRange(Category category, double minPrice, double maxPrice) {
+        return productService.findByCategoryAndPriceInRange(category, minPrice, maxPrice);
+    }
+
+    public List<Product> getProductsByCategoryAndName(Category category, String namePart) {
+        return productService.findByCategoryAndName(category, namePart);
+    }
+
+    public CategoryStats getCategoryStats(Category category) {
+        return productService.getCategoryStats(category);
+    }
+
+    public Map<Category, CategoryStats> getCategoryStats() {
+        return productService.getCategoryStats();
+    }
+
+    public List<Product> getProductsSorted(ProductOrder order, int offset, int limit) {
+        return productService.findAllSorted(order, offset, limit);
+    }
+
+    public List<Product> getProductsSorted(ProductOrder order, Product after, int limit) {
+        return productService.findAllSorted(order, after, limit);
+    }
+
     public Product getProductById(int id) {
         return productService.findById(id);
     }
@@ -29,6 +83,22 @@ public class ProductController {
     }
 
 
+    public boolean compareAndSetProduct(int id, Product expected, Product replacement) {
+        return productService.compareAndSet(id, expected, replacement);
+    }
+
+    public boolean compareAndSetStock(int id, int expectedStock, int newStock) {
+        return productService.compareAndSetStock(id, expectedStock, newStock);
+    }
+
+    public int adjustStock(int id, int delta) {
+        return productService.adjustStock(id, delta);
+    }
+
+    public boolean reserveStock(int id, int quantity) {
+        return productService.reserve(id, quantity);
+    }
+
     public boolean deleteProduct(int id) {
         return productService.delete(id);
     }
@@ -37,8 +107,46 @@ public class ProductController {
         return productService.findByName(namePart);
     }
 
+    public List<Product> getProductsByName(String namePart, int limit) {
+        return productService.findByName(namePart, limit);
+    }
+
     public List<Product> getProductsByPriceRange(double minPrice, double maxPrice) {
         return productService.findByPriceInRange(minPrice, maxPrice);
     }
 
+    public List<Product> getProductsByPriceRange(double minPrice, double maxPrice, int offset, int limit) {
+        return productService.findByPriceInRange(minPrice, maxPrice, offset, limit);
+    }
+
+    public void createProducts(List<Product> products) {
+        productService.createAll(products);
+    }
+
+    public void updateProducts(Map<Integer, Product> products) {
+        productService.updateAll(products);
+    }
+
+    public void deleteProducts(Collection<Integer> ids) {
+        productService.deleteAll(ids);
+    }
+
+    public void applyChanges(List<ProductMutation> mutations) {
+        productService.apply(mutations);
+    }
+
+    /**
+     * @param path archivo CSV, o JSON por líneas si termina en ".jsonl" o ".ndjson"
+     */
+    public ImportReport importProducts(String path) throws IOException {
+        return new ProductImporter(productService).importFile(path, BulkFormat.forPath(path));
+    }
+
+    /**
+     * @param path archivo CSV, o JSON por líneas si termina en ".jsonl" o ".ndjson"
+     */
+    public ExportReport exportProducts(String path) throws IOException {
+        return new ProductExporter(productService).exportFile(path, BulkFormat.forPath(path));
+    }
+
 }
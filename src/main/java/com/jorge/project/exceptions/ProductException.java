@@ -1,7 +1,51 @@
 package com.jorge.project.exceptions;
 
 public class ProductException extends RuntimeException {
+    private final ValidationError error;
+
     public ProductException(String message) {
         super(message);
+        this.error = null;
+    }
+
+    /**
+     * @param error motivo de validación; el mensaje es el del motivo
+     */
+    public ProductException(ValidationError error) {
+        super(error.getMessage());
+        this.error = error;
+    }
+
+    private ProductException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.error = null;
+    }
+
+    // Shared instances for explicit hot paths: no stack trace to fill, no suppressed list to grow
+    private ProductException(ValidationError error, boolean writableStackTrace) {
+        super(error.getMessage(), null, false, writableStackTrace);
+        this.error = error;
+    }
+
+    static ProductException shared(ValidationError error) {
+        return new ProductException(error, false);
+    }
+
+    /**
+     * Crea una excepción sin traza, para errores esperados en caminos calientes donde la traza no aporta
+     * y capturarla costaría más que el resto de la operación
+     *
+     * @param message descripción del error
+     * @return excepción nueva sin traza
+     */
+    public static ProductException stackless(String message) {
+        return new ProductException(message, false);
+    }
+
+    /**
+     * @return motivo de validación, o null si el error no proviene de validar un producto
+     */
+    public ValidationError getError() {
+        return error;
     }
 }
@@ -0,0 +1,40 @@
+package com.jorge.project.exceptions;
+
+/**
+ * Motivo por el que los datos de un producto no son válidos. Las validaciones del producto lanzan una
+ * {@link ProductException} nueva con el motivo; además cada motivo tiene una excepción preasignada y sin traza para
+ * caminos calientes que la lancen a propósito
+ */
+public enum ValidationError {
+
+    NAME_BLANK("Nombre no puede estar vacío"),
+    PRICE_NOT_POSITIVE("Precio debe ser mayor que cero"),
+    STOCK_NEGATIVE("Stock no puede ser negativo"),
+    CATEGORY_NULL("Categoría no puede ser nulo"),
+    ID_NOT_POSITIVE("ID debe ser un número positivo");
+
+    private final String message;
+    private final ProductException sharedException;
+
+    ValidationError(String message) {
+        this.message = message;
+        this.sharedException = ProductException.shared(this);
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return excepción compartida para este motivo, sin traza ni excepciones suprimidas; solo para caminos calientes
+     * que rechazan muchos datos, nunca para errores que alguien tenga que depurar
+     */
+    public ProductException sharedException() {
+        return sharedException;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
@@ -0,0 +1,253 @@
+package com.jorge.project.feed;
+
+import com.jorge.project.model.ChangeType;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductChange;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feed de cambios del catálogo con números de secuencia consecutivos, para que cachés e índices externos se
+ * sincronicen de forma incremental en lugar de comparar {@code findAll()} completos.
+ * Los últimos retention cambios se guardan en un búfer circular compartido por todos los suscriptores; cada uno
+ * avanza su propio cursor según lo que pida con {@link Flow.Subscription#request(long)}, así un suscriptor lento
+ * nunca frena a quien modifica el catálogo ni ocupa memoria propia. Si se atrasa más de retention cambios recibe
+ * {@link MissedChangesException} y debe volver a leer el catálogo completo.
+ * Las secuencias empiezan en 1 con cada instancia: tras reiniciar la aplicación también hay que releer el catálogo.
+ */
+public class ChangeFeed implements Flow.Publisher<ProductChange>, AutoCloseable {
+    public static final int DEFAULT_RETENTION = 1 << 16;
+
+    private static final int BATCH_SIZE = 256;
+
+    private final ProductChange[] ring;
+    private final Executor executor;
+    private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private long lastSequence;
+    private boolean closed;
+
+    public ChangeFeed() {
+        this(DEFAULT_RETENTION);
+    }
+
+    /**
+     * @param retention cantidad de cambios recientes que se pueden retomar
+     */
+    public ChangeFeed(int retention) {
+        this(retention, Thread.ofVirtual()::start);
+    }
+
+    /**
+     * @param retention cantidad de cambios recientes que se pueden retomar
+     * @param executor  ejecuta las entregas a los suscriptores
+     */
+    public ChangeFeed(int retention, Executor executor) {
+        if (retention <= 0) {
+            throw new IllegalArgumentException("retention debe ser mayor que cero");
+        }
+        this.ring = new ProductChange[retention];
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    public void created(Product product) {
+        publish(ChangeType.CREATED, product.getId(), null, product);
+    }
+
+    public void updated(Product previous, Product product) {
+        boolean onlyStock = previous.getStock() != product.getStock()
+                && previous.getName().equals(product.getName())
+                && Double.compare(previous.getPrice(), product.getPrice()) == 0
+                && previous.getCategory() == product.getCategory();
+        publish(onlyStock ? ChangeType.STOCK_CHANGED : ChangeType.UPDATED, product.getId(), previous, product);
+    }
+
+    public void deleted(Product previous) {
+        publish(ChangeType.DELETED, previous.getId(), previous, null);
+    }
+
+    /**
+     * Suscribe a partir del próximo cambio
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super ProductChange> subscriber) {
+        subscribe(subscriber, lastSequence() + 1);
+    }
+
+    /**
+     * Suscribe a partir de un cambio ya publicado o del próximo, p. ej. el siguiente al último que se procesó.
+     * Si fromSequence ya salió del búfer el suscriptor recibe {@link MissedChangesException}
+     *
+     * @param subscriber   suscriptor
+     * @param fromSequence secuencia del primer cambio a recibir, entre {@link #oldestSequence()} y
+     *                     {@link #lastSequence()} + 1
+     */
+    public void subscribe(Flow.Subscriber<? super ProductChange> subscriber, long fromSequence) {
+        ChangeSubscription subscription = new ChangeSubscription(Objects.requireNonNull(subscriber), fromSequence);
+        long last = lastSequence();
+        if (fromSequence > last + 1) {
+            subscription.error = new IllegalArgumentException(
+                    "La secuencia %d todavía no existe; la última es %d".formatted(fromSequence, last));
+        }
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        // Reports an error, a gap or an already closed feed right away, without waiting for demand
+        subscription.signal();
+    }
+
+    /**
+     * @return secuencia del último cambio publicado, 0 si todavía no hubo cambios
+     */
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * @return secuencia del cambio más antiguo que todavía se puede retomar
+     */
+    public synchronized long oldestSequence() {
+        return Math.max(1, lastSequence - ring.length + 1);
+    }
+
+    /**
+     * Termina el feed: cada suscriptor recibe onComplete después de los cambios que tenga pendientes
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    // Callers publish under their own lock, so sequences follow the order in which changes were applied
+    private void publish(ChangeType type, int id, Product previous, Product product) {
+        synchronized (this) {
+            if (closed) return;
+            ProductChange change = new ProductChange(++lastSequence, type, id, previous, product);
+            ring[(int) (change.sequence() % ring.length)] = change;
+        }
+        for (ChangeSubscription subscription : subscriptions) {
+            if (subscription.demand.get() > 0) subscription.signal();
+        }
+    }
+
+    /**
+     * Copia los cambios desde la secuencia from
+     *
+     * @return cantidad copiada, o -1 si from ya salió del búfer
+     */
+    private synchronized int read(long from, int max, ProductChange[] out) {
+        if (from < Math.max(1, lastSequence - ring.length + 1)) return -1;
+        if (from > lastSequence) return 0;
+        int count = (int) Math.min(max, lastSequence - from + 1);
+        for (int i = 0; i < count; i++) {
+            out[i] = ring[(int) ((from + i) % ring.length)];
+        }
+        return count;
+    }
+
+    private synchronized boolean finished(long cursor) {
+        return closed && cursor > lastSequence;
+    }
+
+    /**
+     * Suscripción con su propio cursor. Las entregas se serializan con el contador work: solo el hilo que lo
+     * sube de 0 entrega, y vuelve a revisar mientras otros hilos lo hayan subido entretanto
+     */
+    private final class ChangeSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ProductChange> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private final ProductChange[] batch = new ProductChange[BATCH_SIZE];
+        private long cursor;
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+
+        ChangeSubscription(Flow.Subscriber<? super ProductChange> subscriber, long fromSequence) {
+            this.subscriber = subscriber;
+            this.cursor = fromSequence;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("La cantidad pedida debe ser mayor que cero"));
+                return;
+            }
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        void fail(Throwable throwable) {
+            error = throwable;
+            signal();
+        }
+
+        void signal() {
+            if (work.getAndIncrement() == 0) executor.execute(this::drain);
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                deliver();
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliver() {
+            while (!cancelled) {
+                if (error != null) {
+                    terminate(error);
+                    return;
+                }
+                long requested = demand.get();
+                int count = read(cursor, (int) Math.min(requested, BATCH_SIZE), batch);
+                if (count < 0) {
+                    terminate(new MissedChangesException(cursor, oldestSequence()));
+                    return;
+                }
+                if (count == 0) {
+                    if (finished(cursor)) terminate(null);
+                    return;
+                }
+                for (int i = 0; i < count && !cancelled; i++) {
+                    ProductChange change = batch[i];
+                    batch[i] = null;
+                    try {
+                        subscriber.onNext(change);
+                    } catch (RuntimeException e) {
+                        terminate(e);
+                        return;
+                    }
+                    cursor++;
+                }
+                demand.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - count);
+            }
+        }
+
+        // A null error completes normally
+        private void terminate(Throwable throwable) {
+            cancel();
+            if (throwable == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(throwable);
+            }
+        }
+    }
+}
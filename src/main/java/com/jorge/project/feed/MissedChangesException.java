@@ -0,0 +1,26 @@
+package com.jorge.project.feed;
+
+/**
+ * El suscriptor pidió cambios que el feed ya descartó; para seguir debe releer el catálogo completo y
+ * suscribirse desde {@link ChangeFeed#lastSequence()} + 1 tomado antes de leerlo
+ */
+public class MissedChangesException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final long sequence;
+    private final long oldestSequence;
+
+    public MissedChangesException(long sequence, long oldestSequence) {
+        super("El cambio %d ya no está disponible; el más antiguo es %d".formatted(sequence, oldestSequence));
+        this.sequence = sequence;
+        this.oldestSequence = oldestSequence;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getOldestSequence() {
+        return oldestSequence;
+    }
+}
@@ -0,0 +1,430 @@
+package com.jorge.project.http;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import com.jorge.project.controller.ProductController;
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * API HTTP/JSON sobre {@link ProductController} con el {@code HttpServer} del JDK.
+ * Cada petición se atiende en su propio hilo virtual, así una petición que espera al disco no ocupa un hilo del sistema.
+ * El controlador debe envolver un servicio seguro para varios hilos, p. ej. {@code ConcurrentProductServiceImpl}.
+ *
+ * <pre>
+ * GET    /products                       todos los productos, enviados en streaming sin reunirlos en memoria
+ * GET    /products?offset=0&amp;limit=50     una página
+ * GET    /products?ids=1,2,3             varios productos en una sola petición; los IDs inexistentes se omiten
+ * GET    /products/{id}                  un producto
+ * GET    /products/search?name=&amp;minPrice=&amp;maxPrice=&amp;category=&amp;minStock=&amp;maxStock=&amp;order=&amp;limit=
+ * GET    /products/sorted?order=PRICE&amp;offset=0&amp;limit=50
+ * POST   /products                       alta; responde 201 con el producto y su ID
+ * PUT    /products/{id}                  modificación
+ * DELETE /products/{id}                  baja
+ * POST   /products/batch                 lote atómico: [{"op":"create","product":{...}}, {"op":"update","id":1,"product":{...}}, {"op":"delete","id":2}]
+ * POST   /products/{id}/stock            {"delta": -3}; responde con el nuevo stock
+ * POST   /products/{id}/reserve          {"quantity": 2}; 409 si no hay stock suficiente
+ * GET    /categories/stats               resumen de todas las categorías
+ * GET    /categories/{categoría}/stats   resumen de una categoría
+ * </pre>
+ * <p>
+ * Los errores de validación responden 400 con {"error": mensaje}; los recursos inexistentes, 404.
+ * <p>
+ * Sin -Dsun.net.httpserver.nodelay=true cada respuesta espera unos 40 ms al ACK retardado; App lo activa al
+ * arrancar la API.
+ */
+public class ProductHttpServer implements Closeable {
+    private static final Gson GSON = new Gson();
+    private static final TypeAdapter<Product> PRODUCT_ADAPTER = GSON.getAdapter(Product.class);
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private final ProductController controller;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Crea el servidor y empieza a atender peticiones
+     *
+     * @param controller controlador sobre un servicio seguro para varios hilos
+     * @param port       puerto; 0 para elegir uno libre
+     */
+    public ProductHttpServer(ProductController controller, int port) throws IOException {
+        this.controller = controller;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/products", this::handleProducts);
+        server.createContext("/categories", this::handleCategories);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return puerto en el que escucha el servidor
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Deja de aceptar peticiones y espera a que terminen las que están en curso
+     */
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.close();
+    }
+
+    private void handleProducts(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String[] path = segments(exchange);
+            String method = exchange.getRequestMethod();
+            Map<String, String> params = params(exchange);
+            if (path.length == 1) {
+                switch (method) {
+                    case "GET" -> listProducts(exchange, params);
+                    case "POST" -> {
+                        Product product = readProduct(exchange);
+                        controller.createProduct(product);
+                        sendJson(exchange, 201, product);
+                    }
+                    default -> methodNotAllowed(exchange, "GET, POST");
+                }
+                return;
+            }
+            switch (path[1]) {
+                case "search" -> {
+                    if (!requireMethod(exchange, "GET")) return;
+                    sendJson(exchange, 200, controller.findProducts(query(params)));
+                }
+                case "sorted" -> {
+                    if (!requireMethod(exchange, "GET")) return;
+                    ProductOrder order = enumParam(params, "order", ProductOrder.class, ProductOrder.ID);
+                    sendJson(exchange, 200, controller.getProductsSorted(order,
+                            intParam(params, "offset", 0), intParam(params, "limit", Integer.MAX_VALUE)));
+                }
+                case "batch" -> {
+                    if (!requireMethod(exchange, "POST")) return;
+                    applyBatch(exchange);
+                }
+                default -> {
+                    if (path.length > 3) notFound(exchange);
+                    else handleProduct(exchange, parseId(path[1]), path.length > 2 ? path[2] : null);
+                }
+            }
+        });
+    }
+
+    private void handleProduct(HttpExchange exchange, int id, String action) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (action == null) {
+            switch (method) {
+                case "GET" -> {
+                    Product product = controller.getProductById(id);
+                    if (product == null) notFound(exchange);
+                    else sendJson(exchange, 200, product);
+                }
+                case "PUT" -> {
+                    Product product = readProduct(exchange);
+                    if (!controller.updateProduct(id, product)) {
+                        notFound(exchange);
+                        return;
+                    }
+                    sendJson(exchange, 200, controller.getProductById(id));
+                }
+                case "DELETE" -> {
+                    if (controller.deleteProduct(id)) send(exchange, 204, null);
+                    else notFound(exchange);
+                }
+                default -> methodNotAllowed(exchange, "GET, PUT, DELETE");
+            }
+            return;
+        }
+        if (!requireMethod(exchange, "POST")) return;
+        if (controller.getProductById(id) == null) {
+            notFound(exchange);
+            return;
+        }
+        switch (action) {
+            case "stock" -> {
+                int stock = controller.adjustStock(id, intField(readObject(exchange), "delta"));
+                sendJson(exchange, 200, Map.of("id", id, "stock", stock));
+            }
+            case "reserve" -> {
+                boolean reserved = controller.reserveStock(id, intField(readObject(exchange), "quantity"));
+                sendJson(exchange, reserved ? 200 : 409, Map.of("id", id, "reserved", reserved));
+            }
+            default -> notFound(exchange);
+        }
+    }
+
+    private void handleCategories(HttpExchange exchange) throws IOException {
+        handle(exchange, () -> {
+            String[] path = segments(exchange);
+            if (!requireMethod(exchange, "GET")) return;
+            if (path.length == 2 && path[1].equals("stats")) {
+                sendJson(exchange, 200, controller.getCategoryStats());
+            } else if (path.length == 3 && path[2].equals("stats")) {
+                sendJson(exchange, 200, controller.getCategoryStats(parseEnum(path[1], Category.class)));
+            } else {
+                notFound(exchange);
+            }
+        });
+    }
+
+    private void listProducts(HttpExchange exchange, Map<String, String> params) throws IOException {
+        String ids = params.get("ids");
+        if (ids != null) {
+            List<Product> products = new ArrayList<>();
+            for (String raw : ids.split(",")) {
+                if (raw.isBlank()) continue;
+                Product product = controller.getProductById(parseId(raw.trim()));
+                if (product != null) products.add(product);
+            }
+            sendJson(exchange, 200, products);
+        } else if (params.containsKey("offset") || params.containsKey("limit")) {
+            sendJson(exchange, 200, controller.getAllProducts(intParam(params, "offset", 0),
+                    intParam(params, "limit", Integer.MAX_VALUE)));
+        } else {
+            streamProducts(exchange);
+        }
+    }
+
+    // Chunked response written product by product, so the listing never has to fit in memory as one string
+    private void streamProducts(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Stream<Product> products = controller.streamProducts();
+             JsonWriter writer = new JsonWriter(new BufferedWriter(
+                     new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), STREAM_BUFFER_SIZE))) {
+            writer.beginArray();
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                PRODUCT_ADAPTER.write(writer, iterator.next());
+            }
+            writer.endArray();
+        }
+    }
+
+    private void applyBatch(HttpExchange exchange) throws IOException {
+        JsonArray operations = parse(exchange, JsonArray.class);
+        List<ProductMutation> mutations = new ArrayList<>(operations.size());
+        List<Product> created = new ArrayList<>();
+        for (JsonElement element : operations) {
+            if (!element.isJsonObject()) throw new ProductException("Cada cambio del lote debe ser un objeto");
+            JsonObject operation = element.getAsJsonObject();
+            JsonElement rawOp = operation.get("op");
+            String op = rawOp != null && rawOp.isJsonPrimitive() ? rawOp.getAsString() : "";
+            switch (op) {
+                case "create" -> {
+                    Product product = toProduct(operation.get("product"));
+                    created.add(product);
+                    mutations.add(new ProductMutation.Create(product));
+                }
+                case "update" -> mutations.add(
+                        new ProductMutation.Update(intField(operation, "id"), toProduct(operation.get("product"))));
+                case "delete" -> mutations.add(new ProductMutation.Delete(intField(operation, "id")));
+                default -> throw new ProductException("Operación de lote desconocida: " + op);
+            }
+        }
+        controller.applyChanges(mutations);
+        List<Integer> ids = new ArrayList<>(created.size());
+        for (Product product : created) {
+            ids.add(product.getId());
+        }
+        sendJson(exchange, 200, Map.of("applied", mutations.size(), "created", ids));
+    }
+
+    private static ProductQuery query(Map<String, String> params) {
+        ProductQuery query = ProductQuery.all().withName(params.get("name"));
+        if (params.containsKey("minPrice") || params.containsKey("maxPrice")) {
+            query = query.withPriceBetween(doubleParam(params, "minPrice", Double.NEGATIVE_INFINITY),
+                    doubleParam(params, "maxPrice", Double.POSITIVE_INFINITY));
+        }
+        return query.withCategory(enumParam(params, "category", Category.class, null))
+                .withMinStock(intParam(params, "minStock", Integer.MIN_VALUE))
+                .withMaxStock(intParam(params, "maxStock", Integer.MAX_VALUE))
+                .orderBy(enumParam(params, "order", ProductOrder.class, null))
+                .withLimit(intParam(params, "limit", Integer.MAX_VALUE));
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private static void handle(HttpExchange exchange, Action action) throws IOException {
+        try (exchange) {
+            try {
+                action.run();
+            } catch (ProductException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (JsonParseException e) {
+                sendError(exchange, 400, "JSON inválido");
+            } catch (RuntimeException e) {
+                System.out.println("Error handling request " + exchange.getRequestURI() + ": " + e);
+                sendError(exchange, 500, "Error interno");
+            }
+        }
+    }
+
+    private static String[] segments(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        return path.replaceAll("^/+|/+$", "").split("/+");
+    }
+
+    private static Map<String, String> params(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) return params;
+        for (String pair : raw.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // Bad parameters only become a 400 response, so their exceptions skip the stack trace
+    private static int parseId(String raw) {
+        try {
+            return Integer.parseInt(raw);
+        } catch (NumberFormatException e) {
+            throw ProductException.stackless("ID inválido: " + raw);
+        }
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        String raw = params.get(name);
+        if (raw == null || raw.isBlank()) return defaultValue;
+        try {
+            return Integer.parseInt(raw.trim());
+        } catch (NumberFormatException e) {
+            throw ProductException.stackless("Parámetro %s debe ser un número entero".formatted(name));
+        }
+    }
+
+    private static double doubleParam(Map<String, String> params, String name, double defaultValue) {
+        String raw = params.get(name);
+        if (raw == null || raw.isBlank()) return defaultValue;
+        try {
+            return Double.parseDouble(raw.trim());
+        } catch (NumberFormatException e) {
+            throw ProductException.stackless("Parámetro %s debe ser un número".formatted(name));
+        }
+    }
+
+    private static <E extends Enum<E>> E enumParam(Map<String, String> params, String name, Class<E> type,
+                                                   E defaultValue) {
+        String raw = params.get(name);
+        return raw == null || raw.isBlank() ? defaultValue : parseEnum(raw, type);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(String raw, Class<E> type) {
+        try {
+            return Enum.valueOf(type, raw.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw ProductException.stackless("Valor inválido: " + raw);
+        }
+    }
+
+    private static int intField(JsonObject object, String name) {
+        JsonElement value = object.get(name);
+        if (value == null || !value.isJsonPrimitive() || !value.getAsJsonPrimitive().isNumber()) {
+            throw ProductException.stackless("Campo %s debe ser un número entero".formatted(name));
+        }
+        // getAsInt() would truncate fractions and wrap values outside the int range
+        try {
+            return value.getAsBigDecimal().intValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw ProductException.stackless("Campo %s debe ser un número entero".formatted(name));
+        }
+    }
+
+    private static Product readProduct(HttpExchange exchange) throws IOException {
+        return toProduct(parse(exchange, JsonElement.class));
+    }
+
+    private static JsonObject readObject(HttpExchange exchange) throws IOException {
+        return parse(exchange, JsonObject.class);
+    }
+
+    // Gson fills the fields without calling a constructor, so the copy is what runs Product's validations
+    private static Product toProduct(JsonElement json) {
+        if (json == null || !json.isJsonObject()) throw new ProductException("Producto no puede ser nulo");
+        JsonObject object = json.getAsJsonObject();
+        object.remove("id");
+        return new Product(GSON.fromJson(object, Product.class));
+    }
+
+    private static <T> T parse(HttpExchange exchange, Class<T> type) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        T value = GSON.fromJson(body, type);
+        if (value == null) throw new ProductException("El cuerpo de la petición no puede estar vacío");
+        return value;
+    }
+
+    private static boolean requireMethod(HttpExchange exchange, String method) throws IOException {
+        if (exchange.getRequestMethod().equals(method)) return true;
+        methodNotAllowed(exchange, method);
+        return false;
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange, String allowed) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        sendError(exchange, 405, "Método no permitido");
+    }
+
+    private static void notFound(HttpExchange exchange) throws IOException {
+        sendError(exchange, 404, "No encontrado");
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, Map.of("error", message));
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        send(exchange, status, GSON.toJson(body).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
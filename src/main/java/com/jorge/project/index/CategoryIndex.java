@@ -0,0 +1,89 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Partición de los productos por categoría. Cada categoría guarda sus productos en orden de alta
+ * y mantiene en cada cambio la cantidad, el stock total y el valor del inventario, así los resúmenes
+ * cuestan O(1). El valor se acumula en decimal exacto para que las altas y bajas no arrastren redondeos.
+ */
+public class CategoryIndex {
+
+    private static final class Partition {
+        private final IntProductIndex products = new IntProductIndex();
+        private long totalStock;
+        private BigDecimal inventoryValue = BigDecimal.ZERO;
+
+        private void add(Product product) {
+            products.put(product);
+            totalStock += product.getStock();
+            inventoryValue = inventoryValue.add(valueOf(product));
+        }
+
+        private void remove(Product product) {
+            products.remove(product.getId());
+            totalStock -= product.getStock();
+            inventoryValue = inventoryValue.subtract(valueOf(product));
+        }
+    }
+
+    private final Map<Category, Partition> partitions = new EnumMap<>(Category.class);
+
+    public CategoryIndex() {
+        for (Category category : Category.values()) {
+            partitions.put(category, new Partition());
+        }
+    }
+
+    public void add(Product product) {
+        partitions.get(product.getCategory()).add(product);
+    }
+
+    public void remove(Product product) {
+        partitions.get(product.getCategory()).remove(product);
+    }
+
+    /**
+     * Cambia un producto por su nueva versión; si sigue en la misma categoría conserva su posición
+     *
+     * @param previous versión indexada, o null si el producto es nuevo
+     * @param current  nueva versión
+     */
+    public void replace(Product previous, Product current) {
+        if (previous != null) {
+            Partition partition = partitions.get(previous.getCategory());
+            partition.totalStock -= previous.getStock();
+            partition.inventoryValue = partition.inventoryValue.subtract(valueOf(previous));
+            if (previous.getCategory() != current.getCategory()) partition.products.remove(previous.getId());
+        }
+        add(current);
+    }
+
+    /**
+     * @param category categoría
+     * @return vista inmutable de los productos de la categoría en orden de alta
+     */
+    public ProductSnapshot products(Category category) {
+        return partitions.get(category).products.snapshot();
+    }
+
+    /**
+     * @param category categoría
+     * @return resumen mantenido de la categoría
+     */
+    public CategoryStats stats(Category category) {
+        Partition partition = partitions.get(category);
+        return new CategoryStats(category, partition.products.size(), partition.totalStock,
+                partition.inventoryValue.doubleValue());
+    }
+
+    private static BigDecimal valueOf(Product product) {
+        return BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(product.getStock()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.jorge.project.index;
+
+/**
+ * Tabla hash de direccionamiento abierto de int a int, sin objetos por entrada.
+ */
+final class IntIntMap {
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values; // valor + 1, 0 = bucket libre
+    private int mask;
+    private int size;
+
+    IntIntMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(expectedSize * 2 - 1, MIN_CAPACITY)) << 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return valor asociado o -1 si la clave no existe
+     */
+    int get(int key) {
+        int bucket = find(key);
+        return bucket < 0 ? -1 : values[bucket] - 1;
+    }
+
+    /**
+     * @param value valor no negativo
+     */
+    void put(int key, int value) {
+        int bucket = find(key);
+        if (bucket >= 0) {
+            values[bucket] = value + 1;
+            return;
+        }
+        if ((size + 1) * 2 > keys.length) rehash(keys.length * 2);
+        insert(key, value);
+        size++;
+    }
+
+    void remove(int key) {
+        int hole = find(key);
+        if (hole < 0) return;
+        size--;
+        // Backward-shift deletion keeps linear probing chains intact without tombstones
+        int current = hole;
+        while (true) {
+            current = (current + 1) & mask;
+            if (values[current] == 0) break;
+            int ideal = bucketOf(keys[current]);
+            boolean movable = current > hole ? (ideal <= hole || ideal > current) : (ideal <= hole && ideal > current);
+            if (movable) {
+                keys[hole] = keys[current];
+                values[hole] = values[current];
+                hole = current;
+            }
+        }
+        values[hole] = 0;
+    }
+
+    void clear() {
+        allocate(keys.length);
+        size = 0;
+    }
+
+    IntIntMap copy() {
+        IntIntMap copy = new IntIntMap(0);
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.mask = mask;
+        copy.size = size;
+        return copy;
+    }
+
+    private int find(int key) {
+        for (int bucket = bucketOf(key); ; bucket = (bucket + 1) & mask) {
+            if (values[bucket] == 0) return -1;
+            if (keys[bucket] == key) return bucket;
+        }
+    }
+
+    private void insert(int key, int value) {
+        int bucket = bucketOf(key);
+        while (values[bucket] != 0) bucket = (bucket + 1) & mask;
+        keys[bucket] = key;
+        values[bucket] = value + 1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) insert(oldKeys[i], oldValues[i] - 1);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private int bucketOf(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,255 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Product;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Índice primario de productos por ID con claves int primitivas.
+ * Los productos se guardan en un arreglo en orden de inserción (los eliminados quedan como huecos
+ * que se compactan al crecer) y una tabla hash de direccionamiento abierto relaciona cada ID con su posición.
+ * La iteración respeta el orden de inserción; reemplazar un producto existente conserva su posición.
+ * {@link #snapshot()} entrega vistas inmutables que comparten el arreglo: las modificaciones en posiciones
+ * visibles para una vista trabajan sobre una copia (copy-on-write), las altas al final no copian nada.
+ */
+public class IntProductIndex implements Iterable<Product> {
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] slots; // posición en entries + 1, 0 = bucket libre
+    private int mask;
+    private Product[] entries;
+    private int end;
+    private int size;
+    private ProductSnapshot snapshot = ProductSnapshot.EMPTY;
+    private boolean shared;
+
+    public IntProductIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntProductIndex(int expectedSize) {
+        entries = new Product[Math.max(expectedSize, MIN_CAPACITY)];
+        allocateTable(tableSizeFor(entries.length));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param id del producto
+     * @return Producto con ese ID o null si no existe
+     */
+    public Product get(int id) {
+        int bucket = find(id);
+        return bucket < 0 ? null : entries[slots[bucket] - 1];
+    }
+
+    public boolean contains(int id) {
+        return find(id) >= 0;
+    }
+
+    /**
+     * Agrega el producto al final o reemplaza al que tenga el mismo ID, conservando su posición
+     *
+     * @param product producto a guardar
+     * @return Producto reemplazado o null si el ID no existía
+     */
+    public Product put(Product product) {
+        int id = product.getId();
+        int bucket = find(id);
+        if (bucket >= 0) {
+            int slot = slots[bucket] - 1;
+            Product previous = entries[slot];
+            unshare();
+            entries[slot] = product;
+            return previous;
+        }
+        ensureCapacity();
+        snapshot = null;
+        entries[end] = product;
+        insert(id, end);
+        end++;
+        size++;
+        return null;
+    }
+
+    /**
+     * @param id del producto a eliminar
+     * @return Producto eliminado o null si no existía
+     */
+    public Product remove(int id) {
+        int bucket = find(id);
+        if (bucket < 0) return null;
+        int slot = slots[bucket] - 1;
+        Product removed = entries[slot];
+        unshare();
+        entries[slot] = null;
+        size--;
+        while (end > 0 && entries[end - 1] == null) end--;
+        deleteBucket(bucket);
+        return removed;
+    }
+
+    /**
+     * Posición relativa del producto en el orden de iteración. Las posiciones cambian al compactar,
+     * pero el orden entre dos productos se mantiene mientras ambos existan.
+     *
+     * @param id del producto
+     * @return posición o -1 si no existe
+     */
+    public int positionOf(int id) {
+        int bucket = find(id);
+        return bucket < 0 ? -1 : slots[bucket] - 1;
+    }
+
+    /**
+     * Vista inmutable de los productos actuales en orden de inserción. Mientras no haya cambios
+     * devuelve siempre la misma vista; tras un cambio crea otra sin copiar los productos.
+     *
+     * @return productos en orden de inserción
+     */
+    public ProductSnapshot snapshot() {
+        if (snapshot == null) {
+            snapshot = new ProductSnapshot(entries, end, size);
+            shared = true;
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return copia de los productos en orden de inserción
+     */
+    public List<Product> values() {
+        List<Product> values = new ArrayList<>(size);
+        for (int i = 0; i < end; i++) {
+            if (entries[i] != null) values.add(entries[i]);
+        }
+        return values;
+    }
+
+    public Stream<Product> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public Iterator<Product> iterator() {
+        return new Iterator<>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < end && entries[from] == null) from++;
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public Product next() {
+                if (next >= end) throw new NoSuchElementException();
+                Product product = entries[next];
+                next = advance(next + 1);
+                return product;
+            }
+        };
+    }
+
+    private int find(int id) {
+        for (int bucket = bucketOf(id); ; bucket = (bucket + 1) & mask) {
+            if (slots[bucket] == 0) return -1;
+            if (keys[bucket] == id) return bucket;
+        }
+    }
+
+    private void insert(int id, int slot) {
+        int bucket = bucketOf(id);
+        while (slots[bucket] != 0) bucket = (bucket + 1) & mask;
+        keys[bucket] = id;
+        slots[bucket] = slot + 1;
+    }
+
+    // Backward-shift deletion keeps linear probing chains intact without tombstones
+    private void deleteBucket(int hole) {
+        int current = hole;
+        while (true) {
+            current = (current + 1) & mask;
+            if (slots[current] == 0) break;
+            int ideal = bucketOf(keys[current]);
+            boolean movable = current > hole ? (ideal <= hole || ideal > current) : (ideal <= hole && ideal > current);
+            if (movable) {
+                keys[hole] = keys[current];
+                slots[hole] = slots[current];
+                hole = current;
+            }
+        }
+        slots[hole] = 0;
+    }
+
+    private void ensureCapacity() {
+        if (end == entries.length) {
+            if (end - size >= end / 2) {
+                compact();
+            } else {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+                shared = false;
+            }
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    private void compact() {
+        unshare();
+        int live = 0;
+        for (int i = 0; i < end; i++) {
+            if (entries[i] != null) entries[live++] = entries[i];
+        }
+        Arrays.fill(entries, live, end, null);
+        end = live;
+        rehash(keys.length);
+    }
+
+    // Las vistas entregadas solo ven posiciones anteriores a su fin, que no pueden cambiar bajo sus pies
+    private void unshare() {
+        snapshot = null;
+        if (shared) {
+            entries = entries.clone();
+            shared = false;
+        }
+    }
+
+    private void rehash(int capacity) {
+        allocateTable(capacity);
+        for (int i = 0; i < end; i++) {
+            if (entries[i] != null) insert(entries[i].getId(), i);
+        }
+    }
+
+    private void allocateTable(int capacity) {
+        keys = new int[capacity];
+        slots = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private int bucketOf(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 2 - 1, MIN_CAPACITY));
+        return capacity << 1;
+    }
+}
@@ -0,0 +1,302 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Product;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Índice de n-gramas (bigramas y trigramas) sobre el nombre en minúsculas de cada producto para búsquedas
+ * por subcadena. Cada n-grama apunta a la lista de productos que lo contienen, ordenada por orden de alta;
+ * una búsqueda recorre la lista más corta entre los trigramas del texto (o su bigrama, si tiene dos caracteres)
+ * y verifica cada candidato con {@code contains}, así que devuelve exactamente lo mismo que filtrar todo el catálogo.
+ * Los textos de un solo carácter recorren todos los productos, cortando al alcanzar el límite.
+ */
+public class NameIndex {
+
+    private static final class Entry {
+        private final long seq;
+        private Product product;
+        private String lowerName;
+
+        private Entry(long seq, Product product) {
+            this.seq = seq;
+            this.product = product;
+            this.lowerName = product.getName().toLowerCase();
+        }
+
+        // Takes the place of a removed entry, so a list stays sorted by seq until it is compacted
+        private Entry(long seq) {
+            this.seq = seq;
+        }
+
+        private boolean removed() {
+            return product == null;
+        }
+    }
+
+    /**
+     * Lista de entradas ordenada por seq. Las bajas dejan una marca en su lugar en vez de correr el resto de la
+     * lista; cuando las marcas son más que las entradas vigentes, la lista se compacta
+     */
+    private static final class Postings {
+        private Entry[] entries = new Entry[4];
+        // Slots in use, removed ones included
+        private int size;
+        private int removed;
+        private long lastSeq = -1;
+
+        private int live() {
+            return size - removed;
+        }
+
+        private void add(Entry entry) {
+            // Cached so the common append path does not touch the previous entry
+            if (entry.seq > lastSeq) {
+                if (size == entries.length) entries = Arrays.copyOf(entries, size * 2);
+                entries[size++] = entry;
+                lastSeq = entry.seq;
+                return;
+            }
+            // A rename can bring an entry back to a list it left: reuse its mark if it is still there
+            int at = indexOf(entry.seq);
+            if (at >= 0) {
+                entries[at] = entry;
+                removed--;
+                return;
+            }
+            at = -(at + 1);
+            if (size == entries.length) entries = Arrays.copyOf(entries, size * 2);
+            System.arraycopy(entries, at, entries, at + 1, size - at);
+            entries[at] = entry;
+            size++;
+        }
+
+        private void remove(Entry entry) {
+            int at = indexOf(entry.seq);
+            if (at < 0 || entries[at].removed()) return;
+            entries[at] = new Entry(entry.seq);
+            removed++;
+            if (removed * 2 > size) compact();
+        }
+
+        // Each compaction follows at least size / 2 removals, so it costs O(1) per removal
+        private void compact() {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!entries[i].removed()) entries[kept++] = entries[i];
+            }
+            Arrays.fill(entries, kept, size, null);
+            size = kept;
+            removed = 0;
+        }
+
+        private int indexOf(long seq) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midSeq = entries[mid].seq;
+                if (midSeq < seq) low = mid + 1;
+                else if (midSeq > seq) high = mid - 1;
+                else return mid;
+            }
+            return -(low + 1);
+        }
+    }
+
+    /**
+     * Tabla hash de direccionamiento abierto de n-grama a lista, con claves long primitivas.
+     * Las listas que quedan vacías se conservan: no cambian el resultado de una búsqueda.
+     */
+    private static final class GramTable {
+        private long[] keys = new long[1024];
+        private Postings[] values = new Postings[1024];
+        private int size;
+
+        private Postings get(long gram) {
+            int mask = keys.length - 1;
+            for (int bucket = bucketOf(gram, mask); values[bucket] != null; bucket = (bucket + 1) & mask) {
+                if (keys[bucket] == gram) return values[bucket];
+            }
+            return null;
+        }
+
+        private Postings getOrCreate(long gram) {
+            int mask = keys.length - 1;
+            int bucket = bucketOf(gram, mask);
+            for (; values[bucket] != null; bucket = (bucket + 1) & mask) {
+                if (keys[bucket] == gram) return values[bucket];
+            }
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                return getOrCreate(gram);
+            }
+            keys[bucket] = gram;
+            size++;
+            return values[bucket] = new Postings();
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            Postings[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Postings[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] == null) continue;
+                int bucket = bucketOf(oldKeys[i], mask);
+                while (values[bucket] != null) bucket = (bucket + 1) & mask;
+                keys[bucket] = oldKeys[i];
+                values[bucket] = oldValues[i];
+            }
+        }
+
+        private static int bucketOf(long gram, int mask) {
+            long hash = gram * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+
+    private final Map<Integer, Entry> byId = new HashMap<>();
+    private final GramTable byGram = new GramTable();
+    private final Postings all = new Postings();
+    private long nextSeq;
+
+    /**
+     * Agrega un producto nuevo al final del orden, o reindexa su nombre si el ID ya estaba
+     * conservando su posición
+     */
+    public void add(Product product) {
+        Entry entry = byId.get(product.getId());
+        if (entry != null) {
+            update(entry, product);
+            return;
+        }
+        entry = new Entry(nextSeq++, product);
+        byId.put(product.getId(), entry);
+        all.add(entry);
+        for (long gram : grams(entry.lowerName)) {
+            byGram.getOrCreate(gram).add(entry);
+        }
+    }
+
+    /**
+     * Reindexa el nombre de un producto ya indexado; se llama después de modificarlo
+     */
+    public void update(Product product) {
+        Entry entry = byId.get(product.getId());
+        if (entry == null) {
+            add(product);
+        } else {
+            update(entry, product);
+        }
+    }
+
+    public void remove(int id) {
+        Entry entry = byId.remove(id);
+        if (entry == null) return;
+        all.remove(entry);
+        for (long gram : grams(entry.lowerName)) {
+            Postings postings = byGram.get(gram);
+            if (postings != null) postings.remove(entry);
+        }
+    }
+
+    /**
+     * @param namePart texto a buscar, sin distinguir mayúsculas
+     * @param limit    cantidad máxima de productos a devolver
+     * @return productos cuyo nombre contiene el texto, en orden de alta
+     */
+    public List<Product> search(String namePart, int limit) {
+        return search(namePart, limit, product -> true);
+    }
+
+    /**
+     * @param namePart texto a buscar, sin distinguir mayúsculas
+     * @param limit    cantidad máxima de productos a devolver
+     * @param filter   condición adicional que deben cumplir los productos
+     * @return productos cuyo nombre contiene el texto y cumplen el filtro, en orden de alta
+     */
+    public List<Product> search(String namePart, int limit, Predicate<Product> filter) {
+        String needle = namePart.toLowerCase();
+        Postings candidates = candidates(needle);
+        if (candidates == null) return List.of();
+        List<Product> matches = new ArrayList<>(Math.min(limit, 64));
+        for (int i = 0; i < candidates.size && matches.size() < limit; i++) {
+            Entry entry = candidates.entries[i];
+            if (!entry.removed() && entry.lowerName.contains(needle) && filter.test(entry.product)) {
+                matches.add(entry.product);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @param namePart texto a buscar, sin distinguir mayúsculas
+     * @return cantidad de candidatos que revisaría {@link #search}, una cota superior de los resultados
+     */
+    public int estimate(String namePart) {
+        Postings candidates = candidates(namePart.toLowerCase());
+        return candidates == null ? 0 : candidates.live();
+    }
+
+    // Shortest posting list that every match must appear in, or null if some gram has no products
+    private Postings candidates(String needle) {
+        Postings candidates = all;
+        if (needle.length() == 2) {
+            candidates = byGram.get(bigram(needle, 0));
+        } else if (needle.length() >= 3) {
+            for (int i = 0; i + 3 <= needle.length(); i++) {
+                Postings postings = byGram.get(trigram(needle, i));
+                if (postings == null) return null;
+                if (postings.live() < candidates.live()) candidates = postings;
+            }
+        }
+        return candidates;
+    }
+
+    private void update(Entry entry, Product product) {
+        entry.product = product;
+        String lowerName = product.getName().toLowerCase();
+        if (lowerName.equals(entry.lowerName)) return;
+        long[] before = grams(entry.lowerName);
+        long[] after = grams(lowerName);
+        entry.lowerName = lowerName;
+        for (long gram : before) {
+            if (Arrays.binarySearch(after, gram) < 0) byGram.get(gram).remove(entry);
+        }
+        for (long gram : after) {
+            if (Arrays.binarySearch(before, gram) < 0) byGram.getOrCreate(gram).add(entry);
+        }
+    }
+
+    /**
+     * @return bigramas y trigramas distintos del texto, ordenados
+     */
+    private static long[] grams(String text) {
+        int length = text.length();
+        if (length < 2) return new long[0];
+        long[] grams = new long[2 * length - 3];
+        int count = 0;
+        for (int i = 0; i + 2 <= length; i++) {
+            grams[count++] = bigram(text, i);
+            if (i + 3 <= length) grams[count++] = trigram(text, i);
+        }
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (grams[i] != grams[distinct - 1]) grams[distinct++] = grams[i];
+        }
+        return distinct == count ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    // Bigrams carry a marker bit above the 48 bits a trigram can use, so both share one key space
+    private static long bigram(String text, int at) {
+        return (1L << 48) | ((long) text.charAt(at) << 16) | text.charAt(at + 1);
+    }
+
+    private static long trigram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+}
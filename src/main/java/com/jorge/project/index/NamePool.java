@@ -0,0 +1,204 @@
+package com.jorge.project.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pool de nombres deduplicados guardados como UTF-8 en un único arreglo de bytes.
+ * Cada nombre distinto tiene una referencia int estable con un contador de usos; al llegar a cero
+ * la referencia se reutiliza y sus bytes se recuperan compactando cuando la basura supera a los datos vivos.
+ */
+final class NamePool {
+    private static final int MIN_CAPACITY = 16;
+
+    private byte[] data = new byte[1024];
+    private int dataEnd;
+    private int garbage;
+    private int[] offsets = new int[MIN_CAPACITY];
+    private int[] lengths = new int[MIN_CAPACITY];
+    private int[] refCounts = new int[MIN_CAPACITY];
+    private boolean[] ascii = new boolean[MIN_CAPACITY];
+    private int refEnd;
+    private int[] free = new int[MIN_CAPACITY];
+    private int freeCount;
+    private int[] table = new int[MIN_CAPACITY * 2]; // referencia + 1, 0 = bucket libre
+    private int mask = table.length - 1;
+    private int live;
+
+    /**
+     * @return referencia del nombre, con un uso más
+     */
+    int intern(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes, 0, bytes.length);
+        int bucket = hash & mask;
+        for (; table[bucket] != 0; bucket = (bucket + 1) & mask) {
+            int ref = table[bucket] - 1;
+            if (Arrays.equals(data, offsets[ref], offsets[ref] + lengths[ref], bytes, 0, bytes.length)) {
+                refCounts[ref]++;
+                return ref;
+            }
+        }
+        int ref = allocate(bytes);
+        live++;
+        if (live * 2 > table.length) {
+            rehash(table.length * 2);
+        } else {
+            table[bucket] = ref + 1;
+        }
+        return ref;
+    }
+
+    /**
+     * Quita un uso de la referencia y la libera si era el último
+     */
+    void release(int ref) {
+        if (--refCounts[ref] > 0) return;
+        deleteFromTable(ref);
+        live--;
+        garbage += lengths[ref];
+        if (freeCount == free.length) free = Arrays.copyOf(free, free.length * 2);
+        free[freeCount++] = ref;
+        if (garbage > dataEnd / 2 && dataEnd > 4096) compact();
+    }
+
+    String get(int ref) {
+        return new String(data, offsets[ref], lengths[ref], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param lowerNeedle texto a buscar ya en minúsculas
+     * @return true si el nombre contiene el texto sin distinguir mayúsculas
+     */
+    boolean containsIgnoreCase(int ref, String lowerNeedle, byte[] asciiNeedle) {
+        if (asciiNeedle == null || !ascii[ref]) return get(ref).toLowerCase().contains(lowerNeedle);
+        int start = offsets[ref];
+        int last = start + lengths[ref] - asciiNeedle.length;
+        outer:
+        for (int i = start; i <= last; i++) {
+            for (int j = 0; j < asciiNeedle.length; j++) {
+                byte b = data[i + j];
+                if (b >= 'A' && b <= 'Z') b += 'a' - 'A';
+                if (b != asciiNeedle[j]) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return los bytes del texto si es ASCII, para comparar sin decodificar; null en otro caso
+     */
+    static byte[] asciiBytes(String lowerNeedle) {
+        for (int i = 0; i < lowerNeedle.length(); i++) {
+            if (lowerNeedle.charAt(i) >= 0x80) return null;
+        }
+        return lowerNeedle.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    NamePool copy() {
+        NamePool copy = new NamePool();
+        copy.data = Arrays.copyOf(data, dataEnd);
+        copy.dataEnd = dataEnd;
+        copy.garbage = garbage;
+        copy.offsets = offsets.clone();
+        copy.lengths = lengths.clone();
+        copy.refCounts = refCounts.clone();
+        copy.ascii = ascii.clone();
+        copy.refEnd = refEnd;
+        copy.free = free.clone();
+        copy.freeCount = freeCount;
+        copy.table = table.clone();
+        copy.mask = mask;
+        copy.live = live;
+        return copy;
+    }
+
+    private int allocate(byte[] bytes) {
+        int ref;
+        if (freeCount > 0) {
+            ref = free[--freeCount];
+        } else {
+            if (refEnd == offsets.length) {
+                int capacity = offsets.length * 2;
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                refCounts = Arrays.copyOf(refCounts, capacity);
+                ascii = Arrays.copyOf(ascii, capacity);
+            }
+            ref = refEnd++;
+        }
+        if (dataEnd + bytes.length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataEnd + bytes.length));
+        }
+        System.arraycopy(bytes, 0, data, dataEnd, bytes.length);
+        offsets[ref] = dataEnd;
+        lengths[ref] = bytes.length;
+        refCounts[ref] = 1;
+        ascii[ref] = isAscii(bytes);
+        dataEnd += bytes.length;
+        return ref;
+    }
+
+    private void deleteFromTable(int ref) {
+        int hole = hashOf(ref) & mask;
+        while (table[hole] != ref + 1) hole = (hole + 1) & mask;
+        int current = hole;
+        while (true) {
+            current = (current + 1) & mask;
+            if (table[current] == 0) break;
+            int ideal = hashOf(table[current] - 1) & mask;
+            boolean movable = current > hole ? (ideal <= hole || ideal > current) : (ideal <= hole && ideal > current);
+            if (movable) {
+                table[hole] = table[current];
+                hole = current;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        for (int ref = 0; ref < refEnd; ref++) {
+            if (refCounts[ref] == 0) continue;
+            int bucket = hashOf(ref) & mask;
+            while (table[bucket] != 0) bucket = (bucket + 1) & mask;
+            table[bucket] = ref + 1;
+        }
+    }
+
+    // References stay stable; only the byte offsets move
+    private void compact() {
+        byte[] compacted = new byte[Math.max(1024, (dataEnd - garbage) * 2)];
+        int position = 0;
+        for (int ref = 0; ref < refEnd; ref++) {
+            if (refCounts[ref] == 0) continue;
+            System.arraycopy(data, offsets[ref], compacted, position, lengths[ref]);
+            offsets[ref] = position;
+            position += lengths[ref];
+        }
+        data = compacted;
+        dataEnd = position;
+        garbage = 0;
+    }
+
+    private int hashOf(int ref) {
+        return hash(data, offsets[ref], lengths[ref]);
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductOrder;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice secundario de productos ordenado por precio y, a igual precio, por ID.
+ * Además del orden y las páginas de {@link SortedIndex}, responde consultas por rango: ubicar el rango cuesta
+ * O(log n) y recorrerlo O(k); una página del rango con desplazamiento también recorre los productos saltados,
+ * O(log n + offset + k).
+ */
+public class PriceIndex extends SortedIndex {
+
+    public PriceIndex() {
+        this(new TreeMap<>());
+    }
+
+    private PriceIndex(NavigableMap<Key, Product> byPrice) {
+        super(ProductOrder.PRICE, byPrice);
+    }
+
+    /**
+     * @return índice seguro para lecturas concurrentes sin bloqueo; las escrituras sobre un mismo producto
+     * deben seguir serializadas por quien lo usa
+     */
+    public static PriceIndex concurrent() {
+        return new PriceIndex(new ConcurrentSkipListMap<>());
+    }
+
+    /**
+     * @param min precio mínimo (inclusive)
+     * @param max precio máximo (inclusive)
+     * @return vista ordenada por precio de los productos en el rango, sin copiarlos
+     */
+    public Collection<Product> range(double min, double max) {
+        if (!(min <= max)) return List.of();
+        return byKey.subMap(new Key(min, null, Integer.MIN_VALUE), true, new Key(max, null, Integer.MAX_VALUE), true).values();
+    }
+
+    /**
+     * @param min    precio mínimo (inclusive)
+     * @param max    precio máximo (inclusive)
+     * @param offset cantidad de productos a saltar
+     * @param limit  cantidad máxima de productos a devolver
+     * @return página de productos ordenados por precio
+     */
+    public List<Product> range(double min, double max, int offset, int limit) {
+        return page(range(min, max).iterator(), offset, limit);
+    }
+
+    /**
+     * Cuenta los productos del rango recorriendo a lo sumo cap de ellos, así sirve para comparar
+     * el rango con otras alternativas sin pagar más que la más barata
+     *
+     * @param min precio mínimo (inclusive)
+     * @param max precio máximo (inclusive)
+     * @param cap máximo a contar
+     * @return cantidad de productos en el rango, o cap si hay cap o más
+     */
+    public int countUpTo(double min, double max, int cap) {
+        int count = 0;
+        Iterator<Product> iterator = range(min, max).iterator();
+        while (count < cap && iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+}
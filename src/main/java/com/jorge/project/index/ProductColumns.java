@@ -0,0 +1,288 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Almacén columnar de productos: ID, precio, stock, categoría y nombre viven en arreglos primitivos
+ * paralelos (una fila por producto) y los nombres en un {@link NamePool} deduplicado. Los {@link Product}
+ * solo se crean al devolverlos, así los recorridos son bucles sobre arreglos contiguos sin seguir punteros.
+ * Las filas siguen el orden de alta; las bajas dejan huecos (precio NaN, categoría -1, que ningún filtro
+ * acepta) que se compactan al crecer. Reemplazar un producto conserva su fila.
+ */
+public class ProductColumns implements Iterable<Product> {
+    private static final int MIN_CAPACITY = 16;
+    private static final byte REMOVED = -1;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private int[] ids;
+    private double[] prices;
+    private int[] stocks;
+    private byte[] categories;
+    private int[] names;
+    private int end;
+    private int size;
+    private final IntIntMap rows;
+    private final NamePool namePool;
+
+    public ProductColumns() {
+        ids = new int[MIN_CAPACITY];
+        prices = new double[MIN_CAPACITY];
+        stocks = new int[MIN_CAPACITY];
+        categories = new byte[MIN_CAPACITY];
+        names = new int[MIN_CAPACITY];
+        rows = new IntIntMap(MIN_CAPACITY);
+        namePool = new NamePool();
+    }
+
+    private ProductColumns(ProductColumns other) {
+        ids = Arrays.copyOf(other.ids, other.end);
+        prices = Arrays.copyOf(other.prices, other.end);
+        stocks = Arrays.copyOf(other.stocks, other.end);
+        categories = Arrays.copyOf(other.categories, other.end);
+        names = Arrays.copyOf(other.names, other.end);
+        end = other.end;
+        size = other.size;
+        rows = other.rows.copy();
+        namePool = other.namePool.copy();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        return rows.get(id) >= 0;
+    }
+
+    /**
+     * @param id del producto
+     * @return Producto nuevo con los datos guardados, o null si no existe
+     */
+    public Product get(int id) {
+        int row = rows.get(id);
+        return row < 0 ? null : materialize(row);
+    }
+
+    /**
+     * Agrega el producto al final o sobrescribe la fila del que tenga el mismo ID
+     *
+     * @param product producto a guardar; no se conserva la instancia, solo sus datos
+     * @return true si el ID ya existía
+     */
+    public boolean put(Product product) {
+        int row = rows.get(product.getId());
+        boolean existed = row >= 0;
+        if (existed) {
+            namePool.release(names[row]);
+        } else {
+            ensureCapacity();
+            row = end++;
+            rows.put(product.getId(), row);
+            size++;
+        }
+        ids[row] = product.getId();
+        prices[row] = product.getPrice();
+        stocks[row] = product.getStock();
+        categories[row] = (byte) product.getCategory().ordinal();
+        names[row] = namePool.intern(product.getName());
+        return existed;
+    }
+
+    /**
+     * @param id del producto a eliminar
+     * @return true si existía
+     */
+    public boolean remove(int id) {
+        int row = rows.get(id);
+        if (row < 0) return false;
+        rows.remove(id);
+        namePool.release(names[row]);
+        prices[row] = Double.NaN;
+        stocks[row] = 0;
+        categories[row] = REMOVED;
+        size--;
+        while (end > 0 && categories[end - 1] == REMOVED) end--;
+        return true;
+    }
+
+    /**
+     * @param min precio mínimo (inclusive)
+     * @param max precio máximo (inclusive)
+     * @return productos en el rango, ordenados por precio y a igual precio por ID
+     */
+    public List<Product> priceRange(double min, double max) {
+        int[] matches = new int[16];
+        int count = 0;
+        double[] prices = this.prices;
+        for (int row = 0; row < end; row++) {
+            double price = prices[row];
+            if (price >= min && price <= max) { // NaN de las filas eliminadas nunca entra
+                if (count == matches.length) matches = Arrays.copyOf(matches, count * 2);
+                matches[count++] = row;
+            }
+        }
+        // Sorts packed primitive keys, the rank of the price in the high half and the id in the low one
+        double[] distinct = new double[count];
+        for (int i = 0; i < count; i++) {
+            distinct[i] = prices[matches[i]];
+        }
+        Arrays.sort(distinct);
+        int ranks = 0;
+        for (int i = 0; i < count; i++) {
+            if (ranks == 0 || distinct[i] != distinct[ranks - 1]) distinct[ranks++] = distinct[i];
+        }
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int row = matches[i];
+            keys[i] = (long) Arrays.binarySearch(distinct, 0, ranks, prices[row]) << 32 | ids[row];
+        }
+        Arrays.sort(keys);
+        List<Product> sorted = new ArrayList<>(count);
+        for (long key : keys) {
+            sorted.add(materialize(rows.get((int) key)));
+        }
+        return sorted;
+    }
+
+    /**
+     * @param category categoría
+     * @return productos de la categoría en orden de alta
+     */
+    public List<Product> byCategory(Category category) {
+        byte ordinal = (byte) category.ordinal();
+        List<Product> matches = new ArrayList<>();
+        for (int row = 0; row < end; row++) {
+            if (categories[row] == ordinal) matches.add(materialize(row));
+        }
+        return matches;
+    }
+
+    /**
+     * @param namePart texto a buscar, sin distinguir mayúsculas
+     * @param limit    cantidad máxima de productos a devolver
+     * @return productos cuyo nombre contiene el texto, en orden de alta
+     */
+    public List<Product> byName(String namePart, int limit) {
+        String needle = namePart.toLowerCase();
+        byte[] asciiNeedle = NamePool.asciiBytes(needle);
+        List<Product> matches = new ArrayList<>(Math.min(limit, 64));
+        for (int row = 0; row < end && matches.size() < limit; row++) {
+            if (categories[row] != REMOVED && namePool.containsIgnoreCase(names[row], needle, asciiNeedle)) {
+                matches.add(materialize(row));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @param category categoría
+     * @return resumen calculado recorriendo las columnas de la categoría
+     */
+    public CategoryStats stats(Category category) {
+        byte ordinal = (byte) category.ordinal();
+        int count = 0;
+        long totalStock = 0;
+        double inventoryValue = 0;
+        for (int row = 0; row < end; row++) {
+            if (categories[row] == ordinal) {
+                count++;
+                totalStock += stocks[row];
+                inventoryValue += prices[row] * stocks[row];
+            }
+        }
+        return new CategoryStats(category, count, totalStock, inventoryValue);
+    }
+
+    /**
+     * @return productos nuevos en orden de alta
+     */
+    public List<Product> toList() {
+        List<Product> products = new ArrayList<>(size);
+        for (Product product : this) {
+            products.add(product);
+        }
+        return products;
+    }
+
+    public Stream<Product> stream() {
+        return IntStream.range(0, end).filter(row -> categories[row] != REMOVED).mapToObj(this::materialize);
+    }
+
+    /**
+     * @return copia independiente de las columnas, que no cambia con las modificaciones posteriores
+     */
+    public ProductColumns copy() {
+        return new ProductColumns(this);
+    }
+
+    @Override
+    public Iterator<Product> iterator() {
+        return new Iterator<>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < end && categories[from] == REMOVED) from++;
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public Product next() {
+                if (next >= end) throw new NoSuchElementException();
+                Product product = materialize(next);
+                next = advance(next + 1);
+                return product;
+            }
+        };
+    }
+
+    private Product materialize(int row) {
+        Product product = new Product(namePool.get(names[row]), prices[row], stocks[row], CATEGORIES[categories[row]]);
+        product.setId(ids[row]);
+        return product;
+    }
+
+    private void ensureCapacity() {
+        if (end < ids.length) return;
+        if (end - size >= end / 2) {
+            compact();
+        } else {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            stocks = Arrays.copyOf(stocks, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+    }
+
+    private void compact() {
+        int live = 0;
+        rows.clear();
+        for (int row = 0; row < end; row++) {
+            if (categories[row] == REMOVED) continue;
+            ids[live] = ids[row];
+            prices[live] = prices[row];
+            stocks[live] = stocks[row];
+            categories[live] = categories[row];
+            names[live] = names[row];
+            rows.put(ids[live], live);
+            live++;
+        }
+        end = live;
+    }
+}
@@ -0,0 +1,117 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Product;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Vista inmutable de los productos de un {@link IntProductIndex} en un momento dado.
+ * Comparte el arreglo del índice sin copiarlo: el índice copia su arreglo antes de modificar
+ * una posición que alguna vista pueda estar viendo, y las altas se escriben fuera de su rango.
+ * Los huecos dejados por las bajas se saltan al iterar; el acceso por posición los resuelve
+ * con una tabla de posiciones que se construye solo la primera vez que se necesita.
+ */
+public final class ProductSnapshot extends AbstractList<Product> implements RandomAccess {
+    static final ProductSnapshot EMPTY = new ProductSnapshot(new Product[0], 0, 0);
+
+    private final Product[] entries;
+    private final int end;
+    private final int size;
+    private volatile int[] positions;
+
+    ProductSnapshot(Product[] entries, int end, int size) {
+        this.entries = entries;
+        this.end = end;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Product get(int index) {
+        Objects.checkIndex(index, size);
+        return size == end ? entries[index] : entries[positions()[index]];
+    }
+
+    @Override
+    public Iterator<Product> iterator() {
+        return new Iterator<>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < end && entries[from] == null) from++;
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public Product next() {
+                if (next >= end) throw new NoSuchElementException();
+                Product product = entries[next];
+                next = advance(next + 1);
+                return product;
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<Product> spliterator() {
+        if (size == end) {
+            return Spliterators.spliterator(entries, 0, end, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        }
+        return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    // Splitting the backing array balances far better across fork-join workers than splitting an iterator
+    @Override
+    public Stream<Product> parallelStream() {
+        if (size == end) return stream().parallel();
+        return Arrays.stream(entries, 0, end).parallel().filter(Objects::nonNull);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        for (int i = 0; i < end; i++) {
+            if (entries[i] != null) action.accept(entries[i]);
+        }
+    }
+
+    /**
+     * @param offset cantidad de productos a saltar
+     * @param limit  cantidad máxima de productos a devolver
+     * @return vista de la página, sin copiar los productos
+     */
+    public List<Product> page(int offset, int limit) {
+        int from = Math.min(offset, size);
+        int to = (int) Math.min((long) from + limit, size);
+        return subList(from, to);
+    }
+
+    private int[] positions() {
+        int[] result = positions;
+        if (result == null) {
+            result = new int[size];
+            int live = 0;
+            for (int i = 0; i < end; i++) {
+                if (entries[i] != null) result[live++] = i;
+            }
+            positions = result;
+        }
+        return result;
+    }
+}
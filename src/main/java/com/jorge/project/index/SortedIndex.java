@@ -0,0 +1,139 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductOrder;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice secundario que mantiene los productos en un {@link ProductOrder}, actualizado en cada cambio.
+ * Cada entrada guarda una copia de los valores por los que se ordena, así que para cambiar un producto
+ * hay que usar {@link #replace} (o quitarlo y volver a agregarlo) en lugar de modificarlo en el índice.
+ * Una página a partir de un cursor cuesta O(log n + k); una página por posición recorre los productos saltados,
+ * O(offset + k), así que para recorrer todo el índice conviene el cursor.
+ */
+public class SortedIndex {
+
+    // Only the fields used by the order are filled in; the rest stay constant and never decide a comparison
+    record Key(double number, String text, int id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int result = Double.compare(number, other.number);
+            if (result != 0) return result;
+            if (text != null && other.text != null) {
+                result = String.CASE_INSENSITIVE_ORDER.compare(text, other.text);
+                if (result == 0) result = text.compareTo(other.text);
+                if (result != 0) return result;
+            }
+            return Integer.compare(id, other.id);
+        }
+    }
+
+    private final ProductOrder order;
+    final NavigableMap<Key, Product> byKey;
+
+    public SortedIndex(ProductOrder order) {
+        this(order, new TreeMap<>());
+    }
+
+    SortedIndex(ProductOrder order, NavigableMap<Key, Product> byKey) {
+        this.order = order;
+        this.byKey = byKey;
+    }
+
+    /**
+     * @return índice seguro para lecturas concurrentes sin bloqueo; las escrituras sobre un mismo producto
+     * deben seguir serializadas por quien lo usa
+     */
+    public static SortedIndex concurrent(ProductOrder order) {
+        return new SortedIndex(order, new ConcurrentSkipListMap<>());
+    }
+
+    public ProductOrder order() {
+        return order;
+    }
+
+    public void add(Product product) {
+        byKey.put(keyOf(product), product);
+    }
+
+    public void remove(Product product) {
+        byKey.remove(keyOf(product));
+    }
+
+    /**
+     * Cambia un producto por su nueva versión. Si la clave no cambia se sobrescribe en el sitio,
+     * así las lecturas concurrentes nunca dejan de verlo.
+     *
+     * @param previous versión indexada, o null si el producto es nuevo
+     * @param current  nueva versión
+     */
+    public void replace(Product previous, Product current) {
+        Key key = keyOf(current);
+        byKey.put(key, current);
+        if (previous != null) {
+            Key previousKey = keyOf(previous);
+            if (!previousKey.equals(key)) byKey.remove(previousKey);
+        }
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    /**
+     * @return vista ordenada de todos los productos, sin copiarlos
+     */
+    public Collection<Product> values() {
+        return byKey.values();
+    }
+
+    /**
+     * @param offset cantidad de productos a saltar
+     * @param limit  cantidad máxima de productos a devolver
+     * @return página de productos en el orden del índice
+     */
+    public List<Product> page(int offset, int limit) {
+        return page(byKey.values().iterator(), offset, limit);
+    }
+
+    /**
+     * Página a partir de un cursor: el último producto de la página anterior, tal como se devolvió.
+     * El cursor sigue sirviendo aunque ese producto se haya modificado o eliminado después.
+     *
+     * @param cursor último producto ya visto, o null para empezar desde el principio
+     * @param limit  cantidad máxima de productos a devolver
+     * @return productos estrictamente posteriores al cursor
+     */
+    public List<Product> after(Product cursor, int limit) {
+        Collection<Product> rest = cursor == null ? byKey.values() : byKey.tailMap(keyOf(cursor), false).values();
+        return page(rest.iterator(), 0, limit);
+    }
+
+    /**
+     * @param iterator productos ya ordenados
+     * @param offset   cantidad de productos a saltar
+     * @param limit    cantidad máxima de productos a devolver
+     * @return página copiada del recorrido
+     */
+    public static List<Product> page(Iterator<Product> iterator, int offset, int limit) {
+        List<Product> page = new ArrayList<>(Math.min(limit, 1024));
+        for (int skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    private Key keyOf(Product product) {
+        return switch (order) {
+            case NAME -> new Key(0, product.getName(), product.getId());
+            case PRICE -> new Key(product.getPrice(), null, product.getId());
+            case STOCK -> new Key(product.getStock(), null, product.getId());
+            case ID -> new Key(0, null, product.getId());
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.jorge.project.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métricas en memoria: por operación, un contador de errores y un {@link LatencyHistogram};
+ * para la persistencia, bytes escritos, latencia de las escrituras, errores de E/S y la última carga.
+ * Todo se reserva al crearla, así registrar no reserva memoria. Se puede publicar por JMX con {@link #register()}.
+ */
+public class InventoryMetrics implements ServiceMetrics, InventoryMetricsMXBean {
+    public static final String OBJECT_NAME = "com.jorge.project:type=InventoryMetrics";
+
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder ioFailures = new LongAdder();
+    private volatile long lastWriteBytes;
+    private volatile long lastLoadNanos;
+    private volatile int lastLoadProducts;
+
+    public InventoryMetrics() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            failures.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Publica estas métricas en el servidor JMX de la plataforma, reemplazando las que hubiera con el mismo nombre
+     *
+     * @return esta misma instancia
+     */
+    public InventoryMetrics register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            System.out.println("Error registering metrics MBean: " + e.getMessage());
+        }
+        return this;
+    }
+
+    @Override
+    public void recordOperation(Operation operation, long nanos, boolean failed) {
+        latencies.get(operation).record(nanos);
+        if (failed) failures.get(operation).increment();
+    }
+
+    @Override
+    public void recordWrite(long bytes, long nanos) {
+        writeLatency.record(nanos);
+        bytesWritten.add(bytes);
+        lastWriteBytes = bytes;
+    }
+
+    @Override
+    public void recordLoad(int products, long nanos) {
+        lastLoadProducts = products;
+        lastLoadNanos = nanos;
+    }
+
+    @Override
+    public void recordIoFailure() {
+        ioFailures.increment();
+    }
+
+    /**
+     * @return histograma de la operación, para consultarlo directamente
+     */
+    public LatencyHistogram latency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    public LatencyHistogram writeLatency() {
+        return writeLatency;
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        latencies.forEach((operation, histogram) -> {
+            if (histogram.count() > 0) counts.put(operation.name(), histogram.count());
+        });
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getOperationFailures() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        latencies.forEach((operation, histogram) -> {
+            if (histogram.count() > 0) counts.put(operation.name(), failures.get(operation).sum());
+        });
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getLatencyMeanMicros() {
+        return perOperation(histogram -> histogram.mean() / TimeUnit.MICROSECONDS.toNanos(1));
+    }
+
+    @Override
+    public Map<String, Double> getLatencyP50Micros() {
+        return perOperation(histogram -> histogram.percentileMicros(50));
+    }
+
+    @Override
+    public Map<String, Double> getLatencyP99Micros() {
+        return perOperation(histogram -> histogram.percentileMicros(99));
+    }
+
+    @Override
+    public Map<String, Double> getLatencyMaxMicros() {
+        return perOperation(histogram -> histogram.percentileMicros(100));
+    }
+
+    @Override
+    public long getWrites() {
+        return writeLatency.count();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long getLastWriteBytes() {
+        return lastWriteBytes;
+    }
+
+    @Override
+    public double getWriteP99Micros() {
+        return writeLatency.percentileMicros(99);
+    }
+
+    @Override
+    public long getIoFailures() {
+        return ioFailures.sum();
+    }
+
+    @Override
+    public long getLastLoadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastLoadNanos);
+    }
+
+    @Override
+    public int getLastLoadProducts() {
+        return lastLoadProducts;
+    }
+
+    @Override
+    public void reset() {
+        latencies.values().forEach(LatencyHistogram::reset);
+        failures.values().forEach(LongAdder::reset);
+        writeLatency.reset();
+        bytesWritten.reset();
+        ioFailures.reset();
+        lastWriteBytes = 0;
+    }
+
+    private Map<String, Double> perOperation(ToDoubleFunction<LatencyHistogram> statistic) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        latencies.forEach((operation, histogram) -> {
+            if (histogram.count() > 0) values.put(operation.name(), statistic.applyAsDouble(histogram));
+        });
+        return values;
+    }
+}
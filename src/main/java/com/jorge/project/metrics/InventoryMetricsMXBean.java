@@ -0,0 +1,41 @@
+package com.jorge.project.metrics;
+
+import java.util.Map;
+
+/**
+ * Vista JMX de {@link InventoryMetrics}. Los mapas van por nombre de {@link Operation}
+ * e incluyen solo las operaciones que se llamaron al menos una vez.
+ */
+public interface InventoryMetricsMXBean {
+
+    Map<String, Long> getOperationCounts();
+
+    Map<String, Long> getOperationFailures();
+
+    Map<String, Double> getLatencyMeanMicros();
+
+    Map<String, Double> getLatencyP50Micros();
+
+    Map<String, Double> getLatencyP99Micros();
+
+    Map<String, Double> getLatencyMaxMicros();
+
+    long getWrites();
+
+    long getBytesWritten();
+
+    long getLastWriteBytes();
+
+    double getWriteP99Micros();
+
+    long getIoFailures();
+
+    long getLastLoadMillis();
+
+    int getLastLoadProducts();
+
+    /**
+     * Pone a cero todos los contadores e histogramas
+     */
+    void reset();
+}
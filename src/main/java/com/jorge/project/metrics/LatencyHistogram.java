@@ -0,0 +1,110 @@
+package com.jorge.project.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos con buckets log-lineales al estilo HdrHistogram:
+ * los valores menores que {@code SUB_BUCKETS} tienen un bucket cada uno y, a partir de ahí, cada potencia de dos
+ * se divide en {@code SUB_BUCKETS / 2} buckets iguales, así el error relativo de un percentil no pasa de ~1,6%.
+ * Los buckets son fijos y se reservan al crearlo: registrar un valor no reserva memoria ni toma locks.
+ * Los valores por encima de {@link #MAX_TRACKABLE_NANOS} (más de una hora) cuentan en el último bucket.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int MAX_BIT = 42;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_BIT - SUB_BUCKET_BITS + 1) * HALF;
+
+    public static final long MAX_TRACKABLE_NANOS = (1L << (MAX_BIT + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param nanos duración a registrar; los valores negativos cuentan como cero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        long seen;
+        while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+            // another thread raised the max first; retry against it
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long total = count.sum();
+        return total == 0 ? 0 : (double) sum.sum() / total;
+    }
+
+    /**
+     * @param percentile percentil entre 0 y 100
+     * @return mayor valor equivalente al bucket del percentil, en nanosegundos; 0 si no hay registros
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile debe estar entre 0 y 100");
+        }
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(highestEquivalent(i), max());
+        }
+        return max();
+    }
+
+    /**
+     * @return percentil en microsegundos, para los informes
+     */
+    public double percentileMicros(double percentile) {
+        return percentile(percentile) / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        if (value > MAX_TRACKABLE_NANOS) return BUCKETS - 1;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    static long highestEquivalent(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int offset = bucket - SUB_BUCKETS;
+        int shift = offset / HALF + 1;
+        long subBucket = offset % HALF + HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,40 @@
+package com.jorge.project.metrics;
+
+/**
+ * Operaciones del servicio que se miden por separado
+ */
+public enum Operation {
+
+    CREATE("Alta"),
+    FIND_ALL("Listado"),
+    FIND_BY_ID("Búsqueda por ID"),
+    UPDATE("Modificación"),
+    DELETE("Baja"),
+    COMPARE_AND_SET("Modificación condicional"),
+    ADJUST_STOCK("Ajuste de stock"),
+    RESERVE("Reserva de stock"),
+    FIND_BY_NAME("Búsqueda por nombre"),
+    FIND_BY_PRICE("Búsqueda por precio"),
+    FIND_BY_CATEGORY("Búsqueda por categoría"),
+    CATEGORY_STATS("Resumen por categoría"),
+    QUERY("Consulta combinada"),
+    FIND_SORTED("Listado ordenado"),
+    SNAPSHOT("Vista del catálogo"),
+    APPLY("Lote de cambios"),
+    FLUSH("Guardado forzado");
+
+    private final String message;
+
+    Operation(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
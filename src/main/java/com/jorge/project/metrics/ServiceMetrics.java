@@ -0,0 +1,67 @@
+package com.jorge.project.metrics;
+
+/**
+ * Punto de extensión para medir el servicio y la persistencia.
+ * Todos los métodos se llaman desde el camino crítico, así que las implementaciones no deben bloquear
+ * ni reservar memoria al registrar. {@link #DISABLED} descarta todo y hace que los llamadores ni siquiera
+ * tomen tiempos.
+ */
+public interface ServiceMetrics {
+
+    /**
+     * Métricas desactivadas: no se registra nada
+     */
+    ServiceMetrics DISABLED = new ServiceMetrics() {
+        @Override
+        public boolean enabled() {
+            return false;
+        }
+
+        @Override
+        public void recordOperation(Operation operation, long nanos, boolean failed) {
+        }
+
+        @Override
+        public void recordWrite(long bytes, long nanos) {
+        }
+
+        @Override
+        public void recordLoad(int products, long nanos) {
+        }
+
+        @Override
+        public void recordIoFailure() {
+        }
+    };
+
+    /**
+     * @return false si registrar no tiene efecto, para que los llamadores se ahorren medir
+     */
+    default boolean enabled() {
+        return true;
+    }
+
+    /**
+     * @param operation operación del servicio
+     * @param nanos     duración
+     * @param failed    true si terminó con una excepción
+     */
+    void recordOperation(Operation operation, long nanos, boolean failed);
+
+    /**
+     * @param bytes bytes escritos al snapshot o al log
+     * @param nanos duración de la escritura
+     */
+    void recordWrite(long bytes, long nanos);
+
+    /**
+     * @param products productos en el catálogo tras la carga
+     * @param nanos    duración de la carga, incluido el replay del log
+     */
+    void recordLoad(int products, long nanos);
+
+    /**
+     * Registra un error de lectura o escritura del catálogo
+     */
+    void recordIoFailure();
+}
@@ -0,0 +1,12 @@
+package com.jorge.project.model;
+
+/**
+ * Resumen de una categoría
+ *
+ * @param category       categoría resumida
+ * @param productCount   cantidad de productos
+ * @param totalStock     suma del stock de sus productos
+ * @param inventoryValue suma de precio × stock de sus productos
+ */
+public record CategoryStats(Category category, int productCount, long totalStock, double inventoryValue) {
+}
@@ -0,0 +1,24 @@
+package com.jorge.project.model;
+
+public enum ChangeType {
+
+    CREATED("Alta"),
+    UPDATED("Modificación"),
+    STOCK_CHANGED("Cambio de stock"),
+    DELETED("Baja");
+
+    private final String message;
+
+    ChangeType(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
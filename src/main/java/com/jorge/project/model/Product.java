@@ -1,6 +1,7 @@
 package com.jorge.project.model;
 
 import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.exceptions.ValidationError;
 
 import java.util.Objects;
 
@@ -12,12 +13,19 @@ public class Product {
     private double price;
     private int stock;
     private Category category;
+    // Services freeze the versions they store; transient keeps the flag out of JSON and copies start writable
+    private transient boolean frozen;
 
     public Product(String name, double price, int stock, Category category) {
-        this.name = nonBlank(name, "Nombre");
-        this.price = positivePrice(price, "Precio");
-        this.stock = nonNegativeStock(stock, "Stock");
-        this.category = validateCategory(category, "Categoría");
+        this.name = nonBlank(name);
+        this.price = positivePrice(price);
+        this.stock = nonNegativeStock(stock);
+        this.category = validateCategory(category);
+    }
+
+    public Product(Product other) {
+        this(other.name, other.price, other.stock, other.category);
+        this.id = other.id;
     }
 
     public int getId() {
@@ -25,8 +33,9 @@ public class Product {
     }
 
     public void setId(int id) {
+        checkWritable();
         if (id <= 0) {
-            throw new ProductException("ID debe ser un número positivo");
+            throw new ProductException(ValidationError.ID_NOT_POSITIVE);
         }
         this.id = id;
     }
@@ -36,7 +45,8 @@ public class Product {
     }
 
     public void setName(String name) {
-        this.name = nonBlank(name, "Nombre");
+        checkWritable();
+        this.name = nonBlank(name);
     }
 
     public double getPrice() {
@@ -44,7 +54,8 @@ public class Product {
     }
 
     public void setPrice(double price) {
-        this.price = positivePrice(price, "Precio");
+        checkWritable();
+        this.price = positivePrice(price);
     }
 
     public int getStock() {
@@ -52,7 +63,8 @@ public class Product {
     }
 
     public void setStock(int stock) {
-        this.stock = nonNegativeStock(stock, "Stock");
+        checkWritable();
+        this.stock = nonNegativeStock(stock);
     }
 
     public Category getCategory() {
@@ -60,33 +72,101 @@ public class Product {
     }
 
     public void setCategory(Category category) {
-        this.category = validateCategory(category, "Categoría");
+        checkWritable();
+        this.category = validateCategory(category);
+    }
+
+    /**
+     * Compara los datos del producto (nombre, precio, stock y categoría), sin tener en cuenta el ID
+     *
+     * @param other producto a comparar
+     * @return true si todos los datos coinciden
+     */
+    public boolean sameData(Product other) {
+        return other != null
+                && name.equals(other.name)
+                && Double.compare(price, other.price) == 0
+                && stock == other.stock
+                && category == other.category;
+    }
+
+    /**
+     * Marca el producto como versión guardada en un servicio. Las versiones guardadas se comparten con todos los
+     * lectores, así que ya no se pueden modificar: los cambios se hacen sobre una copia ({@link #Product(Product)})
+     *
+     * @return este mismo producto
+     */
+    public Product freeze() {
+        frozen = true;
+        return this;
+    }
+
+    /**
+     * @return true si el producto es una versión guardada y sus setters lanzan {@link IllegalStateException}
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Valida los datos con las mismas reglas que el constructor, pero sin lanzar excepciones ni crear objetos;
+     * pensado para validar muchas filas, como en una importación
+     *
+     * @return primer motivo por el que los datos no son válidos, o null si lo son
+     */
+    public static ValidationError validate(String name, double price, int stock, Category category) {
+        if (name == null || isBlankAfterTrim(name)) return ValidationError.NAME_BLANK;
+        if (price <= 0) return ValidationError.PRICE_NOT_POSITIVE;
+        if (stock < 0) return ValidationError.STOCK_NEGATIVE;
+        if (category == null) return ValidationError.CATEGORY_NULL;
+        return null;
+    }
+
+    private void checkWritable() {
+        if (frozen) {
+            throw new IllegalStateException("El producto %d es una versión guardada; modifica una copia".formatted(id));
+        }
+    }
+
+    // Same result as raw.trim().isBlank() without building the trimmed copy
+    private static boolean isBlankAfterTrim(String raw) {
+        int start = 0;
+        int end = raw.length();
+        while (start < end && raw.charAt(start) <= ' ') start++;
+        while (end > start && raw.charAt(end - 1) <= ' ') end--;
+        for (int i = start; i < end; ) {
+            int codePoint = raw.codePointAt(i);
+            if (!Character.isWhitespace(codePoint)) return false;
+            i += Character.charCount(codePoint);
+        }
+        return true;
     }
 
-    private String nonBlank(String raw, String fieldName) {
-        if (raw == null || raw.trim().isBlank()) {
-            throw new ProductException(fieldName + " no puede estar vacío");
+    // trim() returns the same instance when there is nothing to strip, so clean names are never copied
+    private static String nonBlank(String raw) {
+        if (raw == null || isBlankAfterTrim(raw)) {
+            throw new ProductException(ValidationError.NAME_BLANK);
         }
         return raw.trim();
     }
 
-    private int nonNegativeStock(int raw, String fieldName) {
+    private static int nonNegativeStock(int raw) {
         if (raw < 0) {
-            throw new ProductException(fieldName + " no puede ser negativo");
+            throw new ProductException(ValidationError.STOCK_NEGATIVE);
         }
         return raw;
     }
 
-    private double positivePrice(double raw, String fieldName) {
+    private static double positivePrice(double raw) {
         if (raw <= 0) {
-            throw new ProductException(fieldName + " debe ser mayor que cero");
+            throw new ProductException(ValidationError.PRICE_NOT_POSITIVE);
         }
         return raw;
     }
 
-    private Category validateCategory(Category category, String fieldName) {
+    private static Category validateCategory(Category category) {
         if (category == null) {
-            throw new ProductException(fieldName + " no puede ser nulo");
+            throw new ProductException(ValidationError.CATEGORY_NULL);
         }
         return category;
     }
@@ -0,0 +1,13 @@
+package com.jorge.project.model;
+
+/**
+ * Cambio ya aplicado al catálogo, tal como lo publica el feed de cambios
+ *
+ * @param sequence número de secuencia; crece de a uno con cada cambio
+ * @param type     tipo de cambio; {@link ChangeType#STOCK_CHANGED} si solo cambió el stock
+ * @param id       ID del producto
+ * @param previous producto antes del cambio, null en un alta
+ * @param product  producto después del cambio, null en una baja
+ */
+public record ProductChange(long sequence, ChangeType type, int id, Product previous, Product product) {
+}
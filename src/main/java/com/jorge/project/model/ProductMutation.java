@@ -0,0 +1,24 @@
+package com.jorge.project.model;
+
+import com.jorge.project.exceptions.ProductException;
+
+/**
+ * Cambio individual dentro de un lote aplicado con {@code IProductService.apply}
+ */
+public sealed interface ProductMutation {
+
+    record Create(Product product) implements ProductMutation {
+        public Create {
+            if (product == null) throw new ProductException("Producto no puede ser nulo");
+        }
+    }
+
+    record Update(int id, Product product) implements ProductMutation {
+        public Update {
+            if (product == null) throw new ProductException("Producto no puede ser nulo");
+        }
+    }
+
+    record Delete(int id) implements ProductMutation {
+    }
+}
@@ -0,0 +1,41 @@
+package com.jorge.project.model;
+
+import java.util.Comparator;
+
+public enum ProductOrder {
+
+    NAME("Nombre, sin distinguir mayúsculas"),
+    PRICE("Precio"),
+    STOCK("Stock"),
+    ID("ID");
+
+    private final String message;
+
+    ProductOrder(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return comparador del orden; a igual valor desempata por ID para que el orden sea total
+     */
+    public Comparator<Product> comparator() {
+        Comparator<Product> byId = Comparator.comparingInt(Product::getId);
+        return switch (this) {
+            case NAME -> Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(Product::getName)
+                    .thenComparing(byId);
+            case PRICE -> Comparator.comparingDouble(Product::getPrice).thenComparing(byId);
+            case STOCK -> Comparator.comparingInt(Product::getStock).thenComparing(byId);
+            case ID -> byId;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
@@ -0,0 +1,81 @@
+package com.jorge.project.model;
+
+import com.jorge.project.exceptions.ProductException;
+
+/**
+ * Consulta combinada para {@code IProductService.query}: todos los filtros indicados deben cumplirse.
+ * Se construye a partir de {@link #all()} con los métodos {@code with...}; cada uno devuelve una consulta nueva.
+ *
+ * @param namePart texto que debe contener el nombre, sin distinguir mayúsculas (se guarda en minúsculas); null para no filtrar
+ * @param minPrice precio mínimo (inclusive)
+ * @param maxPrice precio máximo (inclusive)
+ * @param category categoría; null para no filtrar
+ * @param minStock stock mínimo (inclusive)
+ * @param maxStock stock máximo (inclusive)
+ * @param order    orden del resultado; null si no importa
+ * @param limit    cantidad máxima de productos a devolver
+ */
+public record ProductQuery(String namePart, double minPrice, double maxPrice, Category category,
+                           int minStock, int maxStock, ProductOrder order, int limit) {
+
+    public ProductQuery {
+        if (namePart != null) namePart = namePart.isBlank() ? null : namePart.toLowerCase();
+        if (Double.isNaN(minPrice) || Double.isNaN(maxPrice)) {
+            throw new ProductException("Precio no puede ser NaN");
+        }
+        if (limit < 0) {
+            throw new ProductException("Límite no puede ser negativo");
+        }
+    }
+
+    /**
+     * @return consulta sin filtros, sin orden y sin límite
+     */
+    public static ProductQuery all() {
+        return new ProductQuery(null, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null,
+                Integer.MIN_VALUE, Integer.MAX_VALUE, null, Integer.MAX_VALUE);
+    }
+
+    public ProductQuery withName(String namePart) {
+        return new ProductQuery(namePart, minPrice, maxPrice, category, minStock, maxStock, order, limit);
+    }
+
+    public ProductQuery withPriceBetween(double minPrice, double maxPrice) {
+        return new ProductQuery(namePart, minPrice, maxPrice, category, minStock, maxStock, order, limit);
+    }
+
+    public ProductQuery withCategory(Category category) {
+        return new ProductQuery(namePart, minPrice, maxPrice, category, minStock, maxStock, order, limit);
+    }
+
+    public ProductQuery withMinStock(int minStock) {
+        return new ProductQuery(namePart, minPrice, maxPrice, category, minStock, maxStock, order, limit);
+    }
+
+    public ProductQuery withMaxStock(int maxStock) {
+        return new ProductQuery(namePart, minPrice, maxPrice, category, minStock, maxStock, order, limit);
+    }
+
+    public ProductQuery orderBy(ProductOrder order) {
+        return new ProductQuery(namePart, minPrice, maxPrice, category, minStock, maxStock, order, limit);
+    }
+
+    public ProductQuery withLimit(int limit) {
+        return new ProductQuery(namePart, minPrice, maxPrice, category, minStock, maxStock, order, limit);
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != Double.NEGATIVE_INFINITY || maxPrice != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param product producto a evaluar
+     * @return true si el producto cumple todos los filtros
+     */
+    public boolean matches(Product product) {
+        return product.getPrice() >= minPrice && product.getPrice() <= maxPrice
+                && product.getStock() >= minStock && product.getStock() <= maxStock
+                && (category == null || product.getCategory() == category)
+                && (namePart == null || product.getName().toLowerCase().contains(namePart));
+    }
+}
@@ -0,0 +1,149 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.metrics.ServiceMetrics;
+import com.jorge.project.model.Product;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Guardado en segundo plano del snapshot completo.
+ * Cada cambio solo incrementa un contador de pendientes; un hilo escribe un único snapshot con todos los cambios
+ * acumulados cuando pasa el intervalo desde el primer cambio pendiente o cuando se alcanza el umbral.
+ * Cada escritura va a un archivo temporal con fsync y se renombra sobre el snapshot.
+ */
+public final class AsyncSnapshotWriter implements Closeable {
+    private final String path;
+    private final SnapshotFormat format;
+    private final boolean prettyPrint;
+    private final long intervalNanos;
+    private final int threshold;
+    private final Supplier<? extends Iterable<Product>> snapshot;
+    private final ServiceMetrics metrics;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Object signal = new Object();
+    private final Thread thread;
+    private int pending;
+    private long firstPendingNanos;
+    private boolean closed;
+
+    /**
+     * @param snapshot devuelve una copia del catálogo que no cambiará mientras se escribe;
+     *                 se invoca desde el hilo de escritura
+     */
+    public AsyncSnapshotWriter(PersistenceConfig config, Supplier<? extends Iterable<Product>> snapshot) {
+        this.path = config.path();
+        this.format = config.format();
+        this.prettyPrint = config.prettyPrint();
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(config.flushIntervalMillis());
+        this.threshold = config.flushThreshold();
+        this.snapshot = snapshot;
+        this.metrics = config.metrics();
+        this.thread = new Thread(this::run, "product-snapshot-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Registra cambios ya aplicados en memoria
+     *
+     * @param changes cantidad de cambios
+     */
+    public void markDirty(int changes) {
+        synchronized (signal) {
+            if (pending == 0) {
+                firstPendingNanos = System.nanoTime();
+                signal.notifyAll();
+            }
+            pending += changes;
+            if (pending >= threshold) signal.notifyAll();
+        }
+    }
+
+    /**
+     * Escribe ya los cambios pendientes y espera a que estén en disco. Si una escritura en segundo plano está en
+     * curso, espera a que termine; esa escritura también hace fsync.
+     */
+    public void flush() throws IOException {
+        writeLock.lock();
+        try {
+            int flushed;
+            synchronized (signal) {
+                flushed = pending;
+                pending = 0;
+            }
+            if (flushed == 0) return;
+            long start = System.nanoTime();
+            try {
+                format.writeAtomically(path, snapshot.get(), prettyPrint, true);
+                if (metrics.enabled()) metrics.recordWrite(Files.size(Path.of(path)), System.nanoTime() - start);
+            } catch (IOException | RuntimeException e) {
+                markDirty(flushed);
+                throw e;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (signal) {
+            closed = true;
+            signal.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // A failed write leaves its changes pending, so the loop backs off and retries instead of dying with them
+    private void run() {
+        while (awaitWork()) {
+            try {
+                flush();
+            } catch (IOException | RuntimeException e) {
+                metrics.recordIoFailure();
+                System.out.println("Error saving products : " + e.getMessage());
+                sleepAfterFailure();
+            }
+        }
+    }
+
+    // Blocks until the oldest pending change is one interval old, the threshold is hit, or the writer closes
+    private boolean awaitWork() {
+        synchronized (signal) {
+            try {
+                while (!closed) {
+                    if (pending >= threshold) return true;
+                    if (pending == 0) {
+                        signal.wait();
+                        continue;
+                    }
+                    long remaining = firstPendingNanos + intervalNanos - System.nanoTime();
+                    if (remaining <= 0) return true;
+                    TimeUnit.NANOSECONDS.timedWait(signal, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+
+    private void sleepAfterFailure() {
+        try {
+            TimeUnit.NANOSECONDS.sleep(intervalNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot binario del catálogo.
+ * Formato (big-endian): cabecera {@code "INVB"}, versión (int) y cantidad de productos (int); luego un registro por
+ * producto con id (int), precio (double), stock (int), ordinal de la categoría (byte) y el nombre en UTF-8
+ * precedido por su longitud en bytes (int). La lectura mapea el archivo en memoria por ventanas.
+ */
+public final class BinaryProductFile {
+    static final int MAGIC = 0x494E5642; // "INVB"
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 12;
+    private static final int FIXED_RECORD_SIZE = 4 + 8 + 4 + 1 + 4;
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private BinaryProductFile() {
+    }
+
+    /**
+     * Lee los productos del archivo y los entrega uno por uno
+     *
+     * @param path     ruta del snapshot binario
+     * @param consumer recibe cada producto en el orden del archivo
+     * @return cantidad de productos leídos, 0 si el archivo no existe o está vacío
+     */
+    public static int read(String path, Consumer<Product> consumer) throws IOException {
+        return read(path, consumer, WINDOW_SIZE);
+    }
+
+    // The window size is a parameter so tests can cross window boundaries without gigabyte files
+    static int read(String path, Consumer<Product> consumer, long windowSize) throws IOException {
+        Path file = Path.of(path);
+        if (!Files.exists(file) || Files.size(file) == 0) return 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) throw new IOException("Corrupt snapshot: truncated header");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(size, Math.max(windowSize, HEADER_SIZE)));
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a binary product snapshot: " + path);
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            int count = buffer.getInt();
+
+            long windowStart = 0;
+            byte[] nameBytes = new byte[64];
+            for (int i = 0; i < count; i++) {
+                if (buffer.remaining() < FIXED_RECORD_SIZE) {
+                    windowStart += buffer.position();
+                    buffer = map(channel, windowStart, FIXED_RECORD_SIZE, windowSize);
+                }
+                int id = buffer.getInt();
+                double price = buffer.getDouble();
+                int stock = buffer.getInt();
+                int ordinal = buffer.get();
+                int nameLength = buffer.getInt();
+                if (ordinal < 0 || ordinal >= CATEGORIES.length || nameLength < 0) {
+                    throw new IOException("Corrupt snapshot at product #" + (i + 1));
+                }
+                if (buffer.remaining() < nameLength) {
+                    windowStart += buffer.position();
+                    buffer = map(channel, windowStart, nameLength, windowSize);
+                }
+                if (nameBytes.length < nameLength) nameBytes = new byte[Math.max(nameLength, nameBytes.length * 2)];
+                buffer.get(nameBytes, 0, nameLength);
+                Product product;
+                try {
+                    product = new Product(new String(nameBytes, 0, nameLength, StandardCharsets.UTF_8),
+                            price, stock, CATEGORIES[ordinal]);
+                    product.setId(id);
+                } catch (ProductException e) {
+                    throw new IOException("Corrupt snapshot at product #" + (i + 1), e);
+                }
+                consumer.accept(product);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Abre un snapshot binario para escritura, reemplazando su contenido
+     *
+     * @param path ruta del snapshot binario
+     */
+    public static SnapshotWriter writer(String path) throws IOException {
+        FileChannel channel = FileChannel.open(Path.of(path),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(0);
+        return new SnapshotWriter() {
+            private int count;
+
+            @Override
+            public void write(Product product) throws IOException {
+                byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+                int recordSize = FIXED_RECORD_SIZE + name.length;
+                if (buffer.remaining() < recordSize) flush();
+                ByteBuffer target = recordSize <= buffer.capacity() ? buffer : ByteBuffer.allocate(recordSize);
+                target.putInt(product.getId())
+                        .putDouble(product.getPrice())
+                        .putInt(product.getStock())
+                        .put((byte) product.getCategory().ordinal())
+                        .putInt(name.length)
+                        .put(name);
+                if (target != buffer) {
+                    target.flip();
+                    while (target.hasRemaining()) channel.write(target);
+                }
+                count++;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try (channel) {
+                    flush();
+                    // The header is written before the count is known; patch it in place
+                    channel.write(ByteBuffer.allocate(4).putInt(0, count), 8);
+                }
+            }
+
+            private void flush() throws IOException {
+                buffer.flip();
+                while (buffer.hasRemaining()) channel.write(buffer);
+                buffer.clear();
+            }
+        };
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, int needed, long windowSize)
+            throws IOException {
+        long length = Math.min(channel.size() - position, Math.max(windowSize, needed));
+        if (length < needed) throw new IOException("Corrupt snapshot: truncated record");
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+}
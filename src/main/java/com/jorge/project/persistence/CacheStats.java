@@ -0,0 +1,21 @@
+package com.jorge.project.persistence;
+
+/**
+ * Estadísticas de {@link CachingProductRepository}
+ *
+ * @param hits      lecturas servidas desde la caché
+ * @param misses    lecturas que fueron al almacén
+ * @param evictions productos descartados por falta de espacio, incluidos los candidatos no admitidos
+ * @param size      productos en caché
+ * @param capacity  productos que caben en caché
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, int capacity) {
+
+    /**
+     * @return proporción de lecturas servidas desde la caché, 0 si no hubo lecturas
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
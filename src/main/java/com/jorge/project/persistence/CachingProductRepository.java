@@ -0,0 +1,200 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.model.Product;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Caché acotada de lectura y escritura delante de otro {@link ProductRepository}, con desalojo al estilo W-TinyLFU:
+ * los productos nuevos entran a una ventana LRU pequeña (1% de la capacidad) y, al salir de ella, solo pasan a la
+ * zona principal LRU si se pidieron más veces que el producto que desalojarían, según un {@link FrequencySketch}.
+ * Así un recorrido puntual por muchos productos fríos no expulsa a los que se piden todo el tiempo.
+ * Las escrituras van primero al almacén y después a la caché. Los recorridos completos leen del almacén sin pasar
+ * por la caché, para no contaminarla. Un fallo lee el almacén fuera del cerrojo de la caché, así los aciertos no
+ * esperan al disco.
+ */
+public class CachingProductRepository implements ProductRepository {
+    private final ProductRepository store;
+    private final int capacity;
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final LinkedHashMap<Integer, Product> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Integer, Product> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    // Guards the cache structures only and is never held across store I/O, so hits don't wait behind a miss
+    private final ReentrantLock lock = new ReentrantLock();
+    // Serializes writes so the cache sees them in the same order as the store
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Bumped by every write; a miss only admits what it read if no write happened meanwhile
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param store    almacén con todos los productos
+     * @param capacity productos que caben en caché; al menos 2
+     */
+    public CachingProductRepository(ProductRepository store, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity debe ser al menos 2");
+        }
+        this.store = store;
+        this.capacity = capacity;
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = capacity - windowCapacity;
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    @Override
+    public Product get(int id) {
+        long seen;
+        lock.lock();
+        try {
+            sketch.increment(id);
+            Product product = cached(id);
+            if (product != null) {
+                hits++;
+                return product;
+            }
+            misses++;
+            seen = version;
+        } finally {
+            lock.unlock();
+        }
+        Product product = store.get(id);
+        lock.lock();
+        try {
+            // A write landed while the store was read: what was read may be stale, so it is not cached
+            if (version != seen) {
+                Product cached = cached(id);
+                return cached != null ? cached : product;
+            }
+            // Cached instances are handed to every reader, so they must not change under them
+            if (product != null) admit(id, product.freeze());
+            return product;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(int id) {
+        lock.lock();
+        try {
+            if (cached(id) != null) return true;
+        } finally {
+            lock.unlock();
+        }
+        return store.contains(id);
+    }
+
+    @Override
+    public void put(Product product) {
+        writeLock.lock();
+        try {
+            store.put(product);
+            int id = product.getId();
+            lock.lock();
+            try {
+                version++;
+                if (main.containsKey(id)) {
+                    main.put(id, product);
+                } else {
+                    admit(id, product);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(int id) {
+        writeLock.lock();
+        try {
+            boolean removed = store.remove(id);
+            lock.lock();
+            try {
+                version++;
+                window.remove(id);
+                main.remove(id);
+            } finally {
+                lock.unlock();
+            }
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public int maxId() {
+        return store.maxId();
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return store.stream();
+    }
+
+    @Override
+    public void flush() {
+        store.flush();
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits, misses, evictions, window.size() + main.size(), capacity);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Product cached(int id) {
+        Product product = window.get(id);
+        return product != null ? product : main.get(id);
+    }
+
+    private void admit(int id, Product product) {
+        window.put(id, product);
+        if (window.size() <= windowCapacity) return;
+        Map.Entry<Integer, Product> candidate = removeEldest(window);
+        if (main.size() < mainCapacity) {
+            main.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        evictions++;
+        Iterator<Map.Entry<Integer, Product>> victims = main.entrySet().iterator();
+        Map.Entry<Integer, Product> victim = victims.next();
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+            victims.remove();
+            main.put(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    private static Map.Entry<Integer, Product> removeEldest(LinkedHashMap<Integer, Product> map) {
+        Iterator<Map.Entry<Integer, Product>> entries = map.entrySet().iterator();
+        Map.Entry<Integer, Product> eldest = entries.next();
+        Map.Entry<Integer, Product> copy = Map.entry(eldest.getKey(), eldest.getValue());
+        entries.remove();
+        return copy;
+    }
+}
@@ -0,0 +1,403 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Almacén en disco indexado por ID: solo el índice vive en memoria (8 bytes por ID), los productos se leen del
+ * archivo al pedirlos.
+ * Formato (big-endian): cabecera {@code "INVS"}, versión (int) y mayor ID usado (int); luego registros de solo
+ * escritura al final con el mismo diseño que {@link BinaryProductFile}: id (int), precio (double), stock (int),
+ * ordinal de la categoría (byte; -1 marca una baja) y el nombre en UTF-8 precedido por su longitud (int).
+ * Cada cambio agrega un registro y el índice apunta al último de cada ID; cuando los registros obsoletos ocupan más
+ * que los vigentes, el archivo se reescribe en orden de ID. Al abrirlo se reconstruye el índice recorriendo el
+ * archivo y se descarta un último registro a medio escribir; un registro dañado en medio del archivo impide
+ * abrirlo y el archivo queda intacto. Las escrituras llegan al disco físico con {@link #flush()}.
+ * Pensado para IDs densos como los que asigna el servicio: el índice es un arreglo de tamaño mayor ID.
+ */
+public class DiskProductStore implements ProductRepository {
+    static final int MAGIC = 0x494E5653; // "INVS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+
+    private static final int FIXED_RECORD_SIZE = 4 + 8 + 4 + 1 + 4;
+    private static final byte REMOVED = -1;
+    private static final int LENGTH_BITS = 24;
+    private static final long LENGTH_MASK = (1L << LENGTH_BITS) - 1;
+    private static final int SCAN_CHUNK = 1024;
+    private static final long MIN_COMPACTION_BYTES = 1 << 20;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final Path path;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private long end;
+    // Offset in the high 40 bits, record length in the low 24; 0 = no product with that ID
+    private long[] slots = new long[16];
+    private int size;
+    private int maxId;
+    private long liveBytes;
+
+    /**
+     * Abre el almacén, creándolo si no existe
+     *
+     * @param path ruta del archivo
+     */
+    public DiskProductStore(String path) {
+        this.path = Path.of(path);
+        try {
+            if (!Files.exists(this.path) || Files.size(this.path) == 0) {
+                writeHeader(this.path, 0);
+            }
+            recover();
+            channel = FileChannel.open(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.truncate(end);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error opening product store " + path, e);
+        }
+    }
+
+    @Override
+    public Product get(int id) {
+        lock.readLock().lock();
+        try {
+            long slot = slot(id);
+            return slot == 0 ? null : read(slot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading product " + id, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(int id) {
+        lock.readLock().lock();
+        try {
+            return slot(id) != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(Product product) {
+        ByteBuffer record = encode(product);
+        lock.writeLock().lock();
+        try {
+            int id = product.getId();
+            long previous = slot(id);
+            if (previous == 0) {
+                size++;
+            } else {
+                liveBytes -= previous & LENGTH_MASK;
+            }
+            int length = record.remaining();
+            long offset = append(record);
+            ensureCapacity(id);
+            slots[id] = offset << LENGTH_BITS | length;
+            liveBytes += length;
+            maxId = Math.max(maxId, id);
+            compactIfNeeded();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing product " + product.getId(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(int id) {
+        lock.writeLock().lock();
+        try {
+            long previous = slot(id);
+            if (previous == 0) return false;
+            append(tombstone(id));
+            slots[id] = 0;
+            liveBytes -= previous & LENGTH_MASK;
+            size--;
+            compactIfNeeded();
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error removing product " + id, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int maxId() {
+        lock.readLock().lock();
+        try {
+            return maxId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reads a chunk of IDs per lock acquisition, so writers and compactions can interleave with long scans
+    @Override
+    public Stream<Product> stream() {
+        Iterator<Product> iterator = new Iterator<>() {
+            private int nextId = 1;
+            private final List<Product> chunk = new ArrayList<>(SCAN_CHUNK);
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                if (position < chunk.size()) return true;
+                chunk.clear();
+                position = 0;
+                nextId = readChunk(nextId, chunk);
+                return !chunk.isEmpty();
+            }
+
+            @Override
+            public Product next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return chunk.get(position++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error flushing product store", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error closing product store", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return bytes del archivo, incluidos los registros obsoletos
+     */
+    public long fileSize() {
+        lock.readLock().lock();
+        try {
+            return end;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int readChunk(int fromId, List<Product> chunk) {
+        lock.readLock().lock();
+        try {
+            int id = fromId;
+            for (; id <= maxId && chunk.size() < SCAN_CHUNK; id++) {
+                long slot = slot(id);
+                if (slot != 0) chunk.add(read(slot));
+            }
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error scanning product store", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long slot(int id) {
+        return id > 0 && id < slots.length ? slots[id] : 0;
+    }
+
+    private Product read(long slot) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (slot & LENGTH_MASK));
+        long offset = slot >>> LENGTH_BITS;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) throw new EOFException("Truncated product store");
+        }
+        buffer.flip();
+        int id = buffer.getInt();
+        double price = buffer.getDouble();
+        int stock = buffer.getInt();
+        int ordinal = buffer.get();
+        int nameLength = buffer.getInt();
+        Product product = new Product(new String(buffer.array(), FIXED_RECORD_SIZE, nameLength, StandardCharsets.UTF_8),
+                price, stock, CATEGORIES[ordinal]);
+        product.setId(id);
+        return product;
+    }
+
+    private long append(ByteBuffer record) throws IOException {
+        long offset = end;
+        while (record.hasRemaining()) {
+            end += channel.write(record, end);
+        }
+        return offset;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= slots.length) slots = Arrays.copyOf(slots, Math.max(id + 1, slots.length * 2));
+    }
+
+    private static ByteBuffer encode(Product product) {
+        byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(FIXED_RECORD_SIZE + name.length);
+        record.putInt(product.getId())
+                .putDouble(product.getPrice())
+                .putInt(product.getStock())
+                .put((byte) product.getCategory().ordinal())
+                .putInt(name.length)
+                .put(name);
+        return record.flip();
+    }
+
+    private static ByteBuffer tombstone(int id) {
+        ByteBuffer record = ByteBuffer.allocate(FIXED_RECORD_SIZE);
+        record.putInt(id).putDouble(Double.NaN).putInt(0).put(REMOVED).putInt(0);
+        return record.flip();
+    }
+
+    /*
+     * Rebuilds the index; only a record cut short by a crash, which must run past the end of the file, ends the scan
+     * and is truncated away. Anything else is real corruption and fails before the file is touched
+     */
+    private void recover() throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a product store: " + path);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported product store version " + version);
+            maxId = in.readInt();
+            long offset = HEADER_SIZE;
+            long fileSize = Files.size(path);
+            while (offset + FIXED_RECORD_SIZE <= fileSize) {
+                int id = in.readInt();
+                in.readDouble();
+                in.readInt();
+                int ordinal = in.readByte();
+                int nameLength = in.readInt();
+                int length = FIXED_RECORD_SIZE + nameLength;
+                if (id <= 0 || ordinal < REMOVED || ordinal >= CATEGORIES.length || nameLength < 0
+                        || length > LENGTH_MASK) {
+                    throw new IOException("Corrupt product store " + path + " at byte " + offset);
+                }
+                if (offset + length > fileSize) {
+                    System.err.println("Ignoring torn record in " + path + " at byte " + offset);
+                    break;
+                }
+                in.skipNBytes(nameLength);
+                long previous = slot(id);
+                if (previous != 0) {
+                    liveBytes -= previous & LENGTH_MASK;
+                    size--;
+                }
+                if (ordinal == REMOVED) {
+                    if (previous != 0) slots[id] = 0;
+                } else {
+                    ensureCapacity(id);
+                    slots[id] = offset << LENGTH_BITS | length;
+                    liveBytes += length;
+                    size++;
+                }
+                maxId = Math.max(maxId, id);
+                offset += length;
+            }
+            end = offset;
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        long garbage = end - HEADER_SIZE - liveBytes;
+        if (garbage <= liveBytes || end < MIN_COMPACTION_BYTES) return;
+        compact();
+    }
+
+    // Runs under the write lock; the header keeps maxId so IDs of deleted products are never handed out again
+    private void compact() throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        long[] compacted = new long[slots.length];
+        long offset = HEADER_SIZE;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(out), BUFFER_SIZE))) {
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(maxId);
+            for (int id = 1; id < slots.length; id++) {
+                long slot = slots[id];
+                if (slot == 0) continue;
+                int length = (int) (slot & LENGTH_MASK);
+                ByteBuffer record = ByteBuffer.allocate(length);
+                long from = slot >>> LENGTH_BITS;
+                while (record.hasRemaining()) {
+                    if (channel.read(record, from + record.position()) < 0) throw new EOFException("Truncated product store");
+                }
+                data.write(record.array());
+                compacted[id] = offset << LENGTH_BITS | length;
+                offset += length;
+            }
+            data.flush();
+            out.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        slots = compacted;
+        end = offset;
+    }
+
+    private static void writeHeader(Path path, int maxId) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putInt(maxId).flip();
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) out.write(header);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.jorge.project.persistence;
+
+/**
+ * Estimación aproximada de cuántas veces se pidió cada ID (count-min sketch con contadores de 4 bits, como TinyLFU).
+ * Cuando el total de incrementos llega a diez veces la capacidad, todos los contadores se dividen a la mitad,
+ * así la frecuencia refleja el uso reciente y no el histórico.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long HALF_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int length = Integer.highestOneBit(Math.max(16, capacity - 1) << 1);
+        table = new long[length];
+        mask = length - 1;
+        sampleSize = 10 * Math.max(16, capacity);
+    }
+
+    void increment(int id) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(id, i);
+            int index = (int) hash & mask;
+            int shift = (int) (hash >>> 60) << 2;
+            if (((table[index] >>> shift) & MAX_COUNT) < MAX_COUNT) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) reset();
+    }
+
+    int frequency(int id) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long hash = hash(id, i);
+            int shift = (int) (hash >>> 60) << 2;
+            frequency = Math.min(frequency, (int) ((table[(int) hash & mask] >>> shift) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & HALF_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long hash(int id, int row) {
+        long hash = (id + SEEDS[row]) * SEEDS[row];
+        return hash ^ (hash >>> 29);
+    }
+}
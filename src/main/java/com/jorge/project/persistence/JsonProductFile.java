@@ -0,0 +1,78 @@
+package com.jorge.project.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.jorge.project.model.Product;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Lectura y escritura en streaming del snapshot JSON del catálogo.
+ * Los productos se procesan de a uno, así la memoria usada no depende del tamaño del archivo.
+ */
+public final class JsonProductFile {
+    private static final TypeAdapter<Product> ADAPTER = new Gson().getAdapter(Product.class);
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private JsonProductFile() {
+    }
+
+    /**
+     * Lee los productos del archivo y los entrega uno por uno
+     *
+     * @param path     ruta del archivo JSON
+     * @param consumer recibe cada producto en el orden del archivo
+     * @return cantidad de productos leídos, 0 si el archivo no existe o no tiene contenido
+     */
+    public static int read(String path, Consumer<Product> consumer) throws IOException {
+        File file = new File(path);
+        if (!file.exists() || file.length() == 0) return 0;
+        int count = 0;
+        try (JsonReader reader = new JsonReader(
+                new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            if (reader.peek() == JsonToken.NULL) return 0;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Product product = ADAPTER.read(reader);
+                if (product != null) {
+                    consumer.accept(product);
+                    count++;
+                }
+            }
+            reader.endArray();
+        }
+        return count;
+    }
+
+    /**
+     * Abre un snapshot JSON para escritura, reemplazando su contenido
+     *
+     * @param path        ruta del archivo JSON
+     * @param prettyPrint si se escribe con indentación
+     */
+    public static SnapshotWriter writer(String path, boolean prettyPrint) throws IOException {
+        JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8), BUFFER_SIZE));
+        if (prettyPrint) writer.setIndent("  ");
+        writer.setSerializeNulls(false);
+        writer.beginArray();
+        return new SnapshotWriter() {
+            @Override
+            public void write(Product product) throws IOException {
+                ADAPTER.write(writer, product);
+            }
+
+            @Override
+            public void close() throws IOException {
+                try (writer) {
+                    writer.endArray();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.metrics.InventoryMetrics;
+import com.jorge.project.metrics.ServiceMetrics;
+
+/**
+ * Configuración de persistencia del catálogo
+ *
+ * @param path                ruta del snapshot
+ * @param mode                modo de persistencia
+ * @param format              formato del snapshot
+ * @param compactionThreshold registros del log que disparan una compactación
+ * @param prettyPrint         si el snapshot JSON se escribe con indentación
+ * @param flushIntervalMillis en modo ASYNC, tiempo máximo que un cambio espera antes de guardarse
+ * @param flushThreshold      en modo ASYNC, cambios pendientes que disparan un guardado inmediato
+ * @param metrics             dónde registrar escrituras, cargas y errores de E/S
+ */
+public record PersistenceConfig(String path, PersistenceMode mode, SnapshotFormat format, int compactionThreshold,
+                                boolean prettyPrint, long flushIntervalMillis, int flushThreshold,
+                                ServiceMetrics metrics) {
+
+    public static final String DEFAULT_PATH = "src/products.json";
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1_000;
+    public static final int DEFAULT_FLUSH_THRESHOLD = 10_000;
+
+    public PersistenceConfig {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("path no puede estar vacío");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("mode no puede ser nulo");
+        }
+        if (format == null) {
+            throw new IllegalArgumentException("format no puede ser nulo");
+        }
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("compactionThreshold debe ser mayor que cero");
+        }
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("flushIntervalMillis debe ser mayor que cero");
+        }
+        if (flushThreshold <= 0) {
+            throw new IllegalArgumentException("flushThreshold debe ser mayor que cero");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics no puede ser nulo");
+        }
+    }
+
+    public static PersistenceConfig defaults() {
+        return new PersistenceConfig(DEFAULT_PATH, PersistenceMode.SNAPSHOT, SnapshotFormat.JSON,
+                DEFAULT_COMPACTION_THRESHOLD, true, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_FLUSH_THRESHOLD,
+                ServiceMetrics.DISABLED);
+    }
+
+    /**
+     * Lee la configuración de las propiedades del sistema
+     * (inventory.path, inventory.persistence, inventory.format, inventory.compaction, inventory.pretty,
+     * inventory.flushInterval, inventory.flushThreshold, inventory.metrics)
+     *
+     * @return configuración con los valores por defecto para las propiedades ausentes;
+     * sin inventory.format, el formato se deduce de la extensión de la ruta
+     */
+    public static PersistenceConfig fromSystemProperties() {
+        String path = System.getProperty("inventory.path", DEFAULT_PATH);
+        PersistenceMode mode = PersistenceMode.valueOf(
+                System.getProperty("inventory.persistence", PersistenceMode.SNAPSHOT.name()).toUpperCase());
+        String rawFormat = System.getProperty("inventory.format");
+        SnapshotFormat format = rawFormat == null
+                ? SnapshotFormat.forPath(path)
+                : SnapshotFormat.valueOf(rawFormat.toUpperCase());
+        int threshold = Integer.getInteger("inventory.compaction", DEFAULT_COMPACTION_THRESHOLD);
+        boolean prettyPrint = Boolean.parseBoolean(System.getProperty("inventory.pretty", "true"));
+        long flushInterval = Long.getLong("inventory.flushInterval", DEFAULT_FLUSH_INTERVAL_MILLIS);
+        int flushThreshold = Integer.getInteger("inventory.flushThreshold", DEFAULT_FLUSH_THRESHOLD);
+        ServiceMetrics metrics = Boolean.getBoolean("inventory.metrics")
+                ? new InventoryMetrics()
+                : ServiceMetrics.DISABLED;
+        return new PersistenceConfig(path, mode, format, threshold, prettyPrint, flushInterval, flushThreshold,
+                metrics);
+    }
+
+    public PersistenceConfig withPath(String path) {
+        return new PersistenceConfig(path, mode, format, compactionThreshold, prettyPrint, flushIntervalMillis,
+                flushThreshold, metrics);
+    }
+
+    public PersistenceConfig withMode(PersistenceMode mode) {
+        return new PersistenceConfig(path, mode, format, compactionThreshold, prettyPrint, flushIntervalMillis,
+                flushThreshold, metrics);
+    }
+
+    public PersistenceConfig withFormat(SnapshotFormat format) {
+        return new PersistenceConfig(path, mode, format, compactionThreshold, prettyPrint, flushIntervalMillis,
+                flushThreshold, metrics);
+    }
+
+    public PersistenceConfig withCompactionThreshold(int compactionThreshold) {
+        return new PersistenceConfig(path, mode, format, compactionThreshold, prettyPrint, flushIntervalMillis,
+                flushThreshold, metrics);
+    }
+
+    public PersistenceConfig withPrettyPrint(boolean prettyPrint) {
+        return new PersistenceConfig(path, mode, format, compactionThreshold, prettyPrint, flushIntervalMillis,
+                flushThreshold, metrics);
+    }
+
+    public PersistenceConfig withFlushInterval(long flushIntervalMillis) {
+        return new PersistenceConfig(path, mode, format, compactionThreshold, prettyPrint, flushIntervalMillis,
+                flushThreshold, metrics);
+    }
+
+    public PersistenceConfig withFlushThreshold(int flushThreshold) {
+        return new PersistenceConfig(path, mode, format, compactionThreshold, prettyPrint, flushIntervalMillis,
+                flushThreshold, metrics);
+    }
+
+    public PersistenceConfig withMetrics(ServiceMetrics metrics) {
+        return new PersistenceConfig(path, mode, format, compactionThreshold, prettyPrint, flushIntervalMillis,
+                flushThreshold, metrics);
+    }
+
+    public String logPath() {
+        return path + ".log";
+    }
+}
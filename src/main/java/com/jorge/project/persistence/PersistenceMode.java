@@ -0,0 +1,23 @@
+package com.jorge.project.persistence;
+
+public enum PersistenceMode {
+
+    SNAPSHOT("Reescribe el archivo completo en cada cambio"),
+    LOG("Agrega cada cambio a un log y compacta en segundo plano"),
+    ASYNC("Marca el catálogo como modificado y lo guarda en segundo plano");
+
+    private final String message;
+
+    PersistenceMode(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
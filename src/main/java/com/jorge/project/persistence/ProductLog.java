@@ -0,0 +1,274 @@
+package com.jorge.project.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.jorge.project.model.Product;
+import com.jorge.project.metrics.ServiceMetrics;
+import com.jorge.project.model.ProductMutation;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Log de cambios de solo escritura al final.
+ * Cada línea es un registro compacto: "U {producto}" para altas y modificaciones o "D id" para bajas.
+ * Al superar el umbral de compactación el log activo se rota y un hilo en segundo plano
+ * escribe un snapshot nuevo; el log rotado se elimina cuando el snapshot queda en disco.
+ */
+public class ProductLog implements Closeable {
+    private static final Gson GSON = new Gson();
+
+    private final Path snapshotPath;
+    private final Path path;
+    private final Path rolledPath;
+    private final int compactionThreshold;
+    private final SnapshotFormat format;
+    private final boolean prettyPrint;
+    private final ServiceMetrics metrics;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private BufferedWriter writer;
+    private FileChannel channel;
+    private int records;
+    private boolean compacting;
+    private boolean damaged;
+
+    public ProductLog(PersistenceConfig config) {
+        this.snapshotPath = Path.of(config.path());
+        this.path = Path.of(config.logPath());
+        this.rolledPath = Path.of(config.logPath() + ".1");
+        this.compactionThreshold = config.compactionThreshold();
+        this.format = config.format();
+        this.prettyPrint = config.prettyPrint();
+        this.metrics = config.metrics();
+    }
+
+    /**
+     * Reaplica los registros del log rotado (si una compactación quedó a medias) y del log activo.
+     * Se detiene en el primer registro dañado; solo un último registro a medio escribir en el log activo se descarta
+     * sin más, porque nada lo sigue
+     *
+     * @param upsert recibe cada producto creado o modificado
+     * @param delete recibe el id de cada producto eliminado
+     * @return cantidad de registros reaplicados
+     */
+    public int replay(Consumer<Product> upsert, IntConsumer delete) throws IOException {
+        Replayed rolled = replay(rolledPath, false, upsert, delete);
+        if (!rolled.complete()) {
+            damaged = true;
+            return rolled.applied();
+        }
+        Replayed active = replay(path, true, upsert, delete);
+        damaged = !active.complete();
+        return rolled.applied() + active.applied();
+    }
+
+    /**
+     * Abre el log para escritura. Si quedaban registros de una ejecución anterior,
+     * primero los consolida en el snapshot con el estado ya recuperado; si el replay se detuvo en un registro dañado,
+     * antes guarda una copia de los logs con extensión {@code .corrupt}.
+     *
+     * @param current estado del catálogo tras el replay
+     */
+    public synchronized void open(Iterable<Product> current) throws IOException {
+        if (Files.exists(rolledPath) || (Files.exists(path) && Files.size(path) > 0)) {
+            if (damaged) {
+                keepCopy(rolledPath);
+                keepCopy(path);
+            }
+            writeSnapshot(current);
+            Files.deleteIfExists(rolledPath);
+            Files.deleteIfExists(path);
+        }
+        writer = newWriter();
+        records = 0;
+    }
+
+    /**
+     * @return bytes agregados al log
+     */
+    public synchronized long appendUpsert(Product product) throws IOException {
+        return append("U " + GSON.toJson(product));
+    }
+
+    /**
+     * @return bytes agregados al log
+     */
+    public synchronized long appendDelete(int id) throws IOException {
+        return append("D " + id);
+    }
+
+    /**
+     * Agrega los registros de un lote ya aplicado con una sola descarga a disco
+     *
+     * @param mutations cambios del lote; las altas ya tienen su ID asignado
+     * @return bytes agregados al log
+     */
+    public synchronized long appendBatch(List<ProductMutation> mutations) throws IOException {
+        long start = channel.position();
+        for (ProductMutation mutation : mutations) {
+            switch (mutation) {
+                case ProductMutation.Create create -> write("U " + GSON.toJson(create.product()));
+                case ProductMutation.Update update -> {
+                    JsonObject json = GSON.toJsonTree(update.product()).getAsJsonObject();
+                    json.addProperty("id", update.id());
+                    write("U " + json);
+                }
+                case ProductMutation.Delete delete -> write("D " + delete.id());
+            }
+        }
+        writer.flush();
+        return channel.position() - start;
+    }
+
+    /**
+     * Descarga el log al disco físico (fsync), para que los cambios ya registrados sobrevivan a un corte de energía
+     */
+    public synchronized void sync() throws IOException {
+        writer.flush();
+        channel.force(false);
+    }
+
+    /**
+     * Si el log superó el umbral y no hay otra compactación en curso, rota el log activo
+     * y programa la escritura del snapshot en segundo plano.
+     * El snapshot se pide después de la rotación: todo registro del log rotado ya está aplicado en memoria
+     * y lo posterior queda en el log nuevo, que se reaplica sobre el snapshot al iniciar.
+     *
+     * @param snapshot devuelve una copia del catálogo que no cambiará mientras se escribe
+     */
+    public void compactIfNeeded(Supplier<Collection<Product>> snapshot) throws IOException {
+        synchronized (this) {
+            if (records < compactionThreshold || compacting) return;
+            compacting = true;
+            roll();
+        }
+        Collection<Product> state = snapshot.get();
+        compactor.execute(() -> {
+            try {
+                writeSnapshot(state);
+                Files.deleteIfExists(rolledPath);
+            } catch (IOException e) {
+                metrics.recordIoFailure();
+                System.out.println("Error compacting product log: " + e.getMessage());
+            } finally {
+                synchronized (this) {
+                    compacting = false;
+                }
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (writer != null) writer.close();
+        }
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        if (Files.exists(rolledPath)) {
+            // A previous compaction failed: keep its records ahead of the current ones
+            Files.write(rolledPath, Files.readAllBytes(path), StandardOpenOption.APPEND);
+            Files.delete(path);
+        } else {
+            Files.move(path, rolledPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        writer = newWriter();
+        records = 0;
+    }
+
+    // The log is opened in append mode, so the channel position is its size once the writer is flushed
+    private long append(String line) throws IOException {
+        long start = channel.position();
+        write(line);
+        writer.flush();
+        return channel.position() - start;
+    }
+
+    private void write(String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+        records++;
+    }
+
+    private BufferedWriter newWriter() throws IOException {
+        FileOutputStream out = new FileOutputStream(path.toFile(), true);
+        channel = out.getChannel();
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    // The rotated log is deleted right after this returns, so the snapshot must be on disk first
+    private void writeSnapshot(Iterable<Product> products) throws IOException {
+        long start = System.nanoTime();
+        format.writeAtomically(snapshotPath.toString(), products, prettyPrint, true);
+        if (metrics.enabled()) metrics.recordWrite(Files.size(snapshotPath), System.nanoTime() - start);
+    }
+
+    private static Replayed replay(Path file, boolean active, Consumer<Product> upsert, IntConsumer delete)
+            throws IOException {
+        if (!Files.exists(file)) return new Replayed(0, true);
+        int applied = 0;
+        int lineNumber = 0;
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.length() < 3) continue;
+                try {
+                    switch (line.charAt(0)) {
+                        case 'U' -> upsert.accept(GSON.fromJson(line.substring(2), Product.class));
+                        case 'D' -> delete.accept(Integer.parseInt(line.substring(2)));
+                        default -> throw new JsonParseException("unknown record type");
+                    }
+                    applied++;
+                } catch (JsonParseException | NumberFormatException e) {
+                    // A crash can only tear the last record of the active log; anywhere else nothing after it,
+                    // including the active log, is trustworthy
+                    if (active && br.readLine() == null) {
+                        System.err.println("Ignoring torn record at the end of " + file + ": " + e.getMessage());
+                        return new Replayed(applied, true);
+                    }
+                    System.err.println("Stopping replay at corrupt line " + lineNumber + " of " + file + ": "
+                            + e.getMessage());
+                    return new Replayed(applied, false);
+                }
+            }
+        }
+        return new Replayed(applied, true);
+    }
+
+    private static void keepCopy(Path file) throws IOException {
+        if (!Files.exists(file)) return;
+        Path copy = file.resolveSibling(file.getFileName() + ".corrupt");
+        Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+        System.err.println("Kept a copy of the damaged log in " + copy);
+    }
+
+    private record Replayed(int applied, boolean complete) {
+    }
+}
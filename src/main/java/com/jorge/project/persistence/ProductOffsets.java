@@ -0,0 +1,349 @@
+package com.jorge.project.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Índice liviano de posiciones del snapshot: guarda dónde empieza el registro de cada ID sin crear los productos.
+ * Se construye recorriendo los bytes del archivo, mucho más rápido que la carga completa, y permite leer productos
+ * sueltos mientras el resto del catálogo se carga. En modo LOG también reaplica el log, que la compactación mantiene
+ * corto, así las lecturas ven el mismo estado que verá la carga completa.
+ * El archivo queda abierto hasta cerrar el índice: si una compactación lo reemplaza, las lecturas siguen viendo el
+ * contenido que se indexó.
+ */
+public final class ProductOffsets implements Closeable {
+    private static final TypeAdapter<Product> ADAPTER = new Gson().getAdapter(Product.class);
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int FIXED_RECORD_SIZE = 4 + 8 + 4 + 1 + 4;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final SnapshotFormat format;
+    private final FileChannel channel;
+    private final int[] ids;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final Map<Integer, Product> logged;
+    private final int records;
+
+    private ProductOffsets(SnapshotFormat format, FileChannel channel, Records scanned, Map<Integer, Product> logged,
+                           int loggedRecords) {
+        this.format = format;
+        this.channel = channel;
+        this.logged = logged;
+        this.records = scanned.size + loggedRecords;
+        scanned.sortById();
+        this.ids = scanned.ids;
+        this.offsets = scanned.offsets;
+        this.lengths = scanned.lengths;
+    }
+
+    /**
+     * Recorre el snapshot de la configuración y, en modo LOG, reaplica su log
+     *
+     * @param config configuración de persistencia del catálogo
+     * @return índice vacío si el snapshot no existe
+     */
+    public static ProductOffsets build(PersistenceConfig config) throws IOException {
+        Path file = Path.of(config.path());
+        Map<Integer, Product> logged = new HashMap<>();
+        int loggedRecords = 0;
+        if (config.mode() == PersistenceMode.LOG) {
+            try (ProductLog log = new ProductLog(config)) {
+                loggedRecords = log.replay(product -> logged.put(product.getId(), product.freeze()),
+                        id -> logged.put(id, null));
+            }
+        }
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return new ProductOffsets(config.format(), null, new Records(), logged, loggedRecords);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            Records scanned = config.format() == SnapshotFormat.BINARY ? scanBinary(channel) : scanJson(channel);
+            return new ProductOffsets(config.format(), channel, scanned, logged, loggedRecords);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return registros que reaplicará la carga completa: productos del snapshot más registros del log
+     */
+    public int records() {
+        return records;
+    }
+
+    /**
+     * Lee un producto directamente del archivo
+     *
+     * @param id del producto
+     * @return versión guardada del producto, o null si no existe
+     */
+    public Product find(int id) {
+        if (logged.containsKey(id)) return logged.get(id);
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) return null;
+        try {
+            Product product = format == SnapshotFormat.BINARY ? readBinary(offsets[index]) : readJson(index);
+            return product.freeze();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading product " + id, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) channel.close();
+    }
+
+    private Product readJson(int index) throws IOException {
+        ByteBuffer buffer = read(offsets[index], lengths[index]);
+        return ADAPTER.fromJson(new String(buffer.array(), 0, buffer.limit(), StandardCharsets.UTF_8));
+    }
+
+    private Product readBinary(long offset) throws IOException {
+        ByteBuffer fixed = read(offset, FIXED_RECORD_SIZE);
+        int id = fixed.getInt();
+        double price = fixed.getDouble();
+        int stock = fixed.getInt();
+        int ordinal = fixed.get();
+        int nameLength = fixed.getInt();
+        ByteBuffer name = read(offset + FIXED_RECORD_SIZE, nameLength);
+        Product product = new Product(new String(name.array(), 0, nameLength, StandardCharsets.UTF_8),
+                price, stock, CATEGORIES[ordinal]);
+        product.setId(id);
+        return product;
+    }
+
+    // Positional reads leave the channel position alone, so concurrent lookups don't interfere
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Corrupt snapshot: truncated record");
+            }
+        }
+        return buffer.flip();
+    }
+
+    // Follows the record lengths without decoding names, the same layout BinaryProductFile reads
+    private static Records scanBinary(FileChannel channel) throws IOException {
+        ChunkReader in = new ChunkReader(channel);
+        if (in.readInt() != BinaryProductFile.MAGIC) throw new IOException("Not a binary product snapshot");
+        int version = in.readInt();
+        if (version != BinaryProductFile.VERSION) throw new IOException("Unsupported snapshot version " + version);
+        int count = in.readInt();
+        Records records = new Records();
+        for (int i = 0; i < count; i++) {
+            long offset = in.position();
+            int id = in.readInt();
+            in.skip(8 + 4);
+            int ordinal = in.read();
+            int nameLength = in.readInt();
+            if (ordinal < 0 || ordinal >= CATEGORIES.length || nameLength < 0) {
+                throw new IOException("Corrupt snapshot at product #" + (i + 1));
+            }
+            in.skip(nameLength);
+            records.add(id, offset, FIXED_RECORD_SIZE + nameLength);
+        }
+        return records;
+    }
+
+    /*
+     * Finds each top-level object of the array and the value of its "id" key by tracking nesting and strings,
+     * without building any JSON tree
+     */
+    private static Records scanJson(FileChannel channel) throws IOException {
+        ChunkReader in = new ChunkReader(channel);
+        Records records = new Records();
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        int keyLength = 0;
+        boolean keyIsId = false;
+        boolean afterIdKey = false;
+        boolean readingId = false;
+        int idDigits = 0;
+        long objectStart = 0;
+        int id = 0;
+        for (int b = in.read(); b >= 0; b = in.read()) {
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                    keyIsId = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                    afterIdKey = depth == 2 && keyIsId && keyLength == 2;
+                    continue;
+                } else {
+                    keyIsId &= keyLength == 0 ? b == 'i' : keyLength == 1 && b == 'd';
+                }
+                keyLength++;
+                continue;
+            }
+            if (readingId) {
+                if (b >= '0' && b <= '9') {
+                    id = Math.addExact(Math.multiplyExact(id, 10), b - '0');
+                    idDigits++;
+                    continue;
+                }
+                if (idDigits == 0 && (b == ' ' || b == '\n' || b == '\r' || b == '\t')) continue;
+                readingId = false;
+            }
+            switch (b) {
+                case ' ', '\n', '\r', '\t' -> {
+                    continue;
+                }
+                case '"' -> {
+                    inString = true;
+                    keyLength = 0;
+                    keyIsId = true;
+                }
+                case ':' -> {
+                    if (afterIdKey) {
+                        readingId = true;
+                        idDigits = 0;
+                        id = 0;
+                    }
+                }
+                case '{', '[' -> {
+                    depth++;
+                    if (depth == 2 && b == '{') {
+                        objectStart = in.position() - 1;
+                        id = 0;
+                    }
+                }
+                case '}', ']' -> {
+                    if (depth == 2 && b == '}') records.add(id, objectStart, (int) (in.position() - objectStart));
+                    depth--;
+                }
+                default -> {
+                }
+            }
+            afterIdKey = false;
+        }
+        return records;
+    }
+
+    // Ids with their record offsets in file order; usually already ascending, since snapshots are written by id
+    private static final class Records {
+        private int[] ids = new int[1024];
+        private long[] offsets = new long[1024];
+        private int[] lengths = new int[1024];
+        private int size;
+
+        void add(int id, long offset, int length) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            ids[size] = id;
+            offsets[size] = offset;
+            lengths[size] = length;
+            size++;
+        }
+
+        // Trims to size and sorts by id; with repeated ids the last record wins, as in the full load
+        void sortById() {
+            boolean ascending = true;
+            for (int i = 1; i < size && ascending; i++) {
+                ascending = ids[i] > ids[i - 1];
+            }
+            if (!ascending) {
+                long[] order = new long[size];
+                for (int i = 0; i < size; i++) {
+                    order[i] = (long) ids[i] << 32 | i;
+                }
+                Arrays.sort(order);
+                int[] sortedIds = new int[size];
+                long[] sortedOffsets = new long[size];
+                int[] sortedLengths = new int[size];
+                int kept = 0;
+                for (int i = 0; i < size; i++) {
+                    int index = (int) order[i];
+                    if (i + 1 < size && (int) (order[i + 1] >>> 32) == ids[index]) continue;
+                    sortedIds[kept] = ids[index];
+                    sortedOffsets[kept] = offsets[index];
+                    sortedLengths[kept] = lengths[index];
+                    kept++;
+                }
+                ids = sortedIds;
+                offsets = sortedOffsets;
+                lengths = sortedLengths;
+                size = kept;
+            }
+            ids = Arrays.copyOf(ids, size);
+            offsets = Arrays.copyOf(offsets, size);
+            lengths = Arrays.copyOf(lengths, size);
+        }
+    }
+
+    // Sequential reads through a reusable buffer, keeping track of the absolute file position
+    private static final class ChunkReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).limit(0);
+        private long bufferStart;
+
+        ChunkReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            channel.position(0);
+        }
+
+        long position() {
+            return bufferStart + buffer.position();
+        }
+
+        int read() throws IOException {
+            if (!buffer.hasRemaining() && !fill()) return -1;
+            return buffer.get() & 0xFF;
+        }
+
+        int readInt() throws IOException {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                int b = read();
+                if (b < 0) throw new IOException("Corrupt snapshot: truncated record");
+                value = value << 8 | b;
+            }
+            return value;
+        }
+
+        void skip(long bytes) throws IOException {
+            long target = position() + bytes;
+            if (target <= bufferStart + buffer.limit()) {
+                buffer.position((int) (target - bufferStart));
+                return;
+            }
+            if (target > channel.size()) throw new IOException("Corrupt snapshot: truncated record");
+            bufferStart = target;
+            buffer.limit(0);
+            channel.position(target);
+        }
+
+        private boolean fill() throws IOException {
+            bufferStart += buffer.limit();
+            buffer.clear();
+            int read = channel.read(buffer);
+            buffer.flip();
+            return read > 0;
+        }
+    }
+}
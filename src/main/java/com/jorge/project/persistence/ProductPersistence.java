@@ -0,0 +1,196 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.metrics.ServiceMetrics;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Persistencia del catálogo según el modo configurado.
+ * Los servicios la avisan de cada cambio ya aplicado en memoria y ella decide cómo y cuándo escribirlo:
+ * reescribiendo el snapshot (SNAPSHOT), agregando al log (LOG) o marcando cambios pendientes para el
+ * escritor en segundo plano (ASYNC). Los errores de E/S se informan por consola sin interrumpir al servicio.
+ * Si las métricas de la configuración están activas, registra bytes y duración de cada escritura,
+ * la duración de la carga y los errores de E/S.
+ */
+public class ProductPersistence implements Closeable {
+    private final String path;
+    private final SnapshotFormat format;
+    private final boolean prettyPrint;
+    private final Iterable<Product> live;
+    private final Supplier<? extends Collection<Product>> snapshot;
+    private final ProductLog log;
+    private final AsyncSnapshotWriter async;
+    private final ServiceMetrics metrics;
+    private final Object saveLock = new Object();
+
+    /**
+     * @param config   configuración de persistencia
+     * @param live     vista del catálogo para las reescrituras síncronas del modo SNAPSHOT
+     * @param snapshot copia del catálogo que no cambiará mientras se escribe, para las escrituras en segundo
+     *                 plano; en modo ASYNC se invoca desde el hilo de escritura
+     */
+    public ProductPersistence(PersistenceConfig config, Iterable<Product> live,
+                              Supplier<? extends Collection<Product>> snapshot) {
+        this.path = config.path();
+        this.format = config.format();
+        this.prettyPrint = config.prettyPrint();
+        this.live = live;
+        this.snapshot = snapshot;
+        this.metrics = config.metrics();
+        this.log = config.mode() == PersistenceMode.LOG ? new ProductLog(config) : null;
+        this.async = config.mode() == PersistenceMode.ASYNC ? new AsyncSnapshotWriter(config, snapshot) : null;
+    }
+
+    /**
+     * Carga el snapshot y, en modo LOG, reaplica el log
+     *
+     * @param upsert recibe cada producto cargado o modificado
+     * @param delete recibe el id de cada producto eliminado
+     * @param size   cantidad de productos en memoria, para registrar la carga en las métricas
+     * @return false si un error de E/S cortó la carga
+     */
+    public boolean load(Consumer<Product> upsert, IntConsumer delete, IntSupplier size) {
+        if (!new File(path).exists()) {
+            System.err.println("File not found, starting with an empty product list.");
+        }
+        long start = System.nanoTime();
+        try {
+            format.read(path, upsert);
+            if (log != null) {
+                log.replay(upsert, delete);
+                log.open(live);
+            }
+            if (metrics.enabled()) metrics.recordLoad(size.getAsInt(), System.nanoTime() - start);
+            return true;
+        } catch (IOException e) {
+            metrics.recordIoFailure();
+            System.out.println("Error reading file: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public void upserted(Product product) {
+        long start = startTimer();
+        try {
+            if (log != null) {
+                written(start, log.appendUpsert(product));
+                log.compactIfNeeded(snapshot::get);
+            } else if (async != null) {
+                async.markDirty(1);
+            } else {
+                save(start);
+            }
+        } catch (IOException e) {
+            saveFailed(e);
+        }
+    }
+
+    public void deleted(int id) {
+        long start = startTimer();
+        try {
+            if (log != null) {
+                written(start, log.appendDelete(id));
+                log.compactIfNeeded(snapshot::get);
+            } else if (async != null) {
+                async.markDirty(1);
+            } else {
+                save(start);
+            }
+        } catch (IOException e) {
+            saveFailed(e);
+        }
+    }
+
+    public void applied(List<ProductMutation> mutations) {
+        if (mutations.isEmpty()) return;
+        long start = startTimer();
+        try {
+            if (log != null) {
+                written(start, log.appendBatch(mutations));
+                log.compactIfNeeded(snapshot::get);
+            } else if (async != null) {
+                async.markDirty(mutations.size());
+            } else {
+                save(start);
+            }
+        } catch (IOException e) {
+            saveFailed(e);
+        }
+    }
+
+    /**
+     * Fuerza los cambios ya aplicados al disco físico: en modo LOG hace fsync del log, en modo ASYNC escribe
+     * los cambios pendientes sin esperar al intervalo y en modo SNAPSHOT hace fsync del snapshot
+     */
+    public void flush() {
+        try {
+            if (log != null) {
+                log.sync();
+            } else if (async != null) {
+                async.flush();
+            } else {
+                sync();
+            }
+        } catch (IOException e) {
+            saveFailed(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (log != null) log.close();
+            if (async != null) async.close();
+        } catch (IOException e) {
+            metrics.recordIoFailure();
+            System.out.println("Error closing product persistence: " + e.getMessage());
+        }
+    }
+
+    // Every writer rereads the catalog under the lock, so whichever save runs last includes all earlier changes
+    private void save(long start) throws IOException {
+        synchronized (saveLock) {
+            format.writeAtomically(path, live, prettyPrint, true);
+        }
+        if (metrics.enabled()) written(start, Files.size(Path.of(path)));
+    }
+
+    // Every save already forces its file before the rename; this also covers a snapshot left by an earlier run
+    private void sync() throws IOException {
+        synchronized (saveLock) {
+            Path file = Path.of(path);
+            if (!Files.exists(file)) return;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+    }
+
+    // With metrics disabled nothing is timed, so the only cost left is the enabled() check
+    private long startTimer() {
+        return metrics.enabled() ? System.nanoTime() : 0;
+    }
+
+    private void written(long start, long bytes) {
+        if (metrics.enabled()) metrics.recordWrite(bytes, System.nanoTime() - start);
+    }
+
+    private void saveFailed(IOException e) {
+        metrics.recordIoFailure();
+        System.out.println("Error saving products : " + e.getMessage());
+    }
+}
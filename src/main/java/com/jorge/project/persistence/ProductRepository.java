@@ -0,0 +1,57 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.model.Product;
+
+import java.util.stream.Stream;
+
+/**
+ * Almacén de productos por ID, sin suponer que el catálogo entra en memoria.
+ * Las implementaciones deben ser seguras para varios hilos. Los errores de E/S se lanzan como
+ * {@link java.io.UncheckedIOException}: sin copia en memoria no hay forma de seguir sin ellos.
+ */
+public interface ProductRepository extends AutoCloseable {
+
+    /**
+     * @param id del producto
+     * @return Producto guardado o null si no existe
+     */
+    Product get(int id);
+
+    boolean contains(int id);
+
+    /**
+     * Guarda el producto, reemplazando el que tenga el mismo ID
+     *
+     * @param product producto con ID asignado
+     */
+    void put(Product product);
+
+    /**
+     * @param id del producto a eliminar
+     * @return true si existía
+     */
+    boolean remove(int id);
+
+    int size();
+
+    /**
+     * @return mayor ID guardado alguna vez, 0 si nunca se guardó nada; los IDs nuevos deben ser mayores
+     */
+    int maxId();
+
+    /**
+     * Recorre todos los productos en orden de ID. El recorrido es débilmente consistente:
+     * puede reflejar o no los cambios hechos mientras avanza, pero nunca devuelve un producto dos veces
+     *
+     * @return Stream de productos
+     */
+    Stream<Product> stream();
+
+    /**
+     * Fuerza que los cambios ya guardados queden en el disco físico
+     */
+    void flush();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,43 @@
+package com.jorge.project.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Convierte snapshots entre JSON y binario en streaming, sin cargar el catálogo completo.
+ * Uso: {@code java -cp target/classes com.jorge.project.persistence.SnapshotConverter origen destino}.
+ * El formato de cada archivo se deduce de su extensión (".bin" para binario).
+ */
+public final class SnapshotConverter {
+
+    private SnapshotConverter() {
+    }
+
+    /**
+     * @return cantidad de productos convertidos
+     */
+    public static int convert(String source, SnapshotFormat from, String target, SnapshotFormat to,
+                              boolean prettyPrint) throws IOException {
+        try (SnapshotWriter writer = to.writer(target, prettyPrint)) {
+            return from.read(source, product -> {
+                try {
+                    writer.write(product);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: SnapshotConverter <origen> <destino>");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        int count = convert(args[0], SnapshotFormat.forPath(args[0]), args[1], SnapshotFormat.forPath(args[1]), true);
+        System.out.printf("Converted %d products in %d ms%n", count, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,92 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.model.Product;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+public enum SnapshotFormat {
+
+    JSON("JSON legible"),
+    BINARY("Binario compacto con carga mapeada en memoria");
+
+    private final String message;
+
+    SnapshotFormat(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @param path ruta del snapshot
+     * @return BINARY si la ruta termina en ".bin", JSON en otro caso
+     */
+    public static SnapshotFormat forPath(String path) {
+        return path.endsWith(".bin") ? BINARY : JSON;
+    }
+
+    /**
+     * Lee los productos del snapshot y los entrega uno por uno
+     *
+     * @return cantidad de productos leídos
+     */
+    public int read(String path, Consumer<Product> consumer) throws IOException {
+        return switch (this) {
+            case JSON -> JsonProductFile.read(path, consumer);
+            case BINARY -> BinaryProductFile.read(path, consumer);
+        };
+    }
+
+    /**
+     * @param prettyPrint si se escribe con indentación; solo aplica a JSON
+     */
+    public SnapshotWriter writer(String path, boolean prettyPrint) throws IOException {
+        return switch (this) {
+            case JSON -> JsonProductFile.writer(path, prettyPrint);
+            case BINARY -> BinaryProductFile.writer(path);
+        };
+    }
+
+    /**
+     * Escribe todos los productos en el snapshot, reemplazando su contenido
+     */
+    public void write(String path, Iterable<Product> products, boolean prettyPrint) throws IOException {
+        try (SnapshotWriter writer = writer(path, prettyPrint)) {
+            for (Product product : products) {
+                writer.write(product);
+            }
+        }
+    }
+
+    /**
+     * Escribe el snapshot en un archivo temporal y lo renombra sobre el destino, así un corte a mitad de la
+     * escritura nunca deja el catálogo truncado
+     *
+     * @param fsync si se fuerza el archivo al disco físico antes de renombrarlo
+     */
+    public void writeAtomically(String path, Iterable<Product> products, boolean prettyPrint, boolean fsync)
+            throws IOException {
+        Path target = Path.of(path);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        write(tmp.toString(), products, prettyPrint);
+        if (fsync) {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
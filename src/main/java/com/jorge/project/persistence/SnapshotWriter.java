@@ -0,0 +1,14 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.model.Product;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Escritura secuencial de un snapshot, un producto a la vez. El archivo queda completo al cerrarlo.
+ */
+public interface SnapshotWriter extends Closeable {
+
+    void write(Product product) throws IOException;
+}
@@ -0,0 +1,81 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Validación de lotes compartida por las implementaciones del servicio
+ */
+final class Batches {
+
+    private Batches() {
+    }
+
+    /**
+     * Comprueba antes de asignar un ID que el producto de un alta no sea una versión ya guardada
+     *
+     * @throws ProductException si el producto ya está guardado
+     */
+    static void requireNew(Product product) {
+        if (product.isFrozen()) throw new ProductException("El producto ya está guardado; crea una copia");
+    }
+
+    static int countCreates(List<ProductMutation> mutations) {
+        int creates = 0;
+        for (ProductMutation mutation : mutations) {
+            if (mutation instanceof ProductMutation.Create) creates++;
+        }
+        return creates;
+    }
+
+    /**
+     * Comprueba el lote completo antes de aplicar nada: cada actualización o eliminación debe apuntar a un
+     * producto que exista en ese punto del lote, contando las altas y bajas anteriores del mismo lote, y cada alta
+     * debe traer un producto propio, que no esté guardado ni aparezca en otra alta del lote
+     *
+     * @param mutations cambios a validar
+     * @param exists    indica si un ID existe antes del lote
+     * @param firstId   ID que recibirá la primera alta del lote
+     * @throws ProductException con el primer cambio inválido
+     */
+    static void validate(List<ProductMutation> mutations, IntPredicate exists, int firstId) {
+        Map<Integer, Boolean> overlay = new HashMap<>();
+        Set<Product> created = Collections.newSetFromMap(new IdentityHashMap<>());
+        int id = firstId;
+        for (int i = 0; i < mutations.size(); i++) {
+            ProductMutation mutation = mutations.get(i);
+            if (mutation == null) {
+                throw new ProductException("Cambio #%d no puede ser nulo".formatted(i + 1));
+            }
+            switch (mutation) {
+                case ProductMutation.Create create -> {
+                    if (create.product().isFrozen() || !created.add(create.product())) {
+                        throw new ProductException("Cambio #%d: el producto ya está guardado; crea una copia".formatted(i + 1));
+                    }
+                    overlay.put(id++, true);
+                }
+                case ProductMutation.Update update -> requireExisting(update.id(), i, overlay, exists);
+                case ProductMutation.Delete delete -> {
+                    requireExisting(delete.id(), i, overlay, exists);
+                    overlay.put(delete.id(), false);
+                }
+            }
+        }
+    }
+
+    private static void requireExisting(int id, int index, Map<Integer, Boolean> overlay, IntPredicate exists) {
+        Boolean present = overlay.get(id);
+        if (present == null ? !exists.test(id) : !present) {
+            throw new ProductException("Cambio #%d: no existe un producto con ID %d".formatted(index + 1, id));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.exceptions.ValidationError;
+import com.jorge.project.index.IntProductIndex;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+/**
+ * Vista de solo lectura del catálogo en un instante, obtenida con {@link IProductService#snapshot()}.
+ * Todas las consultas hechas con la misma vista ven los mismos productos aunque otros hilos modifiquen el catálogo
+ * mientras tanto, y ninguna toma locks: los productos guardados son versiones inmutables ({@link Product#freeze()})
+ * y cada cambio guarda una versión nueva en lugar de modificar la anterior. Las versiones viejas no se liberan a mano:
+ * el recolector de basura las reclama cuando ya ninguna vista las referencia.
+ * Las búsquedas por precio, nombre o categoría recorren la vista y ordenan solo lo que coincide. Lo que conviene
+ * reutilizar (la búsqueda por ID, los listados ordenados completos y el resumen por categoría) se prepara la primera
+ * vez que una consulta lo necesita, así una vista que no lo usa no paga por ello.
+ */
+public final class CatalogSnapshot {
+    private static final ProductOrder[] ORDERS = ProductOrder.values();
+
+    private final List<Product> products;
+    private final AtomicReferenceArray<Product[]> sorted = new AtomicReferenceArray<>(ORDERS.length);
+    private volatile IntProductIndex byId;
+    private volatile Boolean idOrdered;
+    private volatile Map<Category, CategoryStats> stats;
+
+    /**
+     * @param products productos del instante, en el orden de {@link IProductService#findAll()}; nadie debe
+     *                 modificar la lista después
+     */
+    CatalogSnapshot(List<Product> products) {
+        this.products = Collections.unmodifiableList(products);
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    public List<Product> findAll() {
+        return products;
+    }
+
+    public List<Product> findAll(int offset, int limit) {
+        Paging.validate(offset, limit);
+        return page(products, offset, limit);
+    }
+
+    public Stream<Product> stream() {
+        return products.stream();
+    }
+
+    /**
+     * @param id del producto
+     * @return Producto tal como estaba al crear la vista, o null si no existía
+     */
+    public Product findById(int id) {
+        if (isIdOrdered()) {
+            int low = 0;
+            int high = products.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midId = products.get(mid).getId();
+                if (midId < id) low = mid + 1;
+                else if (midId > id) high = mid - 1;
+                else return products.get(mid);
+            }
+            return null;
+        }
+        IntProductIndex index = byId;
+        if (index == null) {
+            index = new IntProductIndex(products.size());
+            for (Product product : products) index.put(product);
+            byId = index;
+        }
+        return index.get(id);
+    }
+
+    public List<Product> findByName(String namePart) {
+        return findByName(namePart, Integer.MAX_VALUE);
+    }
+
+    public List<Product> findByName(String namePart, int limit) {
+        Paging.validate(0, limit);
+        if (namePart == null || namePart.isBlank()) return List.of(); // list empty
+        return query(ProductQuery.all().withName(namePart).withLimit(limit));
+    }
+
+    /**
+     * @return Productos dentro del rango, ordenados por precio
+     */
+    public List<Product> findByPriceInRange(double min, double max) {
+        return findByPriceInRange(min, max, 0, Integer.MAX_VALUE);
+    }
+
+    public List<Product> findByPriceInRange(double min, double max, int offset, int limit) {
+        Paging.validate(offset, limit);
+        // Same answer as PriceIndex whether or not the price order is built yet
+        if (Double.isNaN(min) || Double.isNaN(max)) return List.of();
+        Product[] byPrice = sorted.get(ProductOrder.PRICE.ordinal());
+        if (byPrice == null) {
+            return page(query(ProductQuery.all().withPriceBetween(min, max).orderBy(ProductOrder.PRICE)), offset, limit);
+        }
+        int from = firstPriceAbove(byPrice, min, false);
+        int to = Math.max(from, firstPriceAbove(byPrice, max, true));
+        return page(Arrays.asList(byPrice).subList(from, to), offset, limit);
+    }
+
+    public List<Product> findByCategory(Category category) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        return query(ProductQuery.all().withCategory(category));
+    }
+
+    public CategoryStats getCategoryStats(Category category) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        return getCategoryStats().get(category);
+    }
+
+    /**
+     * @return Resumen por categoría, en el orden de {@link Category}
+     */
+    public Map<Category, CategoryStats> getCategoryStats() {
+        Map<Category, CategoryStats> result = stats;
+        if (result == null) {
+            int[] counts = new int[Category.values().length];
+            long[] totalStock = new long[counts.length];
+            double[] inventoryValue = new double[counts.length];
+            for (Product product : products) {
+                int category = product.getCategory().ordinal();
+                counts[category]++;
+                totalStock[category] += product.getStock();
+                inventoryValue[category] += product.getPrice() * product.getStock();
+            }
+            result = new EnumMap<>(Category.class);
+            for (Category category : Category.values()) {
+                int i = category.ordinal();
+                result.put(category, new CategoryStats(category, counts[i], totalStock[i], inventoryValue[i]));
+            }
+            stats = result = Collections.unmodifiableMap(result);
+        }
+        return result;
+    }
+
+    /**
+     * Sin orden respeta el de {@link #findAll()}; con orden usa el listado ordenado si ya se preparó, y si no
+     * ordena solo los productos que coinciden
+     *
+     * @param query filtros, orden y límite
+     * @return Lista con a lo sumo query.limit() productos
+     */
+    public List<Product> query(ProductQuery query) {
+        List<Product> matches = new ArrayList<>();
+        if (query.limit() == 0) return matches;
+        ProductOrder order = query.order();
+        Product[] ordered = order == null ? null : sorted.get(order.ordinal());
+        boolean inOrder = order == null || ordered != null;
+        for (Product product : ordered == null ? products : Arrays.asList(ordered)) {
+            if (!query.matches(product)) continue;
+            matches.add(product);
+            if (inOrder && matches.size() == query.limit()) break;
+        }
+        if (inOrder) return matches;
+        matches.sort(order.comparator());
+        return matches.size() > query.limit() ? matches.subList(0, query.limit()) : matches;
+    }
+
+    public List<Product> findAllSorted(ProductOrder order, int offset, int limit) {
+        Paging.validate(offset, limit);
+        return page(Arrays.asList(sorted(order)), offset, limit);
+    }
+
+    /**
+     * @param after último producto ya visto, o null para empezar desde el principio; no hace falta que siga en la vista
+     */
+    public List<Product> findAllSorted(ProductOrder order, Product after, int limit) {
+        Paging.validate(0, limit);
+        Product[] ordered = sorted(order);
+        int from = 0;
+        if (after != null) {
+            Comparator<Product> comparator = order.comparator();
+            int high = ordered.length;
+            while (from < high) {
+                int mid = (from + high) >>> 1;
+                if (comparator.compare(ordered[mid], after) <= 0) from = mid + 1;
+                else high = mid;
+            }
+        }
+        return page(Arrays.asList(ordered), from, limit);
+    }
+
+    // Two threads may sort the same order at once; both results are equal, so either one can be kept
+    private Product[] sorted(ProductOrder order) {
+        Product[] result = sorted.get(order.ordinal());
+        if (result == null) {
+            result = products.toArray(new Product[0]);
+            Arrays.sort(result, order.comparator());
+            sorted.set(order.ordinal(), result);
+        }
+        return result;
+    }
+
+    // Services usually list by ascending id, which allows a binary search without building anything
+    private boolean isIdOrdered() {
+        Boolean result = idOrdered;
+        if (result == null) {
+            boolean ordered = products instanceof RandomAccess;
+            int previous = 0;
+            for (int i = 0; ordered && i < products.size(); i++) {
+                int id = products.get(i).getId();
+                ordered = id > previous;
+                previous = id;
+            }
+            idOrdered = result = ordered;
+        }
+        return result;
+    }
+
+    // First position whose price is above the bound, or at it when inclusive is false
+    private static int firstPriceAbove(Product[] byPrice, double bound, boolean inclusive) {
+        int low = 0;
+        int high = byPrice.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double price = byPrice[mid].getPrice();
+            if (price < bound || inclusive && price == bound) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static List<Product> page(List<Product> products, int offset, int limit) {
+        int from = Math.min(offset, products.size());
+        int to = (int) Math.min((long) from + limit, products.size());
+        return Collections.unmodifiableList(products.subList(from, to));
+    }
+}
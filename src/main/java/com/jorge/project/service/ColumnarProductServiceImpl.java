@@ -0,0 +1,184 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.exceptions.ValidationError;
+import com.jorge.project.index.ProductColumns;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.ProductPersistence;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementación compacta sobre {@link ProductColumns}: sin índices secundarios, las consultas recorren
+ * columnas primitivas y los productos se crean al devolverlos. Ocupa mucha menos memoria que
+ * {@link ProductServiceImpl} a cambio de consultas O(n); cada llamada devuelve instancias nuevas,
+ * así que modificarlas no altera el catálogo.
+ */
+public class ColumnarProductServiceImpl implements IProductService {
+    private final ProductColumns products = new ProductColumns();
+    private int nextId = 1;
+    private final ProductPersistence persistence;
+
+    public ColumnarProductServiceImpl() {
+        this(PersistenceConfig.defaults());
+    }
+
+    public ColumnarProductServiceImpl(PersistenceConfig config) {
+        this.persistence = new ProductPersistence(config, products, this::copy);
+        loadJson();
+    }
+
+    // Mutations are synchronized only against the background writers, which copy the columns from another thread
+    @Override
+    public synchronized void create(Product product) {
+        Batches.requireNew(product);
+        product.setId(nextId++);
+        products.put(product.freeze());
+        persistence.upserted(product);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return products.toList();
+    }
+
+    // Reads return fresh objects built from the columns, so the view only needs a copy of the columns taken under the lock
+    @Override
+    public CatalogSnapshot snapshot() {
+        return new CatalogSnapshot(new ArrayList<>(copy()));
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return products.stream();
+    }
+
+    @Override
+    public Product findById(int id) {
+        return products.get(id);
+    }
+
+    @Override
+    public synchronized boolean update(int id, Product product) {
+        if (!products.contains(id)) return false;
+        Product updated = new Product(product);
+        updated.setId(id);
+        products.put(updated);
+        persistence.upserted(updated);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean compareAndSet(int id, Product expected, Product replacement) {
+        Product current = products.get(id);
+        if (current == null || !current.sameData(expected)) return false;
+        Product updated = new Product(replacement);
+        updated.setId(id);
+        products.put(updated);
+        persistence.upserted(updated);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(int id) {
+        if (!products.remove(id)) return false;
+        persistence.deleted(id);
+        return true;
+    }
+
+    @Override
+    public List<Product> findByName(String namePart) {
+        return findByName(namePart, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Product> findByName(String namePart, int limit) {
+        Paging.validate(0, limit);
+        if (namePart == null || namePart.isBlank()) return List.of(); // list empty
+        return products.byName(namePart, limit);
+    }
+
+    @Override
+    public List<Product> findByPriceInRange(double min, double max) {
+        return products.priceRange(min, max);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        return products.byCategory(category);
+    }
+
+    @Override
+    public CategoryStats getCategoryStats(Category category) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        return products.stats(category);
+    }
+
+    @Override
+    public synchronized void apply(List<ProductMutation> mutations) {
+        Batches.validate(mutations, products::contains, nextId);
+        for (ProductMutation mutation : mutations) {
+            switch (mutation) {
+                case ProductMutation.Create create -> {
+                    create.product().setId(nextId++);
+                    products.put(create.product().freeze());
+                }
+                case ProductMutation.Update update -> {
+                    Product updated = new Product(update.product());
+                    updated.setId(update.id());
+                    products.put(updated);
+                }
+                case ProductMutation.Delete delete -> products.remove(delete.id());
+            }
+        }
+        persistence.applied(mutations);
+    }
+
+    @Override
+    public void flush() {
+        persistence.flush();
+    }
+
+    @Override
+    public void close() {
+        persistence.close();
+    }
+
+    // Only the primitive columns are copied under the lock; products are materialized later, while the copy is written
+    private Collection<Product> copy() {
+        ProductColumns copy;
+        synchronized (this) {
+            copy = products.copy();
+        }
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Product> iterator() {
+                return copy.iterator();
+            }
+
+            @Override
+            public int size() {
+                return copy.size();
+            }
+        };
+    }
+
+    private void loadJson() {
+        persistence.load(this::replayUpsert, products::remove, products::size);
+    }
+
+    private void replayUpsert(Product product) {
+        nextId = Math.max(nextId, product.getId() + 1);
+        products.put(product);
+    }
+}
@@ -0,0 +1,272 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.index.PriceIndex;
+import com.jorge.project.index.SortedIndex;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.ProductPersistence;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Implementación segura para varios hilos.
+ * Las lecturas no toman bloqueos: los productos publicados no se modifican, {@link #update} los reemplaza por una copia.
+ * Las escrituras se serializan por ID con bloqueos repartidos en franjas, así dos {@code update} sobre productos
+ * distintos no compiten entre sí. Los listados se devuelven ordenados por ID, que es el orden de alta.
+ */
+public class ConcurrentProductServiceImpl implements IProductService {
+    private static final int STRIPES = 64;
+
+    private final ConcurrentSkipListMap<Integer, Product> products = new ConcurrentSkipListMap<>();
+    private final PriceIndex priceIndex = PriceIndex.concurrent();
+    private final Map<ProductOrder, SortedIndex> sortedIndexes = new EnumMap<>(ProductOrder.class);
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final ProductPersistence persistence;
+
+    public ConcurrentProductServiceImpl() {
+        this(PersistenceConfig.defaults());
+    }
+
+    public ConcurrentProductServiceImpl(PersistenceConfig config) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        // ID order is the map itself
+        sortedIndexes.put(ProductOrder.NAME, SortedIndex.concurrent(ProductOrder.NAME));
+        sortedIndexes.put(ProductOrder.PRICE, priceIndex);
+        sortedIndexes.put(ProductOrder.STOCK, SortedIndex.concurrent(ProductOrder.STOCK));
+        // Published products are never mutated, so a shallow copy is already a stable snapshot
+        this.persistence = new ProductPersistence(config, products.values(), () -> new ArrayList<>(products.values()));
+        loadJson();
+    }
+
+    @Override
+    public void create(Product product) {
+        Batches.requireNew(product);
+        int id = nextId.getAndIncrement();
+        product.setId(id);
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            replace(product);
+            persistence.upserted(product);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return new ArrayList<>(products.values());
+    }
+
+    // Taking every stripe in ascending order, as batches do, waits for in-flight writes and holds off new ones for the copy
+    @Override
+    public CatalogSnapshot snapshot() {
+        for (ReentrantLock lock : locks) lock.lock();
+        try {
+            return new CatalogSnapshot(new ArrayList<>(products.values()));
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) locks[i].unlock();
+        }
+    }
+
+    // Weakly consistent: walks the live map without copying, concurrent changes may or may not be seen
+    @Override
+    public Stream<Product> stream() {
+        return products.values().stream();
+    }
+
+    @Override
+    public Product findById(int id) {
+        return products.get(id);
+    }
+
+    @Override
+    public boolean update(int id, Product product) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            if (!products.containsKey(id)) return false;
+            Product updated = new Product(product);
+            updated.setId(id);
+            replace(updated);
+            persistence.upserted(updated);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Product.equals only compares ids, so the map's own replace(key, old, new) cannot be used as a CAS
+    @Override
+    public boolean compareAndSet(int id, Product expected, Product replacement) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Product current = products.get(id);
+            if (current == null || !current.sameData(expected)) return false;
+            Product updated = new Product(replacement);
+            updated.setId(id);
+            replace(updated);
+            persistence.upserted(updated);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Product removed = products.remove(id);
+            if (removed == null) return false;
+            unindex(removed);
+            persistence.deleted(id);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Product> findByName(String namePart) {
+        if (namePart == null || namePart.isBlank()) return List.of(); // list empty
+        String needle = namePart.toLowerCase();
+        return products.values().stream().filter(product ->
+                product.getName().toLowerCase().contains(needle)).toList();
+    }
+
+    @Override
+    public List<Product> findByPriceInRange(double min, double max) {
+        return List.copyOf(priceIndex.range(min, max));
+    }
+
+    @Override
+    public List<Product> findByPriceInRange(double min, double max, int offset, int limit) {
+        Paging.validate(offset, limit);
+        return priceIndex.range(min, max, offset, limit);
+    }
+
+    @Override
+    public List<Product> findAllSorted(ProductOrder order, int offset, int limit) {
+        Paging.validate(offset, limit);
+        if (order == ProductOrder.ID) return SortedIndex.page(products.values().iterator(), offset, limit);
+        return sortedIndexes.get(order).page(offset, limit);
+    }
+
+    @Override
+    public List<Product> findAllSorted(ProductOrder order, Product after, int limit) {
+        Paging.validate(0, limit);
+        if (order == ProductOrder.ID) {
+            Map<Integer, Product> rest = after == null ? products : products.tailMap(after.getId(), false);
+            return SortedIndex.page(rest.values().iterator(), 0, limit);
+        }
+        return sortedIndexes.get(order).after(after, limit);
+    }
+
+    @Override
+    public void apply(List<ProductMutation> mutations) {
+        int creates = Batches.countCreates(mutations);
+        int firstId = nextId.getAndAdd(creates);
+        boolean[] stripes = stripesFor(mutations, firstId);
+        for (int i = 0; i < STRIPES; i++) {
+            if (stripes[i]) locks[i].lock();
+        }
+        try {
+            try {
+                Batches.validate(mutations, products::containsKey, firstId);
+            } catch (ProductException e) {
+                // Hands the ids back unless a later create already took the next ones
+                nextId.compareAndSet(firstId + creates, firstId);
+                throw e;
+            }
+            int id = firstId;
+            for (ProductMutation mutation : mutations) {
+                switch (mutation) {
+                    case ProductMutation.Create create -> {
+                        create.product().setId(id++);
+                        replace(create.product());
+                    }
+                    case ProductMutation.Update update -> {
+                        Product updated = new Product(update.product());
+                        updated.setId(update.id());
+                        replace(updated);
+                    }
+                    case ProductMutation.Delete delete -> unindex(products.remove(delete.id()));
+                }
+            }
+            persistence.applied(mutations);
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                if (stripes[i]) locks[i].unlock();
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        persistence.flush();
+    }
+
+    @Override
+    public void close() {
+        persistence.close();
+    }
+
+    // Caller holds the product's stripe
+    private void replace(Product product) {
+        Product previous = products.put(product.getId(), product.freeze());
+        for (SortedIndex sortedIndex : sortedIndexes.values()) {
+            sortedIndex.replace(previous, product);
+        }
+    }
+
+    // Caller holds the product's stripe
+    private void unindex(Product product) {
+        for (SortedIndex sortedIndex : sortedIndexes.values()) {
+            sortedIndex.remove(product);
+        }
+    }
+
+    private ReentrantLock lockFor(int id) {
+        return locks[id & (STRIPES - 1)];
+    }
+
+    // Stripes are always acquired in ascending order so concurrent batches cannot deadlock
+    private static boolean[] stripesFor(List<ProductMutation> mutations, int firstId) {
+        boolean[] stripes = new boolean[STRIPES];
+        int id = firstId;
+        for (ProductMutation mutation : mutations) {
+            switch (mutation) {
+                case ProductMutation.Create create -> stripes[id++ & (STRIPES - 1)] = true;
+                case ProductMutation.Update update -> stripes[update.id() & (STRIPES - 1)] = true;
+                case ProductMutation.Delete delete -> stripes[delete.id() & (STRIPES - 1)] = true;
+                case null -> {
+                }
+            }
+        }
+        return stripes;
+    }
+
+    private void loadJson() {
+        persistence.load(this::replace, id -> {
+            Product removed = products.remove(id);
+            if (removed != null) unindex(removed);
+        }, products::size);
+        nextId.set(products.isEmpty() ? 1 : products.lastKey() + 1);
+    }
+}
@@ -1,13 +1,27 @@
 package com.jorge.project.service;
 
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.exceptions.ValidationError;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
 import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
-public interface IProductService {
+public interface IProductService extends AutoCloseable {
     /**
      * Crea un nuevo producto
-     * El servicio se encarga de asignar el ID automáticamente
+     * El servicio se encarga de asignar el ID automáticamente; desde ese momento el producto es una versión
+     * guardada y no se puede modificar ({@link Product#freeze()})
      *
      * @param product: producto a registrar
      */
@@ -15,11 +29,44 @@ public interface IProductService {
 
     /**
      * Devuelve todos los productos
+     * La lista puede ser una vista inmutable compartida entre llamadas; para ordenarla o modificarla hay que copiarla
      *
      * @return Lista de productos
      */
     List<Product> findAll();
 
+    /**
+     * Devuelve una página de productos en el mismo orden que {@link #findAll()}
+     *
+     * @param offset cantidad de productos a saltar
+     * @param limit  cantidad máxima de productos a devolver
+     * @return Lista con a lo sumo limit productos
+     */
+    default List<Product> findAll(int offset, int limit) {
+        Paging.validate(offset, limit);
+        return stream().skip(offset).limit(limit).toList();
+    }
+
+    /**
+     * Recorre los productos en el mismo orden que {@link #findAll()} sin reunirlos en una lista
+     *
+     * @return Stream de productos
+     */
+    default Stream<Product> stream() {
+        return findAll().stream();
+    }
+
+
+    /**
+     * Devuelve una vista de solo lectura del catálogo en este instante: las consultas hechas con ella no ven los
+     * cambios posteriores, así un reporte que combina varias consultas trabaja sobre un único estado
+     * La implementación por defecto parte de {@link #findAll()}, que debe devolver los productos de un mismo instante
+     *
+     * @return Vista del catálogo
+     */
+    default CatalogSnapshot snapshot() {
+        return new CatalogSnapshot(findAll());
+    }
 
     /**
      * Busca un producto por su ID
@@ -47,6 +94,71 @@ public interface IProductService {
      */
     boolean delete(int id);
 
+    /**
+     * Reemplaza un producto solo si sus datos no cambiaron desde que se leyó (compare-and-set)
+     *
+     * @param id          identificador del producto a actualizar
+     * @param expected    datos leídos antes, p. ej. con {@link #findById(int)}
+     * @param replacement nuevos datos
+     * @return true si se actualizó; false si el producto no existe o sus datos ya no coinciden con expected
+     */
+    boolean compareAndSet(int id, Product expected, Product replacement);
+
+    /**
+     * Cambia el stock de un producto solo si sigue teniendo el valor esperado
+     *
+     * @param id            identificador del producto
+     * @param expectedStock stock que se leyó antes
+     * @param newStock      nuevo stock
+     * @return true si se cambió; false si el producto no existe o su stock ya no es expectedStock
+     * @throws com.jorge.project.exceptions.ProductException si newStock es negativo
+     */
+    default boolean compareAndSetStock(int id, int expectedStock, int newStock) {
+        while (true) {
+            Product current = findById(id);
+            if (current == null || current.getStock() != expectedStock) return false;
+            Product replacement = new Product(current);
+            replacement.setStock(newStock);
+            if (compareAndSet(id, current, replacement)) return true;
+        }
+    }
+
+    /**
+     * Suma delta al stock de un producto de forma atómica, sin pisar cambios concurrentes
+     *
+     * @param id    identificador del producto
+     * @param delta cantidad a sumar; negativa para descontar
+     * @return nuevo stock
+     * @throws com.jorge.project.exceptions.ProductException si el producto no existe o el stock quedaría negativo
+     */
+    default int adjustStock(int id, int delta) {
+        while (true) {
+            Product current = findExisting(id);
+            Product replacement = new Product(current);
+            replacement.setStock(addStock(current.getStock(), delta));
+            if (compareAndSet(id, current, replacement)) return replacement.getStock();
+        }
+    }
+
+    /**
+     * Descuenta quantity unidades del stock solo si hay suficientes, de forma atómica
+     *
+     * @param id       identificador del producto
+     * @param quantity unidades a reservar
+     * @return true si se reservaron; false si no había stock suficiente
+     * @throws com.jorge.project.exceptions.ProductException si el producto no existe o quantity no es positiva
+     */
+    default boolean reserve(int id, int quantity) {
+        if (quantity <= 0) throw new ProductException("Cantidad debe ser mayor que cero");
+        while (true) {
+            Product current = findExisting(id);
+            if (current.getStock() < quantity) return false;
+            Product replacement = new Product(current);
+            replacement.setStock(current.getStock() - quantity);
+            if (compareAndSet(id, current, replacement)) return true;
+        }
+    }
+
     /**
      * Busca productos cuyo nombre contenga la parte especificada
      *
@@ -55,15 +167,229 @@ public interface IProductService {
      */
     List<Product> findByName(String namePart);
 
+    /**
+     * Busca los primeros productos cuyo nombre contenga la parte especificada, pensado para autocompletado
+     *
+     * @param namePart texto parcial para buscar por nombre
+     * @param limit    cantidad máxima de productos a devolver
+     * @return Lista con a lo sumo limit productos, en el mismo orden que {@link #findByName(String)}
+     */
+    default List<Product> findByName(String namePart, int limit) {
+        Paging.validate(0, limit);
+        return findByName(namePart).stream().limit(limit).toList();
+    }
+
 
     /**
      * Busca productos dentro de un rango de precios
      *
      * @param min precio mínimo
      * @param max precio máximo
-     * @return Lista de productos dentro del rango de precios
+     * @return Lista de productos dentro del rango de precios, ordenados por precio
      */
     List<Product> findByPriceInRange(double min, double max);
 
+    /**
+     * Busca una página de productos dentro de un rango de precios, ordenados por precio
+     *
+     * @param min    precio mínimo
+     * @param max    precio máximo
+     * @param offset cantidad de productos a saltar
+     * @param limit  cantidad máxima de productos a devolver
+     * @return Lista con a lo sumo limit productos
+     */
+    default List<Product> findByPriceInRange(double min, double max, int offset, int limit) {
+        Paging.validate(offset, limit);
+        return findByPriceInRange(min, max).stream().skip(offset).limit(limit).toList();
+    }
+
+    /**
+     * Devuelve los productos de una categoría
+     *
+     * @param category categoría a buscar
+     * @return Lista de productos de la categoría
+     * @throws ProductException si category es nulo
+     */
+    default List<Product> findByCategory(Category category) {
+        requireCategory(category);
+        return stream().filter(product -> product.getCategory() == category).toList();
+    }
+
+    /**
+     * Busca productos de una categoría dentro de un rango de precios
+     *
+     * @param category categoría a buscar
+     * @param min      precio mínimo
+     * @param max      precio máximo
+     * @return Lista de productos de la categoría dentro del rango, ordenados por precio
+     * @throws ProductException si category es nulo
+     */
+    default List<Product> findByCategoryAndPriceInRange(Category category, double min, double max) {
+        requireCategory(category);
+        return findByPriceInRange(min, max).stream().filter(product -> product.getCategory() == category).toList();
+    }
+
+    /**
+     * Busca productos de una categoría cuyo nombre contenga la parte especificada
+     *
+     * @param category categoría a buscar
+     * @param namePart texto parcial para buscar por nombre
+     * @return Lista de productos que coinciden, en el mismo orden que {@link #findByName(String)}
+     * @throws ProductException si category es nulo
+     */
+    default List<Product> findByCategoryAndName(Category category, String namePart) {
+        requireCategory(category);
+        return findByName(namePart).stream().filter(product -> product.getCategory() == category).toList();
+    }
+
+    /**
+     * Devuelve el resumen de una categoría: cantidad de productos, stock total y valor del inventario (precio × stock)
+     *
+     * @param category categoría a resumir
+     * @return Resumen de la categoría
+     * @throws ProductException si category es nulo
+     */
+    default CategoryStats getCategoryStats(Category category) {
+        requireCategory(category);
+        List<Product> products = findByCategory(category);
+        long totalStock = 0;
+        double inventoryValue = 0;
+        for (Product product : products) {
+            totalStock += product.getStock();
+            inventoryValue += product.getPrice() * product.getStock();
+        }
+        return new CategoryStats(category, products.size(), totalStock, inventoryValue);
+    }
+
+    /**
+     * Devuelve el resumen de todas las categorías
+     *
+     * @return Resumen por categoría, en el orden de {@link Category}
+     */
+    default Map<Category, CategoryStats> getCategoryStats() {
+        Map<Category, CategoryStats> stats = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            stats.put(category, getCategoryStats(category));
+        }
+        return stats;
+    }
+
+    /**
+     * Busca los productos que cumplen todos los filtros de la consulta en una sola pasada
+     * Las implementaciones eligen el índice más selectivo disponible; sin orden en la consulta,
+     * el orden del resultado depende del camino elegido
+     *
+     * @param query filtros, orden y límite
+     * @return Lista con a lo sumo query.limit() productos
+     */
+    default List<Product> query(ProductQuery query) {
+        Stream<Product> matches = stream().filter(query::matches);
+        if (query.order() != null) matches = matches.sorted(query.order().comparator());
+        return matches.limit(query.limit()).toList();
+    }
+
+    /**
+     * Devuelve una página de productos en el orden indicado
+     *
+     * @param order  orden de los productos
+     * @param offset cantidad de productos a saltar
+     * @param limit  cantidad máxima de productos a devolver
+     * @return Lista con a lo sumo limit productos
+     */
+    default List<Product> findAllSorted(ProductOrder order, int offset, int limit) {
+        Paging.validate(offset, limit);
+        return stream().sorted(order.comparator()).skip(offset).limit(limit).toList();
+    }
+
+    /**
+     * Devuelve la página siguiente a un cursor en el orden indicado, p. ej. los 50 primeros por precio tras X
+     * El cursor es el último producto de la página anterior tal como se devolvió; sirve aunque después se modifique o elimine
+     *
+     * @param order orden de los productos
+     * @param after último producto ya visto, o null para empezar desde el principio
+     * @param limit cantidad máxima de productos a devolver
+     * @return Lista con a lo sumo limit productos posteriores al cursor
+     */
+    default List<Product> findAllSorted(ProductOrder order, Product after, int limit) {
+        Paging.validate(0, limit);
+        Comparator<Product> comparator = order.comparator();
+        return stream().filter(product -> after == null || comparator.compare(product, after) > 0)
+                .sorted(comparator).limit(limit).toList();
+    }
+
+    /**
+     * Aplica un lote de cambios como una sola operación
+     * El lote se valida completo antes de aplicar nada, los IDs de las altas se asignan en orden
+     * y los cambios se guardan una única vez
+     *
+     * @param mutations cambios a aplicar, en orden
+     * @throws com.jorge.project.exceptions.ProductException si algún cambio es inválido; en ese caso no se aplica ninguno
+     */
+    void apply(List<ProductMutation> mutations);
+
+    /**
+     * Registra varios productos en un solo lote
+     *
+     * @param products productos a registrar; cada uno recibe su ID
+     */
+    default void createAll(List<Product> products) {
+        List<ProductMutation> mutations = new ArrayList<>(products.size());
+        for (Product product : products) {
+            mutations.add(new ProductMutation.Create(product));
+        }
+        apply(mutations);
+    }
+
+    /**
+     * Actualiza varios productos en un solo lote
+     *
+     * @param products nuevos datos por ID del producto a actualizar
+     */
+    default void updateAll(Map<Integer, Product> products) {
+        List<ProductMutation> mutations = new ArrayList<>(products.size());
+        products.forEach((id, product) -> mutations.add(new ProductMutation.Update(id, product)));
+        apply(mutations);
+    }
+
+    /**
+     * Elimina varios productos en un solo lote
+     *
+     * @param ids identificadores de los productos a eliminar
+     */
+    default void deleteAll(Collection<Integer> ids) {
+        List<ProductMutation> mutations = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            mutations.add(new ProductMutation.Delete(id));
+        }
+        apply(mutations);
+    }
+
+    /**
+     * Fuerza que los cambios ya aplicados queden en disco, sin esperar al guardado en segundo plano
+     */
+    default void flush() {
+    }
+
+    /**
+     * Libera los recursos de persistencia y espera a que terminen las escrituras pendientes
+     */
+    @Override
+    default void close() {
+    }
+
+    private Product findExisting(int id) {
+        Product product = findById(id);
+        if (product == null) throw new ProductException("No existe un producto con ID %d".formatted(id));
+        return product;
+    }
+
+    private static int addStock(int stock, int delta) {
+        long result = (long) stock + delta;
+        if (result > Integer.MAX_VALUE) throw new ProductException("Stock fuera de rango");
+        return (int) result;
+    }
 
+    private static void requireCategory(Category category) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+    }
 }
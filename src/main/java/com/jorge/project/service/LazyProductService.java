@@ -0,0 +1,290 @@
+package com.jorge.project.service;
+
+import com.jorge.project.feed.ChangeFeed;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.ProductOffsets;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * {@link ProductServiceImpl} que arranca sin esperar a la carga: el constructor vuelve al instante y un hilo en
+ * segundo plano primero indexa las posiciones de los productos en el snapshot ({@link ProductOffsets}) y después
+ * carga el catálogo completo con sus índices.
+ * Mientras tanto las búsquedas por ID leen el producto directamente del archivo; el resto de las operaciones,
+ * incluidas las escrituras, esperan a que termine la carga. {@link #phase()}, {@link #progress()} y
+ * {@link #ready()} informan el avance.
+ */
+public class LazyProductService implements IProductService {
+    private final ChangeFeed changes;
+    private final CompletableFuture<Void> indexed = new CompletableFuture<>();
+    private final CompletableFuture<ProductServiceImpl> loaded = new CompletableFuture<>();
+    private final AtomicInteger loadedProducts = new AtomicInteger();
+    private volatile ProductOffsets offsets;
+    private volatile int expectedProducts;
+    private volatile StartupPhase phase = StartupPhase.INDEXING;
+
+    public LazyProductService(PersistenceConfig config) {
+        this(config, new ChangeFeed());
+    }
+
+    /**
+     * @param config  configuración de persistencia
+     * @param changes feed donde se publican los cambios; la carga inicial no se publica
+     */
+    public LazyProductService(PersistenceConfig config, ChangeFeed changes) {
+        this.changes = changes;
+        Thread.ofPlatform().name("catalog-warmup").daemon().start(() -> warmUp(config));
+    }
+
+    /**
+     * @return etapa actual del arranque
+     */
+    public StartupPhase phase() {
+        return phase;
+    }
+
+    /**
+     * @return fracción de la carga completada, de 0 a 1
+     */
+    public double progress() {
+        if (phase == StartupPhase.READY) return 1;
+        int expected = expectedProducts;
+        return expected == 0 ? 0 : Math.min(1, (double) loadedProducts.get() / expected);
+    }
+
+    /**
+     * @return true si el catálogo ya está cargado con todos sus índices
+     */
+    public boolean isReady() {
+        return phase == StartupPhase.READY;
+    }
+
+    /**
+     * @return se completa cuando el catálogo termina de cargarse, o con error si la carga falla
+     */
+    public CompletableFuture<Void> ready() {
+        return loaded.thenRun(() -> {
+        });
+    }
+
+    /**
+     * @return feed de cambios, disponible desde el arranque
+     */
+    public ChangeFeed changes() {
+        return changes;
+    }
+
+    @Override
+    public Product findById(int id) {
+        indexed.join();
+        ProductOffsets index = offsets;
+        if (index != null) {
+            try {
+                return index.find(id);
+            } catch (UncheckedIOException e) {
+                // The index is closed as soon as the catalog is loaded; anything else is a real error
+                if (!loaded.isDone()) throw e;
+            }
+        }
+        return service().findById(id);
+    }
+
+    @Override
+    public void create(Product product) {
+        service().create(product);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return service().findAll();
+    }
+
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        return service().findAll(offset, limit);
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return service().stream();
+    }
+
+    @Override
+    public CatalogSnapshot snapshot() {
+        return service().snapshot();
+    }
+
+    @Override
+    public boolean update(int id, Product product) {
+        return service().update(id, product);
+    }
+
+    @Override
+    public boolean delete(int id) {
+        return service().delete(id);
+    }
+
+    @Override
+    public boolean compareAndSet(int id, Product expected, Product replacement) {
+        return service().compareAndSet(id, expected, replacement);
+    }
+
+    @Override
+    public boolean compareAndSetStock(int id, int expectedStock, int newStock) {
+        return service().compareAndSetStock(id, expectedStock, newStock);
+    }
+
+    @Override
+    public int adjustStock(int id, int delta) {
+        return service().adjustStock(id, delta);
+    }
+
+    @Override
+    public boolean reserve(int id, int quantity) {
+        return service().reserve(id, quantity);
+    }
+
+    @Override
+    public List<Product> findByName(String namePart) {
+        return service().findByName(namePart);
+    }
+
+    @Override
+    public List<Product> findByName(String namePart, int limit) {
+        return service().findByName(namePart, limit);
+    }
+
+    @Override
+    public List<Product> findByPriceInRange(double min, double max) {
+        return service().findByPriceInRange(min, max);
+    }
+
+    @Override
+    public List<Product> findByPriceInRange(double min, double max, int offset, int limit) {
+        return service().findByPriceInRange(min, max, offset, limit);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        return service().findByCategory(category);
+    }
+
+    @Override
+    public List<Product> findByCategoryAndPriceInRange(Category category, double min, double max) {
+        return service().findByCategoryAndPriceInRange(category, min, max);
+    }
+
+    @Override
+    public List<Product> findByCategoryAndName(Category category, String namePart) {
+        return service().findByCategoryAndName(category, namePart);
+    }
+
+    @Override
+    public CategoryStats getCategoryStats(Category category) {
+        return service().getCategoryStats(category);
+    }
+
+    @Override
+    public Map<Category, CategoryStats> getCategoryStats() {
+        return service().getCategoryStats();
+    }
+
+    @Override
+    public List<Product> query(ProductQuery query) {
+        return service().query(query);
+    }
+
+    @Override
+    public List<Product> findAllSorted(ProductOrder order, int offset, int limit) {
+        return service().findAllSorted(order, offset, limit);
+    }
+
+    @Override
+    public List<Product> findAllSorted(ProductOrder order, Product after, int limit) {
+        return service().findAllSorted(order, after, limit);
+    }
+
+    @Override
+    public void apply(List<ProductMutation> mutations) {
+        service().apply(mutations);
+    }
+
+    @Override
+    public void flush() {
+        service().flush();
+    }
+
+    /**
+     * Espera a que termine la carga, si sigue en curso, y cierra el servicio
+     */
+    @Override
+    public void close() {
+        try {
+            service().close();
+        } finally {
+            closeOffsets();
+        }
+    }
+
+    private void warmUp(PersistenceConfig config) {
+        try {
+            ProductOffsets index = ProductOffsets.build(config);
+            expectedProducts = index.records();
+            offsets = index;
+        } catch (IOException | RuntimeException e) {
+            // Without the index, id lookups just wait for the full load
+            System.out.println("Error indexing file: " + e.getMessage());
+        }
+        indexed.complete(null);
+        phase = StartupPhase.LOADING;
+        try {
+            ProductServiceImpl service = new ProductServiceImpl(config, changes, loadedProducts::incrementAndGet);
+            // Lookups must leave the index before writes are let in, or they could miss a change
+            ProductOffsets index = offsets;
+            offsets = null;
+            phase = StartupPhase.READY;
+            loaded.complete(service);
+            close(index);
+        } catch (RuntimeException e) {
+            phase = StartupPhase.FAILED;
+            loaded.completeExceptionally(e);
+            closeOffsets();
+        }
+    }
+
+    private ProductServiceImpl service() {
+        try {
+            return loaded.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Catalog failed to load", e.getCause());
+        }
+    }
+
+    private void closeOffsets() {
+        ProductOffsets index = offsets;
+        offsets = null;
+        close(index);
+    }
+
+    private static void close(ProductOffsets index) {
+        if (index == null) return;
+        try {
+            index.close();
+        } catch (IOException e) {
+            System.out.println("Error closing product index: " + e.getMessage());
+        }
+    }
+}
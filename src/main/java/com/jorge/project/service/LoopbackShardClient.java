@@ -0,0 +1,198 @@
+package com.jorge.project.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Partición local que hace las veces de un proceso aparte: atiende las llamadas de una en una en su propio hilo,
+ * con su propio servicio y archivo, y cada petición y respuesta viaja codificada en JSON, así nunca comparte objetos
+ * con quien la llama. Reemplazarla por particiones en otros procesos es cuestión de implementar {@link ShardClient}
+ * sobre un transporte real, p. ej. la API HTTP.
+ */
+public class LoopbackShardClient implements ShardClient {
+    // Query bounds default to infinities, which plain JSON can't carry
+    private static final Gson GSON = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+    private static final Type PRODUCTS = new TypeToken<List<Product>>() {
+    }.getType();
+    private static final Type IDS = new TypeToken<List<Integer>>() {
+    }.getType();
+    private static final Type ID_SET = new TypeToken<Set<Integer>>() {
+    }.getType();
+    private static final Type STATS = new TypeToken<Map<Category, CategoryStats>>() {
+    }.getType();
+    private static final Type MUTATIONS = new TypeToken<List<WireMutation>>() {
+    }.getType();
+
+    private final IProductService service;
+    private final ExecutorService process;
+
+    /**
+     * @param service servicio de la partición; pasa a ser de este cliente, que lo cierra
+     * @param name    nombre del hilo de la partición
+     */
+    public LoopbackShardClient(IProductService service, String name) {
+        this.service = service;
+        this.process = Executors.newSingleThreadExecutor(Thread.ofPlatform().name(name).factory());
+    }
+
+    @Override
+    public CompletableFuture<Integer> create(Product product) {
+        String request = GSON.toJson(product);
+        return call(service -> {
+            Product created = decode(request);
+            service.create(created);
+            return created.getId();
+        }, Integer.class);
+    }
+
+    @Override
+    public CompletableFuture<Product> findById(int id) {
+        return call(service -> service.findById(id), Product.class);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> update(int id, Product product) {
+        String request = GSON.toJson(product);
+        return call(service -> service.update(id, decode(request)), Boolean.class);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> compareAndSet(int id, Product expected, Product replacement) {
+        String expectedRequest = GSON.toJson(expected);
+        String replacementRequest = GSON.toJson(replacement);
+        return call(service -> service.compareAndSet(id, decode(expectedRequest), decode(replacementRequest)),
+                Boolean.class);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> delete(int id) {
+        return call(service -> service.delete(id), Boolean.class);
+    }
+
+    @Override
+    public CompletableFuture<List<Integer>> apply(List<ProductMutation> mutations) {
+        List<WireMutation> wire = new ArrayList<>(mutations.size());
+        for (ProductMutation mutation : mutations) {
+            wire.add(switch (mutation) {
+                case ProductMutation.Create create -> new WireMutation("create", 0, create.product());
+                case ProductMutation.Update update -> new WireMutation("update", update.id(), update.product());
+                case ProductMutation.Delete delete -> new WireMutation("delete", delete.id(), null);
+            });
+        }
+        String request = GSON.toJson(wire, MUTATIONS);
+        return call(service -> {
+            List<WireMutation> received = GSON.fromJson(request, MUTATIONS);
+            List<ProductMutation> batch = new ArrayList<>(received.size());
+            List<Product> created = new ArrayList<>();
+            for (WireMutation mutation : received) {
+                batch.add(switch (mutation.type()) {
+                    case "create" -> {
+                        Product product = new Product(mutation.product());
+                        created.add(product);
+                        yield new ProductMutation.Create(product);
+                    }
+                    case "update" -> new ProductMutation.Update(mutation.id(), new Product(mutation.product()));
+                    default -> new ProductMutation.Delete(mutation.id());
+                });
+            }
+            service.apply(batch);
+            return created.stream().map(Product::getId).toList();
+        }, IDS);
+    }
+
+    @Override
+    public CompletableFuture<Set<Integer>> existing(Set<Integer> ids) {
+        String request = GSON.toJson(ids);
+        return call(service -> {
+            Set<Integer> found = new HashSet<>();
+            for (int id : GSON.<Set<Integer>>fromJson(request, ID_SET)) {
+                if (service.findById(id) != null) found.add(id);
+            }
+            return found;
+        }, ID_SET);
+    }
+
+    @Override
+    public CompletableFuture<List<Product>> findAll() {
+        return call(IProductService::findAll, PRODUCTS);
+    }
+
+    @Override
+    public CompletableFuture<List<Product>> findByName(String namePart, int limit) {
+        return call(service -> service.findByName(namePart, limit), PRODUCTS);
+    }
+
+    @Override
+    public CompletableFuture<List<Product>> findByPriceInRange(double min, double max, int limit) {
+        return call(service -> service.findByPriceInRange(min, max, 0, limit), PRODUCTS);
+    }
+
+    @Override
+    public CompletableFuture<List<Product>> query(ProductQuery query) {
+        String request = GSON.toJson(query);
+        return call(service -> service.query(GSON.fromJson(request, ProductQuery.class)), PRODUCTS);
+    }
+
+    @Override
+    public CompletableFuture<List<Product>> findAllSorted(ProductOrder order, Product after, int limit) {
+        String request = GSON.toJson(after);
+        return call(service -> {
+            Product cursor = GSON.fromJson(request, Product.class);
+            return service.findAllSorted(order, cursor == null ? null : new Product(cursor), limit);
+        }, PRODUCTS);
+    }
+
+    @Override
+    public CompletableFuture<Map<Category, CategoryStats>> getCategoryStats() {
+        return call(IProductService::getCategoryStats, STATS);
+    }
+
+    @Override
+    public CompletableFuture<Void> flush() {
+        return call(service -> {
+            service.flush();
+            return null;
+        }, Void.class);
+    }
+
+    @Override
+    public void close() {
+        try {
+            CompletableFuture.runAsync(service::close, process).join();
+        } finally {
+            process.shutdown();
+        }
+    }
+
+    // The reply is encoded on the shard's thread and decoded by whoever waits for it
+    private <T> CompletableFuture<T> call(Function<IProductService, Object> handler, Type replyType) {
+        return CompletableFuture.supplyAsync(() -> GSON.toJson(handler.apply(service)), process)
+                .thenApply(reply -> GSON.fromJson(reply, replyType));
+    }
+
+    // Gson skips the constructor, so the copy runs Product's validations
+    private static Product decode(String json) {
+        return new Product(GSON.fromJson(json, Product.class));
+    }
+
+    private record WireMutation(String type, int id, Product product) {
+    }
+}
@@ -0,0 +1,372 @@
+package com.jorge.project.service;
+
+import com.jorge.project.metrics.Operation;
+import com.jorge.project.metrics.ServiceMetrics;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Decorador que mide cada operación de otro servicio: duración y si terminó con una excepción.
+ * Delega todos los métodos, incluidos los que tienen implementación por defecto, para conservar los caminos
+ * optimizados del servicio decorado. Sin métricas basta con no decorar, así el coste es cero.
+ */
+public class MeteredProductService implements IProductService {
+    private final IProductService delegate;
+    private final ServiceMetrics metrics;
+
+    public MeteredProductService(IProductService delegate, ServiceMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void create(Product product) {
+        long start = System.nanoTime();
+        try {
+            delegate.create(product);
+            succeeded(Operation.CREATE, start);
+        } catch (RuntimeException e) {
+            failed(Operation.CREATE, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findAll() {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findAll();
+            succeeded(Operation.FIND_ALL, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_ALL, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findAll(offset, limit);
+            succeeded(Operation.FIND_ALL, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_ALL, start);
+            throw e;
+        }
+    }
+
+    // Queries made through the view are not measured: they run on the view itself, without the service
+    @Override
+    public CatalogSnapshot snapshot() {
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot snapshot = delegate.snapshot();
+            succeeded(Operation.SNAPSHOT, start);
+            return snapshot;
+        } catch (RuntimeException e) {
+            failed(Operation.SNAPSHOT, start);
+            throw e;
+        }
+    }
+
+    // The stream is lazy: the work happens in the caller's terminal operation, which can't be timed from here
+    @Override
+    public Stream<Product> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public Product findById(int id) {
+        long start = System.nanoTime();
+        try {
+            Product product = delegate.findById(id);
+            succeeded(Operation.FIND_BY_ID, start);
+            return product;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_BY_ID, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean update(int id, Product product) {
+        long start = System.nanoTime();
+        try {
+            boolean updated = delegate.update(id, product);
+            succeeded(Operation.UPDATE, start);
+            return updated;
+        } catch (RuntimeException e) {
+            failed(Operation.UPDATE, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        long start = System.nanoTime();
+        try {
+            boolean deleted = delegate.delete(id);
+            succeeded(Operation.DELETE, start);
+            return deleted;
+        } catch (RuntimeException e) {
+            failed(Operation.DELETE, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(int id, Product expected, Product replacement) {
+        long start = System.nanoTime();
+        try {
+            boolean updated = delegate.compareAndSet(id, expected, replacement);
+            succeeded(Operation.COMPARE_AND_SET, start);
+            return updated;
+        } catch (RuntimeException e) {
+            failed(Operation.COMPARE_AND_SET, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean compareAndSetStock(int id, int expectedStock, int newStock) {
+        long start = System.nanoTime();
+        try {
+            boolean updated = delegate.compareAndSetStock(id, expectedStock, newStock);
+            succeeded(Operation.COMPARE_AND_SET, start);
+            return updated;
+        } catch (RuntimeException e) {
+            failed(Operation.COMPARE_AND_SET, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int adjustStock(int id, int delta) {
+        long start = System.nanoTime();
+        try {
+            int stock = delegate.adjustStock(id, delta);
+            succeeded(Operation.ADJUST_STOCK, start);
+            return stock;
+        } catch (RuntimeException e) {
+            failed(Operation.ADJUST_STOCK, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean reserve(int id, int quantity) {
+        long start = System.nanoTime();
+        try {
+            boolean reserved = delegate.reserve(id, quantity);
+            succeeded(Operation.RESERVE, start);
+            return reserved;
+        } catch (RuntimeException e) {
+            failed(Operation.RESERVE, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findByName(String namePart) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findByName(namePart);
+            succeeded(Operation.FIND_BY_NAME, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_BY_NAME, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findByName(String namePart, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findByName(namePart, limit);
+            succeeded(Operation.FIND_BY_NAME, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_BY_NAME, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findByPriceInRange(double min, double max) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findByPriceInRange(min, max);
+            succeeded(Operation.FIND_BY_PRICE, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_BY_PRICE, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findByPriceInRange(double min, double max, int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findByPriceInRange(min, max, offset, limit);
+            succeeded(Operation.FIND_BY_PRICE, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_BY_PRICE, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findByCategory(category);
+            succeeded(Operation.FIND_BY_CATEGORY, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_BY_CATEGORY, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findByCategoryAndPriceInRange(Category category, double min, double max) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findByCategoryAndPriceInRange(category, min, max);
+            succeeded(Operation.FIND_BY_CATEGORY, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_BY_CATEGORY, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findByCategoryAndName(Category category, String namePart) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findByCategoryAndName(category, namePart);
+            succeeded(Operation.FIND_BY_CATEGORY, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_BY_CATEGORY, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public CategoryStats getCategoryStats(Category category) {
+        long start = System.nanoTime();
+        try {
+            CategoryStats stats = delegate.getCategoryStats(category);
+            succeeded(Operation.CATEGORY_STATS, start);
+            return stats;
+        } catch (RuntimeException e) {
+            failed(Operation.CATEGORY_STATS, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<Category, CategoryStats> getCategoryStats() {
+        long start = System.nanoTime();
+        try {
+            Map<Category, CategoryStats> stats = delegate.getCategoryStats();
+            succeeded(Operation.CATEGORY_STATS, start);
+            return stats;
+        } catch (RuntimeException e) {
+            failed(Operation.CATEGORY_STATS, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> query(ProductQuery query) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.query(query);
+            succeeded(Operation.QUERY, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.QUERY, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findAllSorted(ProductOrder order, int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findAllSorted(order, offset, limit);
+            succeeded(Operation.FIND_SORTED, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_SORTED, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Product> findAllSorted(ProductOrder order, Product after, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<Product> products = delegate.findAllSorted(order, after, limit);
+            succeeded(Operation.FIND_SORTED, start);
+            return products;
+        } catch (RuntimeException e) {
+            failed(Operation.FIND_SORTED, start);
+            throw e;
+        }
+    }
+
+    // createAll, updateAll and deleteAll keep their defaults, which end up here
+    @Override
+    public void apply(List<ProductMutation> mutations) {
+        long start = System.nanoTime();
+        try {
+            delegate.apply(mutations);
+            succeeded(Operation.APPLY, start);
+        } catch (RuntimeException e) {
+            failed(Operation.APPLY, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void flush() {
+        long start = System.nanoTime();
+        try {
+            delegate.flush();
+            succeeded(Operation.FLUSH, start);
+        } catch (RuntimeException e) {
+            failed(Operation.FLUSH, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private void succeeded(Operation operation, long start) {
+        metrics.recordOperation(operation, System.nanoTime() - start, false);
+    }
+
+    private void failed(Operation operation, long start) {
+        metrics.recordOperation(operation, System.nanoTime() - start, true);
+    }
+}
@@ -0,0 +1,21 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+
+/**
+ * Validación de los parámetros de las consultas paginadas
+ */
+final class Paging {
+
+    private Paging() {
+    }
+
+    static void validate(int offset, int limit) {
+        if (offset < 0) {
+            throw new ProductException("Offset no puede ser negativo");
+        }
+        if (limit < 0) {
+            throw new ProductException("Límite no puede ser negativo");
+        }
+    }
+}
@@ -1,108 +1,389 @@
 package com.jorge.project.service;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.exceptions.ValidationError;
+import com.jorge.project.feed.ChangeFeed;
+import com.jorge.project.index.CategoryIndex;
+import com.jorge.project.index.IntProductIndex;
+import com.jorge.project.index.NameIndex;
+import com.jorge.project.index.PriceIndex;
+import com.jorge.project.index.ProductSnapshot;
+import com.jorge.project.index.SortedIndex;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
 import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.ProductPersistence;
 
-import java.io.*;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public class ProductServiceImpl implements IProductService {
-    private List<Product> products;
+    // Below this size a sequential scan beats the fork-join split and merge overhead
+    static final int PARALLEL_THRESHOLD = 100_000;
+
+    private final IntProductIndex products = new IntProductIndex();
+    private final PriceIndex priceIndex = new PriceIndex();
+    private final NameIndex nameIndex = new NameIndex();
+    private final CategoryIndex categoryIndex = new CategoryIndex();
+    private final Map<ProductOrder, SortedIndex> sortedIndexes = new EnumMap<>(ProductOrder.class);
     private int nextId = 1;
-    private final String PATH = "src/products.json";
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final ProductPersistence persistence;
+    private final ChangeFeed changes;
+    private final Runnable loaded;
+    private int parallelThreshold = PARALLEL_THRESHOLD;
 
     public ProductServiceImpl() {
+        this(PersistenceConfig.defaults());
+    }
+
+    public ProductServiceImpl(PersistenceConfig config) {
+        this(config, new ChangeFeed());
+    }
+
+    /**
+     * @param config  configuración de persistencia
+     * @param changes feed donde se publican los cambios; la carga inicial no se publica
+     */
+    public ProductServiceImpl(PersistenceConfig config, ChangeFeed changes) {
+        this(config, changes, () -> {
+        });
+    }
+
+    /**
+     * @param loaded se invoca por cada producto cargado al arrancar, para informar el avance
+     */
+    ProductServiceImpl(PersistenceConfig config, ChangeFeed changes, Runnable loaded) {
+        this.changes = changes;
+        this.loaded = loaded;
+        for (ProductOrder order : ProductOrder.values()) {
+            sortedIndexes.put(order, order == ProductOrder.PRICE ? priceIndex : new SortedIndex(order));
+        }
+        this.persistence = new ProductPersistence(config, products, this::current);
         loadJson();
     }
 
+    // Mutations are synchronized only against the background writers, which copy the catalog from another thread
     @Override
-    public void create(Product product) {
+    public synchronized void create(Product product) {
+        Batches.requireNew(product);
         product.setId(nextId++);
-        products.add(product);
-        saveToJson();
+        products.put(product.freeze());
+        index(null, product);
+        changes.created(product);
+        persistence.upserted(product);
     }
 
     @Override
     public List<Product> findAll() {
-        return new ArrayList<>(products);
+        return current();
+    }
+
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        Paging.validate(offset, limit);
+        return current().page(offset, limit);
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return current().stream();
+    }
+
+    // The products view is copy-on-write, so taking it is O(1) and later changes never reach it
+    @Override
+    public CatalogSnapshot snapshot() {
+        return new CatalogSnapshot(current());
     }
 
     @Override
     public Product findById(int id) {
-        return products.stream().filter(product1 -> product1.getId() == id).findFirst().orElse(null);
+        return products.get(id);
     }
 
     @Override
-    public boolean update(int id, Product product) {
+    public synchronized boolean update(int id, Product product) {
         Product productExisting = findById(id);
         if (productExisting == null) return false;
-        productExisting.setName(product.getName());
-        productExisting.setPrice(product.getPrice());
-        productExisting.setCategory(product.getCategory());
-        productExisting.setStock(product.getStock());
+        Product updated = replaceData(productExisting, product);
+        changes.updated(productExisting, updated);
 
-        saveToJson();
+        persistence.upserted(updated);
 
         return true;
     }
 
     @Override
-    public boolean delete(int id) {
-        Product product = findById(id);
+    public synchronized boolean compareAndSet(int id, Product expected, Product replacement) {
+        Product current = products.get(id);
+        if (current == null || !current.sameData(expected)) return false;
+        Product updated = replaceData(current, replacement);
+        changes.updated(current, updated);
+        persistence.upserted(updated);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(int id) {
+        Product product = products.remove(id);
         if (product == null) return false;
-        if (products.remove(product)) {
-            saveToJson();
-            return true;
-        } else {
-            return false;
-        }
+        unindex(product);
+        changes.deleted(product);
+        persistence.deleted(id);
+        return true;
     }
 
     @Override
     public List<Product> findByName(String namePart) {
+        return findByName(namePart, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Product> findByName(String namePart, int limit) {
+        Paging.validate(0, limit);
         if (namePart == null || namePart.isBlank()) return List.of(); // list empty
-        return products.stream().filter(product ->
-                product.getName().toLowerCase().contains(namePart.toLowerCase())).toList();
+        return nameIndex.search(namePart, limit);
     }
 
     @Override
     public List<Product> findByPriceInRange(double min, double max) {
-        return products.stream().filter(product -> product.getPrice() >= min && product.getPrice() <= max).toList();
+        return List.copyOf(priceIndex.range(min, max));
     }
 
+    @Override
+    public List<Product> findByPriceInRange(double min, double max, int offset, int limit) {
+        Paging.validate(offset, limit);
+        return priceIndex.range(min, max, offset, limit);
+    }
 
-    private void saveToJson() {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(PATH))) {
-            gson.toJson(products, bw);
-        } catch (IOException e) {
-            System.out.println("Error saving products : " + e.getMessage());
+    @Override
+    public List<Product> findByCategory(Category category) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        return categoryIndex.products(category);
+    }
+
+    @Override
+    public List<Product> findByCategoryAndPriceInRange(Category category, double min, double max) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        List<Product> matches = new ArrayList<>();
+        // Walk whichever is smaller: the price range, or the category re-sorted by price
+        int inCategory = categoryIndex.stats(category).productCount();
+        if (priceIndex.countUpTo(min, max, inCategory) < inCategory) {
+            for (Product product : priceIndex.range(min, max)) {
+                if (product.getCategory() == category) matches.add(product);
+            }
+            return matches;
+        }
+        for (Product product : categoryIndex.products(category)) {
+            if (product.getPrice() >= min && product.getPrice() <= max) matches.add(product);
         }
+        matches.sort(ProductOrder.PRICE.comparator());
+        return matches;
     }
 
+    @Override
+    public List<Product> findByCategoryAndName(Category category, String namePart) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        if (namePart == null || namePart.isBlank()) return List.of();
+        return nameIndex.search(namePart, Integer.MAX_VALUE, product -> product.getCategory() == category);
+    }
 
-    private void loadJson() {
-        File file = new File(PATH);
-        if (!file.exists()) {
-            this.nextId = 1;
-            this.products = new ArrayList<>();
-            System.err.println("File not found, starting with an empty product list.");
-            return;
+    @Override
+    public CategoryStats getCategoryStats(Category category) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        return categoryIndex.stats(category);
+    }
+
+    @Override
+    public List<Product> query(ProductQuery query) {
+        if (query.limit() == 0) return List.of();
+        ProductOrder order = query.order();
+        return switch (plan(query)) {
+            case NAME_INDEX -> {
+                List<Product> matches = nameIndex.search(query.namePart(),
+                        order == null ? query.limit() : Integer.MAX_VALUE, query::matches);
+                yield order == null ? matches : matches.stream().sorted(order.comparator()).limit(query.limit()).toList();
+            }
+            case PRICE_INDEX -> collect(priceIndex.range(query.minPrice(), query.maxPrice()),
+                    order == null || order == ProductOrder.PRICE, query);
+            case CATEGORY -> collect(categoryIndex.products(query.category()), order == null, query);
+            case SORTED_INDEX -> collect(sortedIndexes.get(order).values(), true, query);
+            case SCAN -> collect(current(), order == null, query);
+            case PARALLEL_SCAN -> {
+                Stream<Product> matches = current().parallelStream().filter(query::matches);
+                if (order != null) matches = matches.sorted(order.comparator());
+                yield matches.limit(query.limit()).toList();
+            }
+        };
+    }
+
+    /**
+     * @param parallelThreshold tamaño del catálogo a partir del cual un recorrido completo se hace en paralelo
+     */
+    void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Elige el camino de acceso más barato: la fuente con menos candidatos entre la categoría, el índice
+     * de nombres y el de precios, o recorrer el orden pedido si se espera completar el límite antes
+     */
+    QueryPlan plan(ProductQuery query) {
+        int size = products.size();
+        QueryPlan plan = size >= parallelThreshold ? QueryPlan.PARALLEL_SCAN : QueryPlan.SCAN;
+        int cost = size;
+        if (query.category() != null) {
+            int candidates = categoryIndex.stats(query.category()).productCount();
+            if (candidates < cost) {
+                plan = QueryPlan.CATEGORY;
+                cost = candidates;
+            }
+        }
+        if (query.namePart() != null) {
+            int candidates = nameIndex.estimate(query.namePart());
+            if (candidates < cost) {
+                plan = QueryPlan.NAME_INDEX;
+                cost = candidates;
+            }
+        }
+        if (query.hasPriceRange()) {
+            int candidates = priceIndex.countUpTo(query.minPrice(), query.maxPrice(), cost);
+            if (candidates < cost) {
+                plan = QueryPlan.PRICE_INDEX;
+                cost = candidates;
+            }
+        }
+        boolean alreadyOrdered = plan == QueryPlan.PRICE_INDEX && query.order() == ProductOrder.PRICE;
+        if (query.order() != null && !alreadyOrdered && cost > 0) {
+            // With matches spread evenly, walking the order visits about limit × size / candidates products
+            long walk = (long) query.limit() * size / cost;
+            if (walk < cost) {
+                // A price walk must start at the lower bound, which is exactly what the price index path does
+                plan = query.order() == ProductOrder.PRICE && query.hasPriceRange() ? QueryPlan.PRICE_INDEX : QueryPlan.SORTED_INDEX;
+            }
         }
+        return plan;
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(PATH))) {
-            Product[] productsArray = gson.fromJson(br, Product[].class);
-            if (productsArray != null) {
-                this.products = new ArrayList<>(Arrays.asList(productsArray));
-                this.nextId = products.stream().mapToInt(Product::getId).max().orElse(0) + 1;
-            } else {
-                this.products = new ArrayList<>();
+    @Override
+    public List<Product> findAllSorted(ProductOrder order, int offset, int limit) {
+        Paging.validate(offset, limit);
+        return sortedIndexes.get(order).page(offset, limit);
+    }
+
+    @Override
+    public List<Product> findAllSorted(ProductOrder order, Product after, int limit) {
+        Paging.validate(0, limit);
+        return sortedIndexes.get(order).after(after, limit);
+    }
+
+    @Override
+    public synchronized void apply(List<ProductMutation> mutations) {
+        Batches.validate(mutations, products::contains, nextId);
+        for (ProductMutation mutation : mutations) {
+            switch (mutation) {
+                case ProductMutation.Create create -> {
+                    create.product().setId(nextId++);
+                    products.put(create.product().freeze());
+                    index(null, create.product());
+                    changes.created(create.product());
+                }
+                case ProductMutation.Update update -> {
+                    Product previous = products.get(update.id());
+                    changes.updated(previous, replaceData(previous, update.product()));
+                }
+                case ProductMutation.Delete delete -> {
+                    Product removed = products.remove(delete.id());
+                    unindex(removed);
+                    changes.deleted(removed);
+                }
             }
-        } catch (IOException e) {
-            System.out.println("Error reading file: " + e.getMessage());
         }
+        persistence.applied(mutations);
+    }
+
+    @Override
+    public void flush() {
+        persistence.flush();
+    }
+
+    @Override
+    public void close() {
+        persistence.close();
+        changes.close();
+    }
+
+    /**
+     * Feed con los cambios que se aplican al catálogo desde que se creó el servicio; permite suscribirse desde una
+     * secuencia ya vista para retomar sin recorrer el catálogo
+     *
+     * @return feed de cambios
+     */
+    public ChangeFeed changes() {
+        return changes;
+    }
+
+    // Stored products are never mutated: an update swaps in a new instance so snapshots already handed out stay intact
+    private Product replaceData(Product target, Product source) {
+        Product replacement = new Product(source);
+        replacement.setId(target.getId());
+        products.put(replacement.freeze());
+        index(target, replacement);
+        return replacement;
+    }
+
+    // Plain iteration: streams over tree sub-views would count the whole range up front just to size themselves
+    private static List<Product> collect(Iterable<Product> candidates, boolean inOrder, ProductQuery query) {
+        List<Product> matches = new ArrayList<>();
+        for (Product product : candidates) {
+            if (!query.matches(product)) continue;
+            matches.add(product);
+            if (inOrder && matches.size() == query.limit()) break;
+        }
+        if (inOrder) return matches;
+        matches.sort(query.order().comparator());
+        return matches.size() > query.limit() ? matches.subList(0, query.limit()) : matches;
+    }
+
+    private void index(Product previous, Product current) {
+        for (SortedIndex sortedIndex : sortedIndexes.values()) {
+            sortedIndex.replace(previous, current);
+        }
+        nameIndex.add(current);
+        categoryIndex.replace(previous, current);
+    }
+
+    private void unindex(Product product) {
+        for (SortedIndex sortedIndex : sortedIndexes.values()) {
+            sortedIndex.remove(product);
+        }
+        nameIndex.remove(product.getId());
+        categoryIndex.remove(product);
+    }
+
+    // Synchronized because background writers take snapshots from their own thread
+    private synchronized ProductSnapshot current() {
+        return products.snapshot();
+    }
+
+    private void loadJson() {
+        persistence.load(this::replayUpsert, this::replayDelete, products::size);
+    }
+
+    private void replayUpsert(Product product) {
+        nextId = Math.max(nextId, product.getId() + 1);
+        index(products.put(product.freeze()), product);
+        loaded.run();
+    }
+
+    private void replayDelete(int id) {
+        Product removed = products.remove(id);
+        if (removed != null) unindex(removed);
     }
 }
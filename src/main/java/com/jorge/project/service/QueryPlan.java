@@ -0,0 +1,29 @@
+package com.jorge.project.service;
+
+/**
+ * Camino de acceso elegido para resolver una {@link com.jorge.project.model.ProductQuery}
+ */
+enum QueryPlan {
+
+    NAME_INDEX("Índice de n-gramas del nombre"),
+    PRICE_INDEX("Índice de precios"),
+    CATEGORY("Partición de la categoría"),
+    SORTED_INDEX("Recorrido del orden pedido hasta completar el límite"),
+    SCAN("Recorrido completo"),
+    PARALLEL_SCAN("Recorrido completo en paralelo (fork-join)");
+
+    private final String message;
+
+    QueryPlan(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
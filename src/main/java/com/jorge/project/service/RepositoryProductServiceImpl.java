@@ -0,0 +1,226 @@
+package com.jorge.project.service;
+
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.persistence.CacheStats;
+import com.jorge.project.persistence.CachingProductRepository;
+import com.jorge.project.persistence.DiskProductStore;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.ProductPersistence;
+import com.jorge.project.persistence.ProductRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Implementación sobre un {@link ProductRepository}, para catálogos que no entran en memoria: con
+ * {@link CachingProductRepository} sobre {@link DiskProductStore} solo los productos más pedidos quedan en memoria
+ * y el resto se lee del disco por ID. No mantiene índices secundarios, así que las búsquedas recorren el almacén.
+ * Es segura para varios hilos: las lecturas van directo al repositorio y las escrituras se serializan.
+ */
+public class RepositoryProductServiceImpl implements IProductService {
+    private final ProductRepository repository;
+    // Writers do disk I/O while holding it; a ReentrantLock doesn't pin the carrier of a virtual thread as a monitor does
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private int nextId;
+
+    public RepositoryProductServiceImpl(ProductRepository repository) {
+        this.repository = repository;
+        this.nextId = repository.maxId() + 1;
+    }
+
+    /**
+     * Abre el almacén {@code config.path() + ".db"} con una caché de cacheSize productos. Si el almacén está vacío,
+     * importa el catálogo como lo cargan los otros modos (el snapshot de config.path() y, en modo LOG, su log), así
+     * se puede pasar de los otros modos a este sin perder datos
+     *
+     * @param config    configuración del catálogo a importar
+     * @param cacheSize productos que se mantienen en memoria
+     */
+    public RepositoryProductServiceImpl(PersistenceConfig config, int cacheSize) {
+        this(open(config, cacheSize));
+    }
+
+    @Override
+    public void create(Product product) {
+        writeLock.lock();
+        try {
+            Batches.requireNew(product);
+            product.setId(nextId++);
+            repository.put(product.freeze());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return repository.stream().toList();
+    }
+
+    // Holds off writers while the whole store is read, which costs a full scan
+    @Override
+    public CatalogSnapshot snapshot() {
+        writeLock.lock();
+        try {
+            return new CatalogSnapshot(findAll());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return repository.stream();
+    }
+
+    @Override
+    public Product findById(int id) {
+        return repository.get(id);
+    }
+
+    @Override
+    public boolean update(int id, Product product) {
+        writeLock.lock();
+        try {
+            if (!repository.contains(id)) return false;
+            Product updated = new Product(product);
+            updated.setId(id);
+            repository.put(updated.freeze());
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(int id, Product expected, Product replacement) {
+        writeLock.lock();
+        try {
+            Product current = repository.get(id);
+            if (current == null || !current.sameData(expected)) return false;
+            Product updated = new Product(replacement);
+            updated.setId(id);
+            repository.put(updated.freeze());
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        writeLock.lock();
+        try {
+            return repository.remove(id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Product> findByName(String namePart) {
+        return findByName(namePart, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Product> findByName(String namePart, int limit) {
+        Paging.validate(0, limit);
+        if (namePart == null || namePart.isBlank()) return List.of(); // list empty
+        String lowerPart = namePart.toLowerCase();
+        return repository.stream()
+                .filter(product -> product.getName().toLowerCase().contains(lowerPart))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Product> findByPriceInRange(double min, double max) {
+        return repository.stream()
+                .filter(product -> product.getPrice() >= min && product.getPrice() <= max)
+                .sorted(ProductOrder.PRICE.comparator())
+                .toList();
+    }
+
+    // Updates and deletes of a validated batch can't fail, so the batch is all-or-nothing except for I/O errors
+    @Override
+    public void apply(List<ProductMutation> mutations) {
+        writeLock.lock();
+        try {
+            Batches.validate(mutations, repository::contains, nextId);
+            for (ProductMutation mutation : mutations) {
+                switch (mutation) {
+                    case ProductMutation.Create create -> {
+                        create.product().setId(nextId++);
+                        repository.put(create.product().freeze());
+                    }
+                    case ProductMutation.Update update -> {
+                        Product updated = new Product(update.product());
+                        updated.setId(update.id());
+                        repository.put(updated.freeze());
+                    }
+                    case ProductMutation.Delete delete -> repository.remove(delete.id());
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        repository.flush();
+    }
+
+    @Override
+    public void close() {
+        repository.close();
+    }
+
+    /**
+     * @return estadísticas de la caché, o null si el repositorio no tiene caché
+     */
+    public CacheStats cacheStats() {
+        return repository instanceof CachingProductRepository cache ? cache.stats() : null;
+    }
+
+    private static ProductRepository open(PersistenceConfig config, int cacheSize) {
+        String path = config.path() + ".db";
+        DiskProductStore store = new DiskProductStore(path);
+        if (store.maxId() == 0) {
+            store.close();
+            migrate(config, Path.of(path));
+            store = new DiskProductStore(path);
+        }
+        return new CachingProductRepository(store, cacheSize);
+    }
+
+    /*
+     * Loads the snapshot and, in LOG mode, replays the log exactly as the other services do, into a temporary store
+     * that replaces the real one only if the whole load succeeds; a failed import is retried on the next start
+     */
+    private static void migrate(PersistenceConfig config, Path target) {
+        Path tmp = target.resolveSibling(target.getFileName() + ".import");
+        try {
+            Files.deleteIfExists(tmp);
+            boolean loaded;
+            try (DiskProductStore store = new DiskProductStore(tmp.toString());
+                 ProductPersistence persistence = new ProductPersistence(config, () -> store.stream().iterator(),
+                         () -> store.stream().toList())) {
+                loaded = persistence.load(store::put, store::remove, store::size);
+                store.flush();
+            }
+            if (!loaded) throw new IOException("the snapshot or its log could not be read");
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error importing snapshot " + config.path(), e);
+        }
+    }
+}
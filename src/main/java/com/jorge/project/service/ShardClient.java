@@ -0,0 +1,73 @@
+package com.jorge.project.service;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Conexión con una partición del catálogo usada por {@link ShardedProductService}. Cada partición numera sus
+ * productos con sus propios IDs locales (1, 2, 3...); traducirlos a IDs globales es tarea de quien la usa.
+ * Todas las llamadas son asíncronas para poder consultar varias particiones a la vez. Los productos que se envían
+ * se copian al llamar y los que se reciben son copias propias de quien llama, como si viajaran por la red.
+ */
+public interface ShardClient extends AutoCloseable {
+
+    /**
+     * @return ID local asignado al producto
+     */
+    CompletableFuture<Integer> create(Product product);
+
+    CompletableFuture<Product> findById(int id);
+
+    CompletableFuture<Boolean> update(int id, Product product);
+
+    CompletableFuture<Boolean> compareAndSet(int id, Product expected, Product replacement);
+
+    CompletableFuture<Boolean> delete(int id);
+
+    /**
+     * @param mutations lote con IDs locales
+     * @return IDs locales asignados a las altas, en el orden del lote
+     */
+    CompletableFuture<List<Integer>> apply(List<ProductMutation> mutations);
+
+    /**
+     * @param ids IDs locales a comprobar
+     * @return los que existen
+     */
+    CompletableFuture<Set<Integer>> existing(Set<Integer> ids);
+
+    CompletableFuture<List<Product>> findAll();
+
+    CompletableFuture<List<Product>> findByName(String namePart, int limit);
+
+    /**
+     * @return a lo sumo limit productos dentro del rango, ordenados por precio
+     */
+    CompletableFuture<List<Product>> findByPriceInRange(double min, double max, int limit);
+
+    CompletableFuture<List<Product>> query(ProductQuery query);
+
+    /**
+     * @param after cursor con ID local, o null para empezar desde el principio
+     */
+    CompletableFuture<List<Product>> findAllSorted(ProductOrder order, Product after, int limit);
+
+    CompletableFuture<Map<Category, CategoryStats>> getCategoryStats();
+
+    CompletableFuture<Void> flush();
+
+    /**
+     * Cierra la partición y espera a que terminen sus escrituras pendientes
+     */
+    @Override
+    void close();
+}
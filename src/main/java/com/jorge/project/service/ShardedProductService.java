@@ -0,0 +1,533 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.exceptions.ValidationError;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+import com.jorge.project.persistence.PersistenceConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Catálogo repartido entre N particiones ({@link ShardClient}), cada una con su propio almacenamiento y archivo.
+ * Cada partición numera sus productos por su cuenta y el ID global se deduce del local sin coordinación:
+ * con N particiones, el producto local l de la partición s (desde 0) tiene el ID global (l - 1) × N + s + 1, así
+ * los IDs nunca se repiten y la partición de un ID es (id - 1) mod N. Las altas se reparten en turnos entre las
+ * particiones.
+ * <p>
+ * Las búsquedas por ID van directo a su partición. El resto de las consultas se envían a todas a la vez y se
+ * combinan las respuestas, que ya llegan ordenadas. Las consultas no toman locks, así pueden ver un lote que
+ * abarca varias particiones aplicado en unas y no en otras; {@link #snapshot()} sí espera a que terminen las
+ * escrituras y devuelve un único estado.
+ * <p>
+ * Los lotes se validan completos antes de aplicar nada, pero cada partición aplica su parte por separado: si una
+ * falla al guardar, las demás conservan sus cambios. Un cambio del lote tampoco puede referirse al ID de un alta
+ * del mismo lote, que no se conoce hasta aplicarlo.
+ */
+public class ShardedProductService implements IProductService {
+    private final List<ShardClient> shards;
+    private final int count;
+    private final ReentrantLock[] locks;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    /**
+     * @param shards particiones, siempre en el mismo orden: la posición de cada una forma parte de los IDs
+     */
+    public ShardedProductService(List<ShardClient> shards) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("shards no puede estar vacío");
+        }
+        this.shards = List.copyOf(shards);
+        this.count = shards.size();
+        this.locks = new ReentrantLock[count];
+        for (int s = 0; s < count; s++) {
+            locks[s] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Abre N particiones locales con {@link LoopbackShardClient}; la partición s guarda en la ruta de config con
+     * ".shard-s" antes de la extensión, p. ej. products.shard-0.json. Un archivo de un catálogo sin particiones no
+     * se reparte: hay que importarlo. La cantidad de particiones queda guardada en la ruta de config con ".shards"
+     * al final.
+     *
+     * @param config configuración base de las particiones
+     * @param shards cantidad de particiones; para reabrir un catálogo debe ser la misma con la que se creó, si no
+     *               lanza {@link IllegalArgumentException}
+     * @return servicio sobre las particiones
+     */
+    public static ShardedProductService open(PersistenceConfig config, int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards debe ser mayor que cero");
+        }
+        checkManifest(config.path(), shards);
+        List<ShardClient> clients = new ArrayList<>(shards);
+        try {
+            for (int s = 0; s < shards; s++) {
+                ProductServiceImpl service = new ProductServiceImpl(config.withPath(shardPath(config.path(), s)));
+                clients.add(new LoopbackShardClient(service, "shard-" + s));
+            }
+        } catch (RuntimeException e) {
+            clients.forEach(ShardClient::close);
+            throw e;
+        }
+        return new ShardedProductService(clients);
+    }
+
+    /*
+     * The shard count is part of every id, so reopening with another count would misroute all of them. The first
+     * open records it next to the shard files; catalogs without that record are checked against the files present
+     */
+    private static void checkManifest(String path, int shards) {
+        Path manifest = Path.of(manifestPath(path));
+        try {
+            int stored;
+            if (Files.exists(manifest)) {
+                try {
+                    stored = Integer.parseInt(Files.readString(manifest).strip());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Corrupt shard manifest " + manifest, e);
+                }
+            } else {
+                stored = highestShardFound(path) + 1;
+                if (stored <= shards) {
+                    Path tmp = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+                    Files.writeString(tmp, shards + System.lineSeparator());
+                    Files.move(tmp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    return;
+                }
+            }
+            if (stored != shards) {
+                throw new IllegalArgumentException("El catálogo %s tiene %d particiones, no %d"
+                        .formatted(path, stored, shards));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading shard manifest " + manifest, e);
+        }
+    }
+
+    static String manifestPath(String path) {
+        return path + ".shards";
+    }
+
+    // -1 when there are no shard files yet
+    private static int highestShardFound(String path) throws IOException {
+        Path dir = Path.of(path).toAbsolutePath().getParent();
+        String probe = Path.of(shardPath(path, 0)).getFileName().toString();
+        int marker = probe.lastIndexOf(".shard-0") + ".shard-".length();
+        Pattern shardFile = Pattern.compile(Pattern.quote(probe.substring(0, marker)) + "(\\d+)"
+                + Pattern.quote(probe.substring(marker + 1)) + "(\\..*)?");
+        int highest = -1;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = shardFile.matcher(file.getFileName().toString());
+                if (matcher.matches()) highest = Math.max(highest, Integer.parseInt(matcher.group(1)));
+            }
+        }
+        return highest;
+    }
+
+    static String shardPath(String path, int shard) {
+        int dot = path.lastIndexOf('.');
+        int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf(File.separatorChar));
+        if (dot <= slash + 1) return path + ".shard-" + shard;
+        return path.substring(0, dot) + ".shard-" + shard + path.substring(dot);
+    }
+
+    @Override
+    public void create(Product product) {
+        // Checked up front: the shard would store it before the global id can be set
+        Batches.requireNew(product);
+        int shard = Math.floorMod(nextShard.getAndIncrement(), count);
+        int localId = write(shard, client -> client.create(product));
+        product.setId(globalId(shard, localId));
+        product.freeze();
+    }
+
+    @Override
+    public Product findById(int id) {
+        if (id <= 0) return null;
+        int shard = shardOf(id);
+        Product product = join(shards.get(shard).findById(localId(id)));
+        return product == null ? null : global(shard, product);
+    }
+
+    @Override
+    public boolean update(int id, Product product) {
+        if (id <= 0) return false;
+        return write(shardOf(id), client -> client.update(localId(id), product));
+    }
+
+    @Override
+    public boolean compareAndSet(int id, Product expected, Product replacement) {
+        if (id <= 0) return false;
+        return write(shardOf(id), client -> client.compareAndSet(localId(id), expected, replacement));
+    }
+
+    @Override
+    public boolean delete(int id) {
+        if (id <= 0) return false;
+        return write(shardOf(id), client -> client.delete(localId(id)));
+    }
+
+    @Override
+    public void apply(List<ProductMutation> mutations) {
+        // Creates get their shard before locking, so the batch knows every shard it touches
+        int[] targets = new int[mutations.size()];
+        List<Set<Integer>> lookups = new ArrayList<>(count);
+        for (int s = 0; s < count; s++) {
+            lookups.add(new HashSet<>());
+        }
+        int creates = Batches.countCreates(mutations);
+        int firstTurn = nextShard.getAndAdd(creates);
+        int turn = firstTurn;
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = switch (mutations.get(i)) {
+                case ProductMutation.Create ignored -> Math.floorMod(turn++, count);
+                case ProductMutation.Update update -> lookup(update.id(), lookups);
+                case ProductMutation.Delete delete -> lookup(delete.id(), lookups);
+                case null -> -1;
+            };
+        }
+        boolean[] involved = new boolean[count];
+        for (int target : targets) {
+            if (target >= 0) involved[target] = true;
+        }
+        lockAll(involved);
+        try {
+            List<CompletableFuture<Set<Integer>>> found = new ArrayList<>(count);
+            for (int s = 0; s < count; s++) {
+                found.add(lookups.get(s).isEmpty()
+                        ? CompletableFuture.completedFuture(Set.of())
+                        : shards.get(s).existing(lookups.get(s)));
+            }
+            Set<Integer> existing = new HashSet<>();
+            List<Set<Integer>> replies = joinAll(found);
+            for (int s = 0; s < count; s++) {
+                for (int localId : replies.get(s)) existing.add(globalId(s, localId));
+            }
+            // Ids of the creates aren't known until each shard applies its part, so they can't match any id in the batch
+            try {
+                Batches.validate(mutations, existing::contains, Integer.MIN_VALUE);
+            } catch (ProductException e) {
+                // Gives the turns back unless a later create already took the next ones, so ids stay dense
+                nextShard.compareAndSet(firstTurn + creates, firstTurn);
+                throw e;
+            }
+
+            List<List<ProductMutation>> batches = new ArrayList<>(count);
+            List<List<Product>> created = new ArrayList<>(count);
+            for (int s = 0; s < count; s++) {
+                batches.add(new ArrayList<>());
+                created.add(new ArrayList<>());
+            }
+            for (int i = 0; i < targets.length; i++) {
+                List<ProductMutation> batch = batches.get(targets[i]);
+                switch (mutations.get(i)) {
+                    case ProductMutation.Create create -> {
+                        batch.add(create);
+                        created.get(targets[i]).add(create.product());
+                    }
+                    case ProductMutation.Update update ->
+                            batch.add(new ProductMutation.Update(localId(update.id()), update.product()));
+                    case ProductMutation.Delete delete -> batch.add(new ProductMutation.Delete(localId(delete.id())));
+                }
+            }
+            List<CompletableFuture<List<Integer>>> applied = new ArrayList<>(count);
+            for (int s = 0; s < count; s++) {
+                applied.add(batches.get(s).isEmpty()
+                        ? CompletableFuture.completedFuture(List.of())
+                        : shards.get(s).apply(batches.get(s)));
+            }
+            List<List<Integer>> ids = joinAll(applied);
+            for (int s = 0; s < count; s++) {
+                for (int k = 0; k < ids.get(s).size(); k++) {
+                    Product product = created.get(s).get(k);
+                    product.setId(globalId(s, ids.get(s).get(k)));
+                    product.freeze();
+                }
+            }
+        } finally {
+            unlockAll(involved);
+        }
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return gather(ShardClient::findAll, ProductOrder.ID.comparator(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Product> findAll(int offset, int limit) {
+        return findAllSorted(ProductOrder.ID, offset, limit);
+    }
+
+    // Blocks writers on every shard while gathering, so a batch is either fully in or fully out
+    @Override
+    public CatalogSnapshot snapshot() {
+        boolean[] all = new boolean[count];
+        Arrays.fill(all, true);
+        lockAll(all);
+        try {
+            return new CatalogSnapshot(findAll());
+        } finally {
+            unlockAll(all);
+        }
+    }
+
+    @Override
+    public List<Product> findByName(String namePart) {
+        return findByName(namePart, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Product> findByName(String namePart, int limit) {
+        Paging.validate(0, limit);
+        if (namePart == null || namePart.isBlank()) return List.of(); // list empty
+        return gather(client -> client.findByName(namePart, limit), ProductOrder.ID.comparator(), limit);
+    }
+
+    @Override
+    public List<Product> findByPriceInRange(double min, double max) {
+        return findByPriceInRange(min, max, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Product> findByPriceInRange(double min, double max, int offset, int limit) {
+        Paging.validate(offset, limit);
+        int needed = needed(offset, limit);
+        List<Product> merged = gather(client -> client.findByPriceInRange(min, max, needed),
+                ProductOrder.PRICE.comparator(), needed);
+        return page(merged, offset, limit);
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        return query(ProductQuery.all().withCategory(category).orderBy(ProductOrder.ID));
+    }
+
+    @Override
+    public List<Product> findByCategoryAndPriceInRange(Category category, double min, double max) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        return query(ProductQuery.all().withCategory(category).withPriceBetween(min, max).orderBy(ProductOrder.PRICE));
+    }
+
+    @Override
+    public List<Product> findByCategoryAndName(Category category, String namePart) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        if (namePart == null || namePart.isBlank()) return List.of();
+        return query(ProductQuery.all().withCategory(category).withName(namePart).orderBy(ProductOrder.ID));
+    }
+
+    @Override
+    public CategoryStats getCategoryStats(Category category) {
+        if (category == null) throw new ProductException(ValidationError.CATEGORY_NULL);
+        return getCategoryStats().get(category);
+    }
+
+    @Override
+    public Map<Category, CategoryStats> getCategoryStats() {
+        List<CompletableFuture<Map<Category, CategoryStats>>> futures = new ArrayList<>(count);
+        for (ShardClient shard : shards) {
+            futures.add(shard.getCategoryStats());
+        }
+        int[] counts = new int[Category.values().length];
+        long[] totalStock = new long[counts.length];
+        double[] inventoryValue = new double[counts.length];
+        for (Map<Category, CategoryStats> stats : joinAll(futures)) {
+            for (CategoryStats categoryStats : stats.values()) {
+                int i = categoryStats.category().ordinal();
+                counts[i] += categoryStats.productCount();
+                totalStock[i] += categoryStats.totalStock();
+                inventoryValue[i] += categoryStats.inventoryValue();
+            }
+        }
+        Map<Category, CategoryStats> result = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            int i = category.ordinal();
+            result.put(category, new CategoryStats(category, counts[i], totalStock[i], inventoryValue[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Product> query(ProductQuery query) {
+        if (query.limit() == 0) return List.of();
+        Comparator<Product> order = query.order() == null ? null : query.order().comparator();
+        return gather(client -> client.query(query), order, query.limit());
+    }
+
+    @Override
+    public List<Product> findAllSorted(ProductOrder order, int offset, int limit) {
+        Paging.validate(offset, limit);
+        int needed = needed(offset, limit);
+        return page(gather(client -> client.findAllSorted(order, null, needed), order.comparator(), needed), offset, limit);
+    }
+
+    @Override
+    public List<Product> findAllSorted(ProductOrder order, Product after, int limit) {
+        Paging.validate(0, limit);
+        List<CompletableFuture<List<Product>>> futures = new ArrayList<>(count);
+        for (int s = 0; s < count; s++) {
+            futures.add(shards.get(s).findAllSorted(order, after == null ? null : localCursor(after, s), limit));
+        }
+        return merge(joinAll(futures), order.comparator(), limit);
+    }
+
+    @Override
+    public void flush() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(count);
+        for (ShardClient shard : shards) {
+            futures.add(shard.flush());
+        }
+        joinAll(futures);
+    }
+
+    @Override
+    public void close() {
+        RuntimeException failure = null;
+        for (ShardClient shard : shards) {
+            try {
+                shard.close();
+            } catch (RuntimeException e) {
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private int globalId(int shard, int localId) {
+        return Math.addExact(Math.multiplyExact(localId - 1, count), shard + 1);
+    }
+
+    private int shardOf(int id) {
+        return (id - 1) % count;
+    }
+
+    private int localId(int id) {
+        return (id - 1) / count + 1;
+    }
+
+    /*
+     * Same sort key as the cursor, with the last local id whose global id doesn't pass it: products of this shard
+     * that tie on the key continue right after it, exactly as they do among global ids
+     */
+    private Product localCursor(Product after, int shard) {
+        Product cursor = new Product(after.getName(), after.getPrice(), after.getStock(), after.getCategory());
+        int before = after.getId() - shard - 1;
+        if (before >= 0) cursor.setId(before / count + 1);
+        return cursor;
+    }
+
+    // Shard that holds the id, noting it for the existence check; ids that can't exist belong to none
+    private int lookup(int id, List<Set<Integer>> lookups) {
+        if (id <= 0) return -1;
+        int shard = shardOf(id);
+        lookups.get(shard).add(localId(id));
+        return shard;
+    }
+
+    private Product global(int shard, Product product) {
+        product.setId(globalId(shard, product.getId()));
+        return product.freeze();
+    }
+
+    private <T> T write(int shard, Function<ShardClient, CompletableFuture<T>> call) {
+        locks[shard].lock();
+        try {
+            return join(call.apply(shards.get(shard)));
+        } finally {
+            locks[shard].unlock();
+        }
+    }
+
+    private List<Product> gather(Function<ShardClient, CompletableFuture<List<Product>>> call,
+                                 Comparator<Product> order, int limit) {
+        List<CompletableFuture<List<Product>>> futures = new ArrayList<>(count);
+        for (ShardClient shard : shards) {
+            futures.add(call.apply(shard));
+        }
+        return merge(joinAll(futures), order, limit);
+    }
+
+    private List<Product> merge(List<List<Product>> replies, Comparator<Product> order, int limit) {
+        List<Product> merged = new ArrayList<>();
+        for (int s = 0; s < count; s++) {
+            for (Product product : replies.get(s)) merged.add(global(s, product));
+        }
+        // Every reply is already sorted, so the sort just merges the runs
+        if (order != null) merged.sort(order);
+        if (merged.size() > limit) return List.copyOf(merged.subList(0, limit));
+        return Collections.unmodifiableList(merged);
+    }
+
+    // Locks are always taken in ascending shard order so two batches can't wait on each other
+    private void lockAll(boolean[] involved) {
+        for (int s = 0; s < count; s++) {
+            if (involved[s]) locks[s].lock();
+        }
+    }
+
+    private void unlockAll(boolean[] involved) {
+        for (int s = count - 1; s >= 0; s--) {
+            if (involved[s]) locks[s].unlock();
+        }
+    }
+
+    private static int needed(int offset, int limit) {
+        return (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+    }
+
+    private static List<Product> page(List<Product> products, int offset, int limit) {
+        int from = Math.min(offset, products.size());
+        int to = (int) Math.min((long) from + limit, products.size());
+        return products.subList(from, to);
+    }
+
+    // Waits for every shard before reporting the first failure, so none is left running behind the caller
+    private static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((ignored, e) -> null).join();
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(join(future));
+        }
+        return results;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.jorge.project.service;
+
+/**
+ * Etapas del arranque de {@link LazyProductService}
+ */
+public enum StartupPhase {
+
+    INDEXING("Indexando posiciones de los productos"),
+    LOADING("Cargando productos e índices"),
+    READY("Catálogo cargado"),
+    FAILED("Error al cargar el catálogo");
+
+    private final String message;
+
+    StartupPhase(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
@@ -1,10 +1,16 @@
 package com.jorge.project.ui;
 
+import com.jorge.project.bulk.ExportReport;
+import com.jorge.project.bulk.ImportReport;
+import com.jorge.project.bulk.RowError;
 import com.jorge.project.controller.ProductController;
+import com.jorge.project.exceptions.ProductException;
 import com.jorge.project.model.Category;
 import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductOrder;
 
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Scanner;
 
@@ -22,14 +28,19 @@ public class UI {
                 6. Ordenar productos por nombre
                 7. Ordenar productos por precio
                 8. Filtrar productos por rango de precio
-                9. Salir
+                9. Importar productos (CSV o JSON por líneas)
+                10. Exportar productos
+                11. Salir
             """;
-    private static final String SELECT_OPTION = "Seleccione una opción (1-9): ";
+    private static final String SELECT_OPTION = "Seleccione una opción (1-11): ";
     private static final String INPUT_NAME = "Ingrese el nombre del producto: ";
     private static final String INPUT_PRICE = "Ingrese el precio del producto: ";
     private static final String INPUT_STOCK = "Ingrese el stock del producto: ";
     private static final String SELECT_CATEGORY = "Seleccione la categoría del producto: ";
     private static final String INPUT_ID = "Ingrese el ID del producto: ";
+    private static final String INPUT_PATH = "Ingrese la ruta del archivo (.csv o .jsonl): ";
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_SHOWN_ERRORS = 20;
 
     public UI(ProductController productController) {
         this.scanner = new Scanner(System.in);
@@ -50,7 +61,9 @@ public class UI {
                 case "6" -> sortProductsByNameView();
                 case "7" -> sortProductsByPriceView();
                 case "8" -> getProductsByPriceRangeView();
-                case "9" -> {
+                case "9" -> importProductsView();
+                case "10" -> exportProductsView();
+                case "11" -> {
                     System.out.println("Saliendo del sistema. ¡Hasta luego!");
                     return;
                 }
@@ -150,22 +163,56 @@ public class UI {
         }
     }
 
-    public void sortProductsByNameView() {
-        List<Product> products = productController.getAllProducts();
-        products.sort((p1, p2) -> p1.getName().compareToIgnoreCase(p2.getName()));
-        for (Product product : products) {
-            System.out.println(product);
+    public void importProductsView() {
+        String path = nonBlank(INPUT_PATH, "ruta");
+        try {
+            ImportReport report = productController.importProducts(path);
+            System.out.printf("Se importaron %d de %d filas en %.1f s (%,.0f filas/s).%n", report.imported(),
+                    report.rows(), report.elapsedNanos() / 1e9, report.rowsPerSecond());
+            for (RowError error : report.errors().subList(0, Math.min(MAX_SHOWN_ERRORS, report.errors().size()))) {
+                showError("Línea %d: %s".formatted(error.line(), error.message()));
+            }
+            if (report.failed() > MAX_SHOWN_ERRORS) {
+                showError("... y %d filas rechazadas más.".formatted(report.failed() - MAX_SHOWN_ERRORS));
+            }
+        } catch (ProductException e) {
+            showError(e.getMessage());
+        } catch (IOException e) {
+            showError("No se pudo leer el archivo: " + e.getMessage());
         }
     }
 
-    public void sortProductsByPriceView() {
-        List<Product> products = productController.getAllProducts();
-        products.sort((p1, p2) -> Double.compare(p1.getPrice(), p2.getPrice()));
-        for (Product product : products) {
-            System.out.println(product);
+    public void exportProductsView() {
+        String path = nonBlank(INPUT_PATH, "ruta");
+        try {
+            ExportReport report = productController.exportProducts(path);
+            System.out.printf("Se exportaron %d productos en %.1f s (%,.0f filas/s).%n", report.rows(),
+                    report.elapsedNanos() / 1e9, report.rowsPerSecond());
+        } catch (IOException e) {
+            showError("No se pudo escribir el archivo: " + e.getMessage());
         }
     }
 
+    public void sortProductsByNameView() {
+        printSorted(ProductOrder.NAME);
+    }
+
+    public void sortProductsByPriceView() {
+        printSorted(ProductOrder.PRICE);
+    }
+
+    private void printSorted(ProductOrder order) {
+        Product last = null;
+        List<Product> page;
+        do {
+            page = productController.getProductsSorted(order, last, PAGE_SIZE);
+            for (Product product : page) {
+                System.out.println(product);
+            }
+            if (!page.isEmpty()) last = page.getLast();
+        } while (page.size() == PAGE_SIZE);
+    }
+
     public String nonBlank(String message, String fieldName) {
         while (true) {
             System.out.println(message);
@@ -0,0 +1,161 @@
+package com.jorge.project.bulk;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.exceptions.ValidationError;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import com.jorge.project.service.IProductService;
+import com.jorge.project.service.ProductServiceImpl;
+import junit.framework.TestCase;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Checks per-row errors with their line numbers, quoted line breaks, that rows keep file order across parallel
+ * chunks, and that exported files import back to the same catalog.
+ */
+public class ProductImporterTest extends TestCase {
+
+    public void testRowErrorsDoNotStopImport() throws Exception {
+        String csv = """
+                category,stock,name,price,supplier
+                HOME,5,Silla,10,acme
+                home,1,"Mesa, roble",99.5,acme
+                OFFICE,2,Lápiz,-1,acme
+                TOYS,1,Pelota,abc,acme
+
+                SPACE,1,Cohete,5,acme
+                OFFICE,3,"Cuaderno ""A4""\",2.5,acme
+                OFFICE,3
+                OFFICE,3,"Sin cerrar,2,acme
+                SPORTS,4,Raqueta,NaN,acme
+                SPORTS,4,Red,30,acme
+                """;
+        try (IProductService service = service()) {
+            ImportReport report = new ProductImporter(service, 3, 3)
+                    .importFrom(new BufferedReader(new StringReader(csv)), BulkFormat.CSV);
+            assertEquals(10, report.rows());
+            assertEquals(4, report.imported());
+            assertEquals(6, report.failed());
+            assertEquals(List.of(4L, 5L, 7L, 9L, 10L, 11L), report.errors().stream().map(RowError::line).toList());
+            assertEquals("Precio debe ser mayor que cero", report.errors().getFirst().message());
+            assertEquals(ValidationError.PRICE_NOT_POSITIVE, report.errors().getFirst().error());
+            assertEquals("Categoría inválida: 'SPACE'", report.errors().get(2).message());
+            assertNull(report.errors().get(2).error());
+            assertEquals("Precio inválido: 'NaN'", report.errors().getLast().message());
+            assertEquals(List.of("Silla", "Mesa, roble", "Cuaderno \"A4\"", "Red"),
+                    service.findAll().stream().map(Product::getName).toList());
+            assertEquals(List.of(1, 2, 3, 4), service.findAll().stream().map(Product::getId).toList());
+            assertEquals(Category.HOME, service.findById(2).getCategory());
+        }
+    }
+
+    public void testQuotedLineBreaks() throws Exception {
+        String csv = "name,price,stock,category\r\n"
+                + "\"Silla\nroja\",10,1,HOME\r\n"
+                + "\"Mesa\r\n\"\"alta\"\"\r\nx\",20,1,HOME\r\n"
+                + "Pelota,abc,1,TOYS\n"
+                + "\"Lámpara\rde pie\",30,1,OFFICE\n"
+                + "Balón,-1,1,SPORTS\n"
+                + "\"Fin\n.\",50,1,HOME\n"
+                // No quote closes it before the end, so only its own line is rejected
+                + "\"Sin cerrar,5,1,HOME\n"
+                + "Red,40,1,SPORTS";
+        try (IProductService service = service()) {
+            ImportReport report = new ProductImporter(service, 2, 2)
+                    .importFrom(new BufferedReader(new StringReader(csv)), BulkFormat.CSV);
+            assertEquals(8, report.rows());
+            assertEquals(List.of(7L, 10L, 13L), report.errors().stream().map(RowError::line).toList());
+            assertEquals("Comillas sin cerrar", report.errors().getLast().message());
+            assertEquals(List.of("Silla\nroja", "Mesa\r\n\"alta\"\r\nx", "Lámpara\rde pie", "Fin\n.", "Red"),
+                    service.findAll().stream().map(Product::getName).toList());
+        }
+    }
+
+    public void testUnclosedQuoteStopsAtRowLimit() throws Exception {
+        // The quote on line 2 would only close on the last line, further than a row may span
+        StringBuilder csv = new StringBuilder("name,price,stock,category\n\"Sin cerrar,5,1,HOME\n");
+        for (int i = 0; i < 5_000; i++) csv.append("Red ").append(i).append(",40,1,SPORTS\n");
+        csv.append("\"Red \"\"final\"\"\",40,1,SPORTS\n");
+        try (IProductService service = service()) {
+            ImportReport report = new ProductImporter(service, 1_000, 2)
+                    .importFrom(new BufferedReader(new StringReader(csv.toString())), BulkFormat.CSV);
+            assertEquals(5_001, report.imported());
+            assertEquals(List.of(2L), report.errors().stream().map(RowError::line).toList());
+            assertEquals("Red \"final\"", service.findById(5_001).getName());
+        }
+    }
+
+    public void testJsonLinesAndMissingColumns() throws Exception {
+        String jsonl = """
+                {"name":"Silla","price":10,"stock":5,"category":"HOME"}
+                {"name":"","price":10,"stock":5,"category":"HOME"}
+                {"name":"Mesa","price":"caro","stock":5,"category":"HOME"}
+                no es json
+                {"name":"Lámpara","price":25.5,"stock":0,"category":"OFFICE","id":77}
+                """;
+        try (IProductService service = service()) {
+            ImportReport report = new ProductImporter(service, 2, 2)
+                    .importFrom(new BufferedReader(new StringReader(jsonl)), BulkFormat.JSON_LINES);
+            assertEquals(2, report.imported());
+            assertEquals(List.of(2L, 3L, 4L), report.errors().stream().map(RowError::line).toList());
+            assertEquals("Nombre no puede estar vacío", report.errors().getFirst().message());
+            assertEquals(ValidationError.NAME_BLANK, report.errors().getFirst().error());
+            assertEquals("Lámpara", service.findById(2).getName());
+            try {
+                new ProductImporter(service).importFrom(new BufferedReader(new StringReader("name,price,stock\n")),
+                        BulkFormat.CSV);
+                fail();
+            } catch (ProductException expected) {
+                assertEquals("Falta la columna 'category' en la cabecera", expected.getMessage());
+            }
+        }
+    }
+
+    public void testExportImportsBack() throws Exception {
+        Path dir = Files.createTempDirectory("inventory-test");
+        try (IProductService source = service()) {
+            for (int i = 0; i < 25_000; i++) {
+                String name = switch (i % 5) {
+                    case 0 -> "Silla " + i;
+                    case 1 -> "Mesa, \"modelo\" " + i;
+                    case 2 -> "Cañón ñ " + i;
+                    case 3 -> "Línea\n" + i + "\r\n\"otra\"\rfin";
+                    default -> "  " + i + "  ";
+                };
+                source.create(new Product(name, 0.01 + i * 1.37, i % 90, Category.values()[i % Category.values().length]));
+            }
+            source.delete(7);
+            for (BulkFormat format : BulkFormat.values()) {
+                String path = dir.resolve(format == BulkFormat.CSV ? "catalog.csv" : "catalog.jsonl").toString();
+                ExportReport exported = new ProductExporter(source).exportFile(path, format);
+                assertEquals(24_999, exported.rows());
+                try (IProductService target = service()) {
+                    ImportReport imported = new ProductImporter(target, 1_000, 4).importFile(path, BulkFormat.forPath(path));
+                    assertEquals(0, imported.failed());
+                    List<Product> expected = source.findAll();
+                    List<Product> actual = target.findAll();
+                    assertEquals(expected.size(), actual.size());
+                    for (int i = 0; i < expected.size(); i++) {
+                        assertTrue(format + " " + expected.get(i), expected.get(i).sameData(actual.get(i)));
+                    }
+                }
+            }
+            StringWriter writer = new StringWriter();
+            new ProductExporter(source).exportTo(writer, BulkFormat.CSV);
+            assertTrue(writer.toString().startsWith("id,name,price,stock,category\n1,Silla 0,0.01,0,ELECTRONIC\n2,\"Mesa, \"\"modelo\"\" 1\","));
+        }
+    }
+
+    private static IProductService service() throws Exception {
+        return new ProductServiceImpl(PersistenceConfig.defaults().withMode(PersistenceMode.LOG)
+                .withPath(Files.createTempDirectory("inventory-test").resolve("products.json").toString()));
+    }
+}
@@ -0,0 +1,197 @@
+package com.jorge.project.feed;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.ChangeType;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductChange;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import com.jorge.project.service.ProductServiceImpl;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Checks the change feed: event types and order from the service, demand, resuming, gaps, and that a replica built
+ * only from the feed ends up equal to the catalog while several threads modify it.
+ */
+public class ChangeFeedTest extends TestCase {
+
+    public void testServicePublishesChangesInOrder() throws Exception {
+        try (ProductServiceImpl service = new ProductServiceImpl(config(), new ChangeFeed(16, Runnable::run))) {
+            Recorder recorder = new Recorder();
+            service.changes().subscribe(recorder);
+            recorder.subscription.request(Long.MAX_VALUE);
+            service.create(new Product("Silla", 10, 5, Category.HOME));
+            service.create(new Product("Mesa", 50, 2, Category.HOME));
+            service.reserve(1, 2);
+            service.update(2, new Product("Mesa grande", 80, 2, Category.HOME));
+            service.apply(List.of(new ProductMutation.Delete(1), new ProductMutation.Create(new Product("Lámpara", 30, 1, Category.HOME))));
+            assertFalse(service.delete(1));
+
+            List<ChangeType> types = recorder.changes.stream().map(ProductChange::type).toList();
+            assertEquals(List.of(ChangeType.CREATED, ChangeType.CREATED, ChangeType.STOCK_CHANGED, ChangeType.UPDATED,
+                    ChangeType.DELETED, ChangeType.CREATED), types);
+            for (int i = 0; i < recorder.changes.size(); i++) {
+                assertEquals(i + 1, recorder.changes.get(i).sequence());
+            }
+            ProductChange reserved = recorder.changes.get(2);
+            assertEquals(5, reserved.previous().getStock());
+            assertEquals(3, reserved.product().getStock());
+            assertEquals("Silla", recorder.changes.get(4).previous().getName());
+            assertNull(recorder.changes.get(4).product());
+            assertEquals(6, service.changes().lastSequence());
+        }
+    }
+
+    public void testDemandResumeAndGaps() {
+        ChangeFeed feed = new ChangeFeed(4, Runnable::run);
+        for (int i = 1; i <= 6; i++) feed.created(product(i));
+
+        Recorder resumed = new Recorder();
+        feed.subscribe(resumed, 4);
+        resumed.subscription.request(2);
+        assertEquals(List.of(4L, 5L), resumed.sequences());
+        feed.created(product(7));
+        assertEquals(2, resumed.changes.size());
+        resumed.subscription.request(2);
+        assertEquals(List.of(4L, 5L, 6L, 7L), resumed.sequences());
+
+        Recorder late = new Recorder();
+        feed.subscribe(late, 2);
+        assertTrue(late.error instanceof MissedChangesException);
+        assertEquals(4, ((MissedChangesException) late.error).getOldestSequence());
+
+        Recorder ahead = new Recorder();
+        feed.subscribe(ahead, 9);
+        assertTrue(ahead.error instanceof IllegalArgumentException);
+
+        // A subscriber that falls more than the retention behind learns it when it asks for more
+        for (int i = 8; i <= 12; i++) feed.created(product(i));
+        resumed.subscription.request(1);
+        assertTrue(resumed.error instanceof MissedChangesException);
+
+        Recorder current = new Recorder();
+        feed.subscribe(current);
+        current.subscription.request(10);
+        feed.created(product(13));
+        feed.close();
+        feed.created(product(14));
+        assertEquals(List.of(13L), current.sequences());
+        assertEquals(0, current.completed.getCount());
+    }
+
+    public void testReplicaFollowsConcurrentWriters() throws Exception {
+        try (ProductServiceImpl service = new ProductServiceImpl(config(), new ChangeFeed(1 << 12))) {
+            Map<Integer, Product> replica = new HashMap<>();
+            CountDownLatch done = new CountDownLatch(1);
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            service.changes().subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(32);
+                }
+
+                @Override
+                public void onNext(ProductChange change) {
+                    synchronized (replica) {
+                        if (change.type() == ChangeType.DELETED) {
+                            replica.remove(change.id());
+                        } else {
+                            replica.put(change.id(), change.product());
+                        }
+                    }
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    // Terminal as well: release the latch so the test reports the error instead of timing out
+                    error.set(throwable);
+                    done.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+            });
+            List<Thread> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                int seed = w;
+                writers.add(Thread.ofVirtual().start(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        service.create(new Product("Producto " + seed + "-" + i, 1 + i, 10, Category.OFFICE));
+                        int id = 1 + (i * 7 + seed) % 400;
+                        if (i % 3 == 0) service.delete(id);
+                        service.compareAndSetStock(id + 1, 10, 9);
+                    }
+                }));
+            }
+            for (Thread writer : writers) writer.join();
+            service.changes().close();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertNull(error.get());
+            synchronized (replica) {
+                assertEquals(service.findAll().size(), replica.size());
+                for (Product product : service.findAll()) {
+                    assertSame(product, replica.get(product.getId()));
+                }
+            }
+        }
+    }
+
+    private static PersistenceConfig config() throws Exception {
+        return PersistenceConfig.defaults().withMode(PersistenceMode.LOG)
+                .withPath(Files.createTempDirectory("inventory-test").resolve("products.json").toString());
+    }
+
+    private static Product product(int id) {
+        Product product = new Product("Producto " + id, id, 1, Category.OTHER);
+        product.setId(id);
+        return product;
+    }
+
+    private static class Recorder implements Flow.Subscriber<ProductChange> {
+        final List<ProductChange> changes = new ArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        Flow.Subscription subscription;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(ProductChange change) {
+            changes.add(change);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+        List<Long> sequences() {
+            return changes.stream().map(ProductChange::sequence).toList();
+        }
+    }
+}
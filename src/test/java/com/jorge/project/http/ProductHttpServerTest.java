@@ -0,0 +1,138 @@
+package com.jorge.project.http;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.jorge.project.controller.ProductController;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.service.ConcurrentProductServiceImpl;
+import junit.framework.TestCase;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Drives the HTTP API end to end against a ConcurrentProductServiceImpl, including concurrent reservations.
+ */
+public class ProductHttpServerTest extends TestCase {
+    private static final Gson GSON = new Gson();
+
+    private ConcurrentProductServiceImpl service;
+    private ProductHttpServer server;
+    private HttpClient client;
+
+    @Override
+    protected void setUp() throws Exception {
+        String path = Files.createTempDirectory("inventory-test").resolve("products.json").toString();
+        service = new ConcurrentProductServiceImpl(PersistenceConfig.defaults().withPath(path));
+        server = new ProductHttpServer(new ProductController(service), 0);
+        client = HttpClient.newHttpClient();
+    }
+
+    @Override
+    protected void tearDown() {
+        client.close();
+        server.close();
+        service.close();
+    }
+
+    public void testCrudBatchAndStreaming() throws Exception {
+        HttpResponse<String> created = send("POST", "/products",
+                "{\"name\":\"Silla\",\"price\":25.5,\"stock\":4,\"category\":\"HOME\"}");
+        assertEquals(201, created.statusCode());
+        int id = GSON.fromJson(created.body(), JsonObject.class).get("id").getAsInt();
+        assertEquals("Silla", json(send("GET", "/products/" + id, null)).get("name").getAsString());
+
+        assertEquals(400, send("POST", "/products", "{\"name\":\"\",\"price\":1,\"stock\":1,\"category\":\"HOME\"}").statusCode());
+        assertEquals(400, send("POST", "/products", "{not json").statusCode());
+        assertEquals(400, send("GET", "/products/abc", null).statusCode());
+        assertEquals(404, send("GET", "/products/999", null).statusCode());
+        assertEquals(405, send("PATCH", "/products/" + id, null).statusCode());
+
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            batch.append("{\"op\":\"create\",\"product\":{\"name\":\"Lámpara ").append(i)
+                    .append("\",\"price\":").append(1 + i).append(",\"stock\":10,\"category\":\"OFFICE\"}},");
+        }
+        batch.append("{\"op\":\"update\",\"id\":").append(id)
+                .append(",\"product\":{\"name\":\"Silla\",\"price\":30,\"stock\":4,\"category\":\"HOME\"}}]");
+        JsonObject applied = json(send("POST", "/products/batch", batch.toString()));
+        assertEquals(501, applied.get("applied").getAsInt());
+        assertEquals(500, applied.getAsJsonArray("created").size());
+        assertEquals(400, send("POST", "/products/batch", "[{\"op\":\"delete\",\"id\":99999}]").statusCode());
+
+        JsonArray all = GSON.fromJson(send("GET", "/products", null).body(), JsonArray.class);
+        assertEquals(501, all.size());
+        assertEquals(30.0, all.get(0).getAsJsonObject().get("price").getAsDouble());
+        JsonArray some = GSON.fromJson(send("GET", "/products?ids=" + id + ",2,99999", null).body(), JsonArray.class);
+        assertEquals(2, some.size());
+        JsonArray page = GSON.fromJson(send("GET", "/products/sorted?order=price&offset=0&limit=3", null).body(), JsonArray.class);
+        assertEquals(1.0, page.get(0).getAsJsonObject().get("price").getAsDouble());
+        JsonArray found = GSON.fromJson(send("GET", "/products/search?name=l%C3%A1mpara%2049&category=OFFICE", null).body(),
+                JsonArray.class);
+        assertEquals(11, found.size());
+        assertEquals(500, json(send("GET", "/categories/office/stats", null)).get("productCount").getAsInt());
+
+        assertEquals(204, send("DELETE", "/products/" + id, null).statusCode());
+        assertEquals(404, send("DELETE", "/products/" + id, null).statusCode());
+    }
+
+    public void testConcurrentReservationsNeverOversell() throws Exception {
+        int id = json(send("POST", "/products", "{\"name\":\"Balón\",\"price\":9,\"stock\":100,\"category\":\"SPORTS\"}"))
+                .get("id").getAsInt();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            responses.add(client.sendAsync(request("POST", "/products/" + id + "/reserve", "{\"quantity\":1}"),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        int reserved = 0;
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            int status = response.join().statusCode();
+            assertTrue(status == 200 || status == 409);
+            if (status == 200) reserved++;
+        }
+        assertEquals(100, reserved);
+        assertEquals(0, json(send("GET", "/products/" + id, null)).get("stock").getAsInt());
+        assertEquals(5, json(send("POST", "/products/" + id + "/stock", "{\"delta\":5}")).get("stock").getAsInt());
+        assertEquals(400, send("POST", "/products/" + id + "/stock", "{\"delta\":-6}").statusCode());
+    }
+
+    public void testIntegerFieldsMustBeExact() throws Exception {
+        int id = json(send("POST", "/products", "{\"name\":\"Mesa\",\"price\":40,\"stock\":10,\"category\":\"HOME\"}"))
+                .get("id").getAsInt();
+        for (String delta : new String[]{"2.5", "99999999999", "-2147483649", "1e20", "1e400", "\"3\""}) {
+            assertEquals(delta, 400, send("POST", "/products/" + id + "/stock", "{\"delta\":" + delta + "}").statusCode());
+            assertEquals(delta, 400, send("POST", "/products/" + id + "/reserve", "{\"quantity\":" + delta + "}").statusCode());
+            assertEquals(delta, 400, send("POST", "/products/batch", "[{\"op\":\"delete\",\"id\":" + delta + "}]").statusCode());
+        }
+        assertEquals(10, json(send("GET", "/products/" + id, null)).get("stock").getAsInt());
+        // Integral values written as decimals or exponents are still accepted
+        assertEquals(12, json(send("POST", "/products/" + id + "/stock", "{\"delta\":2.0}")).get("stock").getAsInt());
+        assertEquals(112, json(send("POST", "/products/" + id + "/stock", "{\"delta\":1e2}")).get("stock").getAsInt());
+    }
+
+    public void testStockOfMissingProductIsNotFound() throws Exception {
+        assertEquals(404, send("POST", "/products/999/stock", "{\"delta\":1}").statusCode());
+        assertEquals(404, send("POST", "/products/999/reserve", "{\"quantity\":1}").statusCode());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return client.send(request(method, path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static JsonObject json(HttpResponse<String> response) {
+        return GSON.fromJson(response.body(), JsonObject.class);
+    }
+}
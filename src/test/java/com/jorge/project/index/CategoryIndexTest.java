@@ -0,0 +1,57 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit test for CategoryIndex.
+ */
+public class CategoryIndexTest extends TestCase {
+
+    public void testStatsMatchFullScanUnderRandomOperations() {
+        CategoryIndex index = new CategoryIndex();
+        Map<Integer, Product> current = new LinkedHashMap<>();
+        Random random = new Random(5);
+        Category[] categories = Category.values();
+        for (int i = 0; i < 20_000; i++) {
+            int id = 1 + random.nextInt(400);
+            Product previous = current.get(id);
+            if (previous != null && random.nextInt(3) == 0) {
+                current.remove(id);
+                index.remove(previous);
+            } else {
+                Product product = new Product("Producto " + id, (1 + random.nextInt(100_000)) / 100.0,
+                        random.nextInt(50), categories[random.nextInt(categories.length)]);
+                product.setId(id);
+                current.put(id, product);
+                index.replace(previous, product);
+            }
+        }
+        for (Category category : categories) {
+            List<Product> expected = new ArrayList<>();
+            long totalStock = 0;
+            BigDecimal value = BigDecimal.ZERO;
+            for (Product product : current.values()) {
+                if (product.getCategory() != category) continue;
+                expected.add(product);
+                totalStock += product.getStock();
+                value = value.add(BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(product.getStock())));
+            }
+            CategoryStats stats = index.stats(category);
+            assertEquals(expected.size(), stats.productCount());
+            assertEquals(totalStock, stats.totalStock());
+            assertEquals(value.doubleValue(), stats.inventoryValue());
+            assertEquals(expected.size(), index.products(category).size());
+            assertTrue(index.products(category).containsAll(expected));
+        }
+    }
+}
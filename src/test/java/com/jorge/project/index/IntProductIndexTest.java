@@ -0,0 +1,89 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit test for IntProductIndex.
+ */
+public class IntProductIndexTest extends TestCase {
+
+    public void testMatchesLinkedHashMapUnderRandomOperations() {
+        IntProductIndex index = new IntProductIndex();
+        Map<Integer, Product> expected = new LinkedHashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            int id = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), index.remove(id));
+            } else {
+                Product product = product(id);
+                assertEquals(expected.put(id, product), index.put(product));
+            }
+            assertEquals(expected.size(), index.size());
+        }
+        assertEquals(new ArrayList<>(expected.values()), index.values());
+        for (int id = 0; id <= 5_001; id++) {
+            assertSame(expected.get(id), index.get(id));
+        }
+    }
+
+    public void testReplaceKeepsPosition() {
+        IntProductIndex index = new IntProductIndex();
+        index.put(product(3));
+        index.put(product(1));
+        index.put(product(2));
+        Product replacement = product(1);
+        index.put(replacement);
+        assertEquals(1, index.positionOf(1));
+        assertSame(replacement, index.values().get(1));
+        assertEquals(-1, index.positionOf(9));
+    }
+
+    public void testSnapshotsAreUnaffectedByLaterChanges() {
+        IntProductIndex index = new IntProductIndex();
+        Map<Integer, Product> expected = new LinkedHashMap<>();
+        List<ProductSnapshot> snapshots = new ArrayList<>();
+        List<List<Product>> contents = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            int id = 1 + random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                expected.remove(id);
+                index.remove(id);
+            } else {
+                Product product = product(id);
+                expected.put(id, product);
+                index.put(product);
+            }
+            if (i % 100 == 0) {
+                snapshots.add(index.snapshot());
+                contents.add(new ArrayList<>(expected.values()));
+            }
+        }
+        for (int i = 0; i < snapshots.size(); i++) {
+            ProductSnapshot snapshot = snapshots.get(i);
+            List<Product> content = contents.get(i);
+            assertEquals(content.size(), snapshot.size());
+            List<Product> streamed = snapshot.stream().toList();
+            for (int j = 0; j < content.size(); j++) {
+                assertSame(content.get(j), snapshot.get(j));
+                assertSame(content.get(j), streamed.get(j));
+            }
+        }
+        assertSame(index.snapshot(), index.snapshot());
+    }
+
+    private static Product product(int id) {
+        Product product = new Product("Producto " + id, 10, 1, Category.OTHER);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,113 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares n-gram lookups against filtering every name, for one, two and longer search texts in any case, while
+ * products are added, renamed and removed.
+ */
+public class NameIndexTest extends TestCase {
+    private static final String[] WORDS = {"Silla", "SILLÓN", "mesa", "Mesita", "lámpara", "Lampa", "ab", "Ñandú"};
+    private static final String[] NEEDLES = {"s", "Ñ", "si", "SI", "es", "ab", "sil", "SILL", "mesit", "ámpa",
+            "lampa", "ñandú", "xyz", "a m", ""};
+
+    public void testBigramAndTrigramLookups() {
+        NameIndex index = new NameIndex();
+        Map<Integer, Product> expected = new LinkedHashMap<>();
+        for (int id = 1; id <= 6; id++) {
+            Product product = product(id, WORDS[id]);
+            index.add(product);
+            expected.put(id, product);
+        }
+        assertEquals(List.of(1, 3), ids(index.search("sI", 10)));
+        assertEquals(List.of(1), ids(index.search("SiL", 10)));
+        assertEquals(List.of(2, 3), ids(index.search("es", 10)));
+        assertEquals(List.of(3), ids(index.search("MESIT", 10)));
+        assertEquals(List.of(4, 5), ids(index.search("mP", 10)));
+        assertEquals(List.of(5), ids(index.search("LA", 10)));
+        assertEquals(List.of(6), ids(index.search("AB", 10)));
+        assertEquals(List.of(), index.search("silla mesa", 10));
+        assertEquals(0, index.estimate("xyz"));
+        assertSearchesMatch(index, expected);
+    }
+
+    public void testRenamesAndRemovalsKeepResults() {
+        NameIndex index = new NameIndex();
+        Map<Integer, Product> expected = new LinkedHashMap<>();
+        Random random = new Random(6);
+        int nextId = 1;
+        for (int step = 0; step < 3_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 4 || expected.isEmpty()) {
+                Product product = product(nextId++, name(random));
+                index.add(product);
+                expected.put(product.getId(), product);
+            } else if (action < 7) {
+                int id = pick(random, expected);
+                Product renamed = product(id, name(random));
+                index.update(renamed);
+                expected.put(id, renamed);
+            } else {
+                int id = pick(random, expected);
+                index.remove(id);
+                expected.remove(id);
+            }
+            if (step % 100 == 0) assertSearchesMatch(index, expected);
+        }
+        assertSearchesMatch(index, expected);
+
+        // Renaming back and forth re-adds an entry to lists it left, keeping its place in the order
+        Product first = expected.values().iterator().next();
+        String original = first.getName();
+        index.update(product(first.getId(), "zzz"));
+        index.update(product(first.getId(), original));
+        assertEquals(first.getId(), index.search(original, 1).getFirst().getId());
+        assertSearchesMatch(index, expected);
+
+        for (int id : new ArrayList<>(expected.keySet())) {
+            index.remove(id);
+        }
+        for (String needle : NEEDLES) {
+            assertEquals(needle, List.of(), index.search(needle, 100));
+        }
+    }
+
+    private static void assertSearchesMatch(NameIndex index, Map<Integer, Product> expected) {
+        for (String needle : NEEDLES) {
+            List<Integer> matches = new ArrayList<>();
+            for (Product product : expected.values()) {
+                if (product.getName().toLowerCase().contains(needle.toLowerCase())) matches.add(product.getId());
+            }
+            assertEquals(needle, matches, ids(index.search(needle, Integer.MAX_VALUE)));
+            assertEquals(needle, matches.subList(0, Math.min(3, matches.size())), ids(index.search(needle, 3)));
+            assertTrue(needle, index.estimate(needle) >= matches.size());
+        }
+    }
+
+    private static List<Integer> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static int pick(Random random, Map<Integer, Product> products) {
+        List<Integer> ids = new ArrayList<>(products.keySet());
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static String name(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static Product product(int id, String name) {
+        Product product = new Product(name, 10, 1, Category.HOME);
+        product.setId(id);
+        return product;
+    }
+}
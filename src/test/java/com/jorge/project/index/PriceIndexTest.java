@@ -0,0 +1,94 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit test for PriceIndex range queries: inclusive bounds, equal prices in id order, pages past the end and
+ * products whose price changes.
+ */
+public class PriceIndexTest extends TestCase {
+
+    public void testBoundsAreInclusive() {
+        PriceIndex index = index(10, 20, 20, 30, 40);
+        assertEquals(List.of(2, 3, 4), ids(index.range(20, 30)));
+        assertEquals(List.of(1), ids(index.range(10, 10)));
+        assertEquals(List.of(1, 2, 3, 4, 5), ids(index.range(0, Double.POSITIVE_INFINITY)));
+        assertEquals(List.of(), ids(index.range(20.5, 29.5)));
+        assertEquals(List.of(), ids(index.range(30, 20)));
+        assertEquals(List.of(), ids(index.range(Double.NaN, 40)));
+        assertEquals(4, index.countUpTo(20, 40, 10));
+        assertEquals(2, index.countUpTo(20, 40, 2));
+    }
+
+    public void testEqualPricesFollowId() {
+        PriceIndex index = new PriceIndex();
+        for (int id : new int[]{7, 3, 9, 1, 5}) {
+            index.add(product(id, id % 2 == 0 ? 5 : 15));
+        }
+        index.add(product(4, 5));
+        assertEquals(List.of(4, 1, 3, 5, 7, 9), ids(index.range(0, 100)));
+        assertEquals(List.of(1, 3, 5, 7, 9), ids(index.range(15, 15)));
+    }
+
+    public void testPagesPastTheEnd() {
+        PriceIndex index = index(10, 20, 30, 40, 50);
+        assertEquals(List.of(2, 3), ids(index.range(20, 50, 0, 2)));
+        assertEquals(List.of(4, 5), ids(index.range(20, 50, 2, 2)));
+        assertEquals(List.of(5), ids(index.range(20, 50, 3, 10)));
+        assertEquals(List.of(), ids(index.range(20, 50, 4, 10)));
+        assertEquals(List.of(), ids(index.range(20, 50, 100, 10)));
+        assertEquals(List.of(), ids(index.range(20, 50, 0, 0)));
+        assertEquals(List.of(1, 2, 3, 4, 5), ids(index.range(0, 100, 0, Integer.MAX_VALUE)));
+    }
+
+    public void testPriceChangesMoveProducts() {
+        PriceIndex index = index(10, 20, 30);
+        Product second = index.range(20, 20).iterator().next();
+        Product cheaper = product(2, 5);
+        index.replace(second, cheaper);
+        assertEquals(List.of(2, 1, 3), ids(index.range(0, 100)));
+        assertEquals(List.of(), ids(index.range(20, 20)));
+        assertEquals(3, index.size());
+
+        // Same price: replaced in place, still listed once
+        Product renamed = new Product("Otro nombre", 5, 1, Category.HOME);
+        renamed.setId(2);
+        index.replace(cheaper, renamed);
+        assertEquals(List.of(2), ids(index.range(5, 5)));
+        assertEquals("Otro nombre", index.range(5, 5).iterator().next().getName());
+
+        Product tied = product(2, 30);
+        index.replace(renamed, tied);
+        assertEquals(List.of(1, 2, 3), ids(index.range(0, 100)));
+        assertEquals(List.of(2, 3), ids(index.range(30, 30)));
+
+        index.remove(tied);
+        assertEquals(List.of(1, 3), ids(index.range(0, 100)));
+        assertEquals(2, index.size());
+    }
+
+    private static PriceIndex index(double... prices) {
+        PriceIndex index = new PriceIndex();
+        for (int i = 0; i < prices.length; i++) {
+            index.add(product(i + 1, prices[i]));
+        }
+        return index;
+    }
+
+    private static List<Integer> ids(Iterable<Product> products) {
+        List<Integer> ids = new ArrayList<>();
+        for (Product product : products) ids.add(product.getId());
+        return ids;
+    }
+
+    private static Product product(int id, double price) {
+        Product product = new Product("Producto " + id, price, 1, Category.HOME);
+        product.setId(id);
+        return product;
+    }
+}
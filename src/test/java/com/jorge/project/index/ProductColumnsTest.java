@@ -0,0 +1,68 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductOrder;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit test for ProductColumns.
+ */
+public class ProductColumnsTest extends TestCase {
+    private static final String[] NAMES = {"Lámpara de mesa", "lamp", "Desk LAMP", "Silla", "silla gamer", "Balón"};
+
+    public void testMatchesObjectStoreUnderRandomOperations() {
+        ProductColumns columns = new ProductColumns();
+        Map<Integer, Product> expected = new LinkedHashMap<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 50_000; i++) {
+            int id = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id) != null, columns.remove(id));
+            } else {
+                Product product = product(id, random);
+                assertEquals(expected.put(id, product) != null, columns.put(product));
+            }
+            assertEquals(expected.size(), columns.size());
+        }
+        List<Product> all = new ArrayList<>(expected.values());
+        assertSameData(all, columns.toList());
+        assertSameData(all, columns.stream().toList());
+        for (Product product : all) {
+            assertSameData(List.of(product), List.of(columns.get(product.getId())));
+        }
+
+        List<Product> inRange = new ArrayList<>(all.stream().filter(p -> p.getPrice() >= 20 && p.getPrice() <= 60).toList());
+        inRange.sort(ProductOrder.PRICE.comparator());
+        assertSameData(inRange, columns.priceRange(20, 60));
+
+        for (String needle : new String[]{"lamp", "LÁMP", "illa", "ó"}) {
+            String lower = needle.toLowerCase();
+            assertSameData(all.stream().filter(p -> p.getName().toLowerCase().contains(lower)).toList(),
+                    columns.byName(needle, Integer.MAX_VALUE));
+        }
+        assertSameData(all.stream().filter(p -> p.getCategory() == Category.TOYS).toList(),
+                columns.byCategory(Category.TOYS));
+    }
+
+    private static void assertSameData(List<Product> expected, List<Product> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+        }
+    }
+
+    private static Product product(int id, Random random) {
+        String name = NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(50);
+        Category category = Category.values()[random.nextInt(Category.values().length)];
+        Product product = new Product(name, 1 + random.nextInt(100), random.nextInt(20), category);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,65 @@
+package com.jorge.project.index;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductOrder;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit test for SortedIndex.
+ */
+public class SortedIndexTest extends TestCase {
+    private static final String[] NAMES = {"lamp", "Lamp", "LAMP", "desk", "Chair", "chair", "Ball"};
+
+    public void testMatchesFullSortUnderRandomOperations() {
+        Random random = new Random(3);
+        for (ProductOrder order : ProductOrder.values()) {
+            SortedIndex index = order == ProductOrder.PRICE ? new PriceIndex() : new SortedIndex(order);
+            Map<Integer, Product> current = new HashMap<>();
+            for (int i = 0; i < 5_000; i++) {
+                int id = 1 + random.nextInt(300);
+                Product previous = current.get(id);
+                if (previous != null && random.nextInt(3) == 0) {
+                    current.remove(id);
+                    index.remove(previous);
+                } else {
+                    Product product = product(id, random);
+                    current.put(id, product);
+                    index.replace(previous, product);
+                }
+            }
+            List<Product> expected = new ArrayList<>(current.values());
+            expected.sort(order.comparator());
+            assertSame(order, expected, new ArrayList<>(index.values()));
+            assertSame(order, expected.subList(10, 30), index.page(10, 20));
+
+            List<Product> walked = new ArrayList<>();
+            List<Product> page = index.after(null, 7);
+            while (!page.isEmpty()) {
+                walked.addAll(page);
+                page = index.after(page.getLast(), 7);
+            }
+            assertSame(order, expected, walked);
+        }
+    }
+
+    private static void assertSame(ProductOrder order, List<Product> expected, List<Product> actual) {
+        assertEquals(order.name(), expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(order.name(), expected.get(i), actual.get(i));
+        }
+    }
+
+    private static Product product(int id, Random random) {
+        Product product = new Product(NAMES[random.nextInt(NAMES.length)], 1 + random.nextInt(20),
+                random.nextInt(20), Category.OTHER);
+        product.setId(id);
+        return product;
+    }
+}
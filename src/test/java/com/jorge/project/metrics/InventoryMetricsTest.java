@@ -0,0 +1,86 @@
+package com.jorge.project.metrics;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import com.jorge.project.service.IProductService;
+import com.jorge.project.service.MeteredProductService;
+import com.jorge.project.service.ProductServiceImpl;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks histogram percentiles against exact ones, and that a metered service records operations, writes and loads.
+ */
+public class InventoryMetricsTest extends TestCase {
+
+    public void testPercentilesWithinBucketPrecision() {
+        Random random = new Random(5);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform from 1 ns to ~17 s, so every bucket scale gets samples
+            values[i] = (long) Math.pow(2, random.nextDouble() * 34);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[]{0, 1, 25, 50, 90, 99, 99.9, 100}) {
+            long exact = values[Math.max(0, (int) Math.ceil(percentile / 100 * values.length) - 1)];
+            long estimate = histogram.percentile(percentile);
+            assertTrue(percentile + ": " + estimate + " < " + exact, estimate >= exact);
+            assertTrue(percentile + ": " + estimate + " vs " + exact, estimate <= exact + exact / 64 + 1);
+        }
+        assertEquals(values.length, histogram.count());
+        assertEquals(values[values.length - 1], histogram.max());
+        for (long value = 0; value < 1 << 20; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(value <= LatencyHistogram.highestEquivalent(bucket));
+            assertTrue(bucket == 0 || value > LatencyHistogram.highestEquivalent(bucket - 1));
+        }
+        assertEquals(LatencyHistogram.bucketOf(LatencyHistogram.MAX_TRACKABLE_NANOS), LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    public void testMeteredServiceRecordsOperationsWritesAndLoad() throws Exception {
+        Path dir = Files.createTempDirectory("inventory-test");
+        InventoryMetrics metrics = new InventoryMetrics();
+        PersistenceConfig config = PersistenceConfig.defaults().withPath(dir.resolve("products.json").toString())
+                .withMode(PersistenceMode.LOG).withMetrics(metrics);
+        try (IProductService service = new MeteredProductService(new ProductServiceImpl(config), metrics)) {
+            for (int i = 0; i < 10; i++) {
+                service.create(new Product("Silla " + i, 10 + i, 5, Category.HOME));
+            }
+            service.findById(1);
+            service.reserve(1, 2);
+            try {
+                service.adjustStock(99, 1);
+                fail();
+            } catch (ProductException expected) {
+                // no such product
+            }
+            service.flush();
+        }
+        assertEquals(10, metrics.latency(Operation.CREATE).count());
+        assertEquals(1, metrics.latency(Operation.FIND_BY_ID).count());
+        assertEquals(1, metrics.latency(Operation.RESERVE).count());
+        assertEquals(Long.valueOf(1), metrics.getOperationFailures().get("ADJUST_STOCK"));
+        assertEquals(Long.valueOf(0), metrics.getOperationFailures().get("CREATE"));
+        assertEquals(11, metrics.getWrites());
+        assertEquals(Files.size(dir.resolve("products.json.log")), metrics.getBytesWritten());
+        assertEquals(0, metrics.getIoFailures());
+
+        InventoryMetrics reloaded = new InventoryMetrics();
+        try (IProductService service = new ProductServiceImpl(config.withMetrics(reloaded))) {
+            assertEquals(10, service.findAll().size());
+        }
+        assertEquals(10, reloaded.getLastLoadProducts());
+        // Reopening consolidates the previous log into the snapshot, and that write is recorded too
+        assertEquals(1, reloaded.getWrites());
+        assertEquals(Files.size(dir.resolve("products.json")), reloaded.getLastWriteBytes());
+    }
+}
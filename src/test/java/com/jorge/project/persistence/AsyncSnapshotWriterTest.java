@@ -0,0 +1,112 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.metrics.InventoryMetrics;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Checks when the background writer saves: on reaching the threshold, after the interval, on close, and again after
+ * a failed write.
+ */
+public class AsyncSnapshotWriterTest extends TestCase {
+    private static final long NEVER = TimeUnit.MINUTES.toMillis(10);
+
+    public void testThresholdTriggersWrite() throws Exception {
+        Path path = temp();
+        try (AsyncSnapshotWriter writer = new AsyncSnapshotWriter(config(path, NEVER, 3, new InventoryMetrics()),
+                () -> catalog(3))) {
+            writer.markDirty(2);
+            Thread.sleep(100);
+            assertFalse(Files.exists(path));
+            writer.markDirty(1);
+            awaitFile(path);
+            assertEquals(3, read(path).size());
+        }
+    }
+
+    public void testIntervalTriggersWrite() throws Exception {
+        Path path = temp();
+        try (AsyncSnapshotWriter writer = new AsyncSnapshotWriter(config(path, 50, 1000, new InventoryMetrics()),
+                () -> catalog(1))) {
+            writer.markDirty(1);
+            awaitFile(path);
+            assertEquals(1, read(path).size());
+        }
+    }
+
+    public void testCloseWritesPendingChanges() throws Exception {
+        Path path = temp();
+        AsyncSnapshotWriter writer = new AsyncSnapshotWriter(config(path, NEVER, 1000, new InventoryMetrics()),
+                () -> catalog(2));
+        writer.markDirty(1);
+        assertFalse(Files.exists(path));
+        writer.close();
+        assertEquals(2, read(path).size());
+    }
+
+    public void testRecoversAfterFailedWrite() throws Exception {
+        Path path = temp();
+        InventoryMetrics metrics = new InventoryMetrics();
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<List<Product>> snapshot = () -> {
+            if (calls.getAndIncrement() == 0) throw new IllegalStateException("snapshot failed");
+            return catalog(4);
+        };
+        try (AsyncSnapshotWriter writer = new AsyncSnapshotWriter(config(path, 20, 1000, metrics), snapshot)) {
+            writer.markDirty(1);
+            awaitWrites(metrics, 1);
+            assertEquals(4, read(path).size());
+            assertEquals(1, metrics.getIoFailures());
+
+            // The writer thread is still alive and picks up later changes
+            writer.markDirty(1);
+            awaitWrites(metrics, 2);
+        }
+    }
+
+    private static void awaitWrites(InventoryMetrics metrics, long writes) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (metrics.getWrites() < writes && System.nanoTime() < deadline) Thread.sleep(10);
+        assertEquals(writes, metrics.getWrites());
+    }
+
+    private static void awaitFile(Path path) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!Files.exists(path) && System.nanoTime() < deadline) Thread.sleep(10);
+        assertTrue("not written: " + path, Files.exists(path));
+    }
+
+    private static List<Product> read(Path path) throws Exception {
+        List<Product> products = new ArrayList<>();
+        SnapshotFormat.JSON.read(path.toString(), products::add);
+        return products;
+    }
+
+    private static List<Product> catalog(int size) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            Product product = new Product("Producto " + i, i, i, Category.HOME);
+            product.setId(i);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static Path temp() throws Exception {
+        return Files.createTempDirectory("inventory-test").resolve("products.json");
+    }
+
+    private static PersistenceConfig config(Path path, long intervalMillis, int threshold, InventoryMetrics metrics) {
+        return new PersistenceConfig(path.toString(), PersistenceMode.ASYNC, SnapshotFormat.JSON,
+                PersistenceConfig.DEFAULT_COMPACTION_THRESHOLD, false, intervalMillis, threshold, metrics);
+    }
+}
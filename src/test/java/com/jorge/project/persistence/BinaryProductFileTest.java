@@ -0,0 +1,85 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Round-trips a catalog between the JSON and binary snapshots, reading the binary one through windows much smaller
+ * than the file, and checks that invalid stored values are reported as a corrupt snapshot.
+ */
+public class BinaryProductFileTest extends TestCase {
+
+    public void testJsonBinaryRoundTripAcrossWindows() throws Exception {
+        Path dir = Files.createTempDirectory("inventory-test");
+        String json = dir.resolve("products.json").toString();
+        String binary = dir.resolve("products.bin").toString();
+        List<Product> catalog = new ArrayList<>();
+        for (int id = 1; id <= 5_000; id++) {
+            // Names of varying length, some longer than a window, so records straddle window boundaries
+            String name = (id % 997 == 0 ? "Lámpara ñandú ".repeat(40) : "Producto ") + id;
+            Product product = new Product(name, 0.5 + id, id % 70, Category.values()[id % Category.values().length]);
+            product.setId(id);
+            catalog.add(product);
+        }
+        SnapshotFormat.JSON.writeAtomically(json, catalog, true, false);
+
+        List<Product> fromJson = new ArrayList<>();
+        SnapshotFormat.JSON.read(json, fromJson::add);
+        SnapshotFormat.BINARY.writeAtomically(binary, fromJson, false, false);
+        long windowSize = 256;
+        assertTrue(Files.size(Path.of(binary)) > 100 * windowSize);
+
+        List<Product> fromBinary = new ArrayList<>();
+        assertEquals(catalog.size(), BinaryProductFile.read(binary, fromBinary::add, windowSize));
+        assertSameProducts(catalog, fromBinary);
+        List<Product> unwindowed = new ArrayList<>();
+        SnapshotFormat.BINARY.read(binary, unwindowed::add);
+        assertSameProducts(catalog, unwindowed);
+
+        SnapshotFormat.JSON.writeAtomically(json, fromBinary, false, false);
+        List<Product> back = new ArrayList<>();
+        SnapshotFormat.JSON.read(json, back::add);
+        assertSameProducts(catalog, back);
+    }
+
+    public void testInvalidValueIsCorruptSnapshot() throws Exception {
+        String binary = Files.createTempDirectory("inventory-test").resolve("products.bin").toString();
+        List<Product> catalog = new ArrayList<>();
+        for (int id = 1; id <= 3; id++) {
+            Product product = new Product("Silla " + id, 10, 1, Category.HOME);
+            product.setId(id);
+            catalog.add(product);
+        }
+        SnapshotFormat.BINARY.writeAtomically(binary, catalog, false, false);
+        // Second record starts after the header and the first record: id, then the price
+        long secondPrice = 12 + (4 + 8 + 4 + 1 + 4 + "Silla 1".length()) + 4;
+        try (FileChannel channel = FileChannel.open(Path.of(binary), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putDouble(0, -5), secondPrice);
+        }
+        try {
+            BinaryProductFile.read(binary, product -> {
+            });
+            fail();
+        } catch (IOException expected) {
+            assertEquals("Corrupt snapshot at product #2", expected.getMessage());
+        }
+    }
+
+    private static void assertSameProducts(List<Product> expected, List<Product> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertTrue("id " + expected.get(i).getId(), expected.get(i).sameData(actual.get(i)));
+        }
+    }
+}
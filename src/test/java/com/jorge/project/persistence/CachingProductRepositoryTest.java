@@ -0,0 +1,296 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.service.IProductService;
+import com.jorge.project.service.ProductServiceImpl;
+import com.jorge.project.service.RepositoryProductServiceImpl;
+import junit.framework.TestCase;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Checks the disk store and its cache against an in-memory map, across reopens, compactions, a torn last record and
+ * a corrupt one, that frequency-based admission keeps the hot set cached through a scan, and that a miss reading
+ * the store neither blocks hits nor caches a value overwritten meanwhile.
+ */
+public class CachingProductRepositoryTest extends TestCase {
+
+    public void testRandomWorkloadMatchesMapAcrossReopens() throws Exception {
+        Path file = Files.createTempDirectory("inventory-test").resolve("products.db");
+        Map<Integer, Product> expected = new HashMap<>();
+        Random random = new Random(19);
+        long gets = 0;
+        for (int round = 0; round < 3; round++) {
+            CachingProductRepository repository = new CachingProductRepository(new DiskProductStore(file.toString()), 50);
+            assertContents(expected, repository);
+            for (int i = 0; i < 20_000; i++) {
+                int id = 1 + random.nextInt(500);
+                switch (random.nextInt(10)) {
+                    case 0, 1 -> {
+                        Product product = product(id, random);
+                        repository.put(product);
+                        expected.put(id, product);
+                    }
+                    case 2 -> assertEquals(expected.remove(id) != null, repository.remove(id));
+                    default -> {
+                        Product product = repository.get(id);
+                        gets++;
+                        assertTrue(id + "", expected.containsKey(id) ? expected.get(id).sameData(product) : product == null);
+                    }
+                }
+            }
+            CacheStats stats = repository.stats();
+            assertTrue(stats.size() <= 50);
+            assertTrue(stats.evictions() > 0);
+            gets -= stats.hits() + stats.misses();
+            repository.close();
+        }
+        assertEquals(0, gets);
+    }
+
+    public void testCompactionAndTornRecord() throws Exception {
+        Path file = Files.createTempDirectory("inventory-test").resolve("products.db");
+        String longName = "x".repeat(200);
+        long sizeBeforeCompaction = 0;
+        try (DiskProductStore store = new DiskProductStore(file.toString())) {
+            for (int i = 0; i < 20_000; i++) {
+                Product product = new Product(longName, 1 + i % 100, i, Category.OFFICE);
+                product.setId(1 + i % 10);
+                store.put(product);
+                sizeBeforeCompaction = Math.max(sizeBeforeCompaction, store.fileSize());
+            }
+            assertTrue(store.remove(10));
+            assertTrue(store.fileSize() < sizeBeforeCompaction / 2);
+            assertEquals(9, store.size());
+            assertEquals(19_998, store.get(9).getStock());
+        }
+        // A crash in the middle of an append leaves a partial record that reopening discards
+        Files.write(file, new byte[]{0, 0, 0, 3, 1, 2}, StandardOpenOption.APPEND);
+        try (DiskProductStore store = new DiskProductStore(file.toString())) {
+            assertEquals(9, store.size());
+            assertEquals(10, store.maxId());
+            assertNull(store.get(10));
+            assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), store.stream().map(Product::getId).toList());
+            Product product = new Product("Lámpara", 30, 2, Category.HOME);
+            product.setId(11);
+            store.put(product);
+        }
+        try (DiskProductStore store = new DiskProductStore(file.toString())) {
+            assertEquals("Lámpara", store.get(11).getName());
+        }
+    }
+
+    public void testCorruptRecordKeepsFile() throws Exception {
+        Path file = Files.createTempDirectory("inventory-test").resolve("products.db");
+        try (DiskProductStore store = new DiskProductStore(file.toString())) {
+            for (int id = 1; id <= 3; id++) {
+                Product product = new Product("Silla " + id, id, id, Category.HOME);
+                product.setId(id);
+                store.put(product);
+            }
+        }
+        // A record whose name runs past the end of the file is a torn append and is dropped
+        byte[] torn = {0, 0, 0, 4, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0, 50, 'M', 'e'};
+        Files.write(file, torn, StandardOpenOption.APPEND);
+        try (DiskProductStore store = new DiskProductStore(file.toString())) {
+            assertEquals(3, store.size());
+            assertNull(store.get(4));
+        }
+        // A bad category in the first record is not a torn tail: opening fails and nothing is truncated
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[DiskProductStore.HEADER_SIZE + 16] = 100;
+        Files.write(file, bytes);
+        try {
+            new DiskProductStore(file.toString()).close();
+            fail();
+        } catch (UncheckedIOException expected) {
+            assertTrue(Arrays.equals(bytes, Files.readAllBytes(file)));
+        }
+    }
+
+    public void testFrequentProductsSurviveColdTraffic() throws Exception {
+        Path file = Files.createTempDirectory("inventory-test").resolve("products.db");
+        try (CachingProductRepository repository = new CachingProductRepository(new DiskProductStore(file.toString()), 200)) {
+            Random random = new Random(3);
+            for (int id = 1; id <= 5_000; id++) {
+                repository.put(product(id, random));
+            }
+            // Each round asks for the 100 hot products and 300 cold ones seen only once: plain LRU would lose the
+            // hot ones every round, admission by frequency keeps them
+            int cold = 101;
+            long hotHits = 0;
+            for (int round = 0; round < 15; round++) {
+                for (int id = 1; id <= 100; id++) {
+                    long hits = repository.stats().hits();
+                    repository.get(id);
+                    if (round >= 5) hotHits += repository.stats().hits() - hits;
+                }
+                for (int i = 0; i < 300; i++) repository.get(cold++);
+            }
+            CacheStats after = repository.stats();
+            assertTrue("hot hits " + hotHits, hotHits >= 900);
+            assertEquals(200, after.size());
+        }
+    }
+
+    public void testSlowMissDoesNotBlockHitsOrCacheStaleData() throws Exception {
+        Path file = Files.createTempDirectory("inventory-test").resolve("products.db");
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DiskProductStore store = new DiskProductStore(file.toString());
+        Random random = new Random(11);
+        // Stored behind the cache's back, so the first get of 2 is a miss that goes to the slow store
+        store.put(product(2, random));
+        try (CachingProductRepository repository = new CachingProductRepository(
+                new SlowStore(store, 2, reading, release), 10)) {
+            repository.put(product(1, random));
+            CompletableFuture<Product> miss = CompletableFuture.supplyAsync(() -> repository.get(2));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            assertNotNull(CompletableFuture.supplyAsync(() -> repository.get(1)).get(5, TimeUnit.SECONDS));
+            Product replacement = product(2, random);
+            CompletableFuture<Void> write = CompletableFuture.runAsync(() -> repository.put(replacement));
+            write.get(5, TimeUnit.SECONDS);
+            release.countDown();
+            miss.get(5, TimeUnit.SECONDS);
+            assertSame(replacement, repository.get(2));
+        }
+    }
+
+    public void testServiceImportsSnapshot() throws Exception {
+        Path dir = Files.createTempDirectory("inventory-test");
+        PersistenceConfig config = PersistenceConfig.defaults().withPath(dir.resolve("products.json").toString());
+        try (IProductService service = new ProductServiceImpl(config)) {
+            for (int i = 1; i <= 30; i++) service.create(new Product("Silla " + i, i, i, Category.HOME));
+            service.delete(30);
+        }
+        try (RepositoryProductServiceImpl service = new RepositoryProductServiceImpl(config, 10)) {
+            assertEquals(29, service.findAll().size());
+            assertEquals("Silla 7", service.findById(7).getName());
+            assertEquals(List.of(3, 4, 5), service.findByPriceInRange(3, 5).stream().map(Product::getId).toList());
+            service.create(new Product("Mesa", 40, 1, Category.HOME));
+            assertEquals(30, service.findByName("mesa").getFirst().getId());
+            assertEquals(1, service.cacheStats().misses());
+        }
+        try (IProductService service = new RepositoryProductServiceImpl(config, 10)) {
+            assertEquals(30, service.findAll().size());
+            assertEquals(40, service.findById(30).getPrice(), 0);
+        }
+    }
+
+    public void testServiceImportsSnapshotAndLog() throws Exception {
+        Path dir = Files.createTempDirectory("inventory-test");
+        PersistenceConfig config = PersistenceConfig.defaults().withMode(PersistenceMode.LOG)
+                .withPath(dir.resolve("products.json").toString());
+        List<Product> expected;
+        try (ProductServiceImpl service = new ProductServiceImpl(config)) {
+            for (int i = 1; i <= 30; i++) service.create(new Product("Silla " + i, i, i, Category.HOME));
+            service.delete(30);
+            service.update(3, new Product("Mesa", 3, 3, Category.HOME));
+            expected = service.findAll();
+        }
+        assertTrue(Files.size(Path.of(config.logPath())) > 0);
+        try (RepositoryProductServiceImpl service = new RepositoryProductServiceImpl(config, 10)) {
+            assertEquals(expected.size(), service.findAll().size());
+            for (Product product : expected) {
+                assertTrue(product.sameData(service.findById(product.getId())));
+            }
+            assertNull(service.findById(30));
+        }
+    }
+
+    private static void assertContents(Map<Integer, Product> expected, ProductRepository repository) {
+        assertEquals(expected.size(), repository.size());
+        for (Product product : repository.stream().toList()) {
+            assertTrue(expected.get(product.getId()).sameData(product));
+        }
+    }
+
+    private static Product product(int id, Random random) {
+        Product product = new Product("Producto " + random.nextInt(1000), 1 + random.nextInt(500), random.nextInt(50),
+                Category.values()[random.nextInt(Category.values().length)]);
+        product.setId(id);
+        return product;
+    }
+
+    // Blocks the first store read of one id until released, as a slow disk would
+    private static class SlowStore implements ProductRepository {
+        private final ProductRepository store;
+        private final int slowId;
+        private final CountDownLatch reading;
+        private final CountDownLatch release;
+
+        SlowStore(ProductRepository store, int slowId, CountDownLatch reading, CountDownLatch release) {
+            this.store = store;
+            this.slowId = slowId;
+            this.reading = reading;
+            this.release = release;
+        }
+
+        @Override
+        public Product get(int id) {
+            Product product = store.get(id);
+            if (id == slowId && reading.getCount() > 0) {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return product;
+        }
+
+        @Override
+        public boolean contains(int id) {
+            return store.contains(id);
+        }
+
+        @Override
+        public void put(Product product) {
+            store.put(product);
+        }
+
+        @Override
+        public boolean remove(int id) {
+            return store.remove(id);
+        }
+
+        @Override
+        public int size() {
+            return store.size();
+        }
+
+        @Override
+        public int maxId() {
+            return store.maxId();
+        }
+
+        @Override
+        public Stream<Product> stream() {
+            return store.stream();
+        }
+
+        @Override
+        public void flush() {
+            store.flush();
+        }
+
+        @Override
+        public void close() {
+            store.close();
+        }
+    }
+}
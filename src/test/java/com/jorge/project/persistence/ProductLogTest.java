@@ -0,0 +1,156 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Checks that the log replays what was appended, rotates and compacts into the snapshot, drops only a torn last
+ * record of the active log, and recovers after a crash in the middle of a compaction.
+ */
+public class ProductLogTest extends TestCase {
+
+    public void testAppendAndReplay() throws Exception {
+        PersistenceConfig config = config(100);
+        try (ProductLog log = new ProductLog(config)) {
+            log.open(List.of());
+            assertTrue(log.appendUpsert(product(1, "Silla")) > 0);
+            log.appendUpsert(product(2, "Mesa"));
+            log.appendDelete(1);
+            log.appendBatch(List.of(new ProductMutation.Create(product(3, "Lámpara")),
+                    new ProductMutation.Update(2, product(0, "Mesa grande")), new ProductMutation.Delete(3)));
+            log.sync();
+        }
+        Map<Integer, Product> replayed = new TreeMap<>();
+        assertEquals(6, replay(config, replayed));
+        assertEquals(List.of(2), List.copyOf(replayed.keySet()));
+        assertEquals("Mesa grande", replayed.get(2).getName());
+    }
+
+    public void testRotationAndCompaction() throws Exception {
+        PersistenceConfig config = config(3);
+        List<Product> current = new ArrayList<>();
+        try (ProductLog log = new ProductLog(config)) {
+            log.open(current);
+            for (int id = 1; id <= 3; id++) {
+                current.add(product(id, "Producto " + id));
+                log.appendUpsert(current.getLast());
+            }
+            log.compactIfNeeded(() -> List.copyOf(current));
+            current.add(product(4, "Producto 4"));
+            log.appendUpsert(current.getLast());
+        }
+        // close() waits for the compaction: the rotated log is gone and only the later record is left
+        assertFalse(Files.exists(Path.of(config.logPath() + ".1")));
+        List<Product> snapshot = new ArrayList<>();
+        config.format().read(config.path(), snapshot::add);
+        assertEquals(3, snapshot.size());
+        Map<Integer, Product> replayed = new TreeMap<>();
+        for (Product product : snapshot) replayed.put(product.getId(), product);
+        assertEquals(1, replay(config, replayed));
+        assertEquals(List.of(1, 2, 3, 4), List.copyOf(replayed.keySet()));
+    }
+
+    public void testTornLastRecordIsDropped() throws Exception {
+        PersistenceConfig config = config(100);
+        try (ProductLog log = new ProductLog(config)) {
+            log.open(List.of());
+            log.appendUpsert(product(1, "Silla"));
+            log.appendUpsert(product(2, "Mesa"));
+        }
+        Files.writeString(Path.of(config.logPath()), "U {\"id\":3,\"na", StandardOpenOption.APPEND);
+        Map<Integer, Product> replayed = new TreeMap<>();
+        try (ProductLog log = new ProductLog(config)) {
+            assertEquals(2, log.replay(product -> replayed.put(product.getId(), product), replayed::remove));
+            log.open(replayed.values());
+        }
+        assertFalse(Files.exists(Path.of(config.logPath() + ".corrupt")));
+        List<Product> snapshot = new ArrayList<>();
+        config.format().read(config.path(), snapshot::add);
+        assertEquals(2, snapshot.size());
+        assertEquals(0, replay(config, new TreeMap<>()));
+    }
+
+    public void testCrashDuringCompaction() throws Exception {
+        PersistenceConfig config = config(100);
+        Path active = Path.of(config.logPath());
+        Path rolled = Path.of(config.logPath() + ".1");
+        // The process died after rotating the log and before the new snapshot was written
+        Files.write(rolled, List.of(upsert(product(1, "Silla")), upsert(product(2, "Mesa"))), StandardCharsets.UTF_8);
+        Files.write(active, List.of(upsert(product(1, "Silla roja")), "D 2"), StandardCharsets.UTF_8);
+        Map<Integer, Product> replayed = new TreeMap<>();
+        try (ProductLog log = new ProductLog(config)) {
+            assertEquals(4, log.replay(product -> replayed.put(product.getId(), product), replayed::remove));
+            log.open(replayed.values());
+        }
+        assertEquals(List.of(1), List.copyOf(replayed.keySet()));
+        assertEquals("Silla roja", replayed.get(1).getName());
+        assertFalse(Files.exists(rolled));
+        assertEquals(0, Files.size(active));
+        List<Product> snapshot = new ArrayList<>();
+        config.format().read(config.path(), snapshot::add);
+        assertEquals(1, snapshot.size());
+        assertEquals("Silla roja", snapshot.getFirst().getName());
+    }
+
+    public void testCorruptRotatedLogStopsReplay() throws Exception {
+        PersistenceConfig config = config(100);
+        Path active = Path.of(config.logPath());
+        Path rolled = Path.of(config.logPath() + ".1");
+        Files.write(rolled, List.of(upsert(product(1, "Silla")), "U {roto", upsert(product(2, "Mesa"))),
+                StandardCharsets.UTF_8);
+        Files.write(active, List.of(upsert(product(3, "Lámpara"))), StandardCharsets.UTF_8);
+        Map<Integer, Product> replayed = new TreeMap<>();
+        try (ProductLog log = new ProductLog(config)) {
+            assertEquals(1, log.replay(product -> replayed.put(product.getId(), product), replayed::remove));
+            log.open(replayed.values());
+        }
+        assertEquals(List.of(1), List.copyOf(replayed.keySet()));
+        assertTrue(Files.exists(Path.of(rolled + ".corrupt")));
+        assertTrue(Files.exists(Path.of(active + ".corrupt")));
+    }
+
+    public void testCorruptRecordInActiveLogStopsReplay() throws Exception {
+        PersistenceConfig config = config(100);
+        Files.write(Path.of(config.logPath()), List.of(upsert(product(1, "Silla")), "X 1", "D 1"),
+                StandardCharsets.UTF_8);
+        Map<Integer, Product> replayed = new TreeMap<>();
+        assertEquals(1, replay(config, replayed));
+        assertEquals(List.of(1), List.copyOf(replayed.keySet()));
+    }
+
+    private static int replay(PersistenceConfig config, Map<Integer, Product> into) throws Exception {
+        try (ProductLog log = new ProductLog(config)) {
+            return log.replay(product -> into.put(product.getId(), product), into::remove);
+        }
+    }
+
+    private static String upsert(Product product) {
+        return "U {\"id\":" + product.getId() + ",\"name\":\"" + product.getName() + "\",\"price\":"
+                + product.getPrice() + ",\"stock\":" + product.getStock() + ",\"category\":\""
+                + product.getCategory().name() + "\"}";
+    }
+
+    private static Product product(int id, String name) {
+        Product product = new Product(name, 10, 1, Category.HOME);
+        if (id > 0) product.setId(id);
+        return product;
+    }
+
+    private static PersistenceConfig config(int compactionThreshold) throws Exception {
+        String path = Files.createTempDirectory("inventory-test").resolve("products.json").toString();
+        return new PersistenceConfig(path, PersistenceMode.LOG, SnapshotFormat.JSON, compactionThreshold, false,
+                PersistenceConfig.DEFAULT_FLUSH_INTERVAL_MILLIS, PersistenceConfig.DEFAULT_FLUSH_THRESHOLD,
+                PersistenceConfig.defaults().metrics());
+    }
+}
@@ -0,0 +1,78 @@
+package com.jorge.project.persistence;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.service.ProductServiceImpl;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Checks that lookups through the offset index return the same products as a full load, for every snapshot format,
+ * with names that look like JSON and with changes still pending in the log.
+ */
+public class ProductOffsetsTest extends TestCase {
+    private static final List<String> NAMES = List.of("Silla", "Mesa \"id\": 99", "Llave {x} [y]", "Barra \\ \"",
+            "Lámpara ñandú", "id", "\"id\"");
+
+    public void testJsonSnapshot() throws Exception {
+        assertMatchesFullLoad(config("products.json", PersistenceMode.SNAPSHOT, true));
+    }
+
+    public void testCompactJsonSnapshot() throws Exception {
+        assertMatchesFullLoad(config("products.json", PersistenceMode.SNAPSHOT, false));
+    }
+
+    public void testBinarySnapshot() throws Exception {
+        assertMatchesFullLoad(config("products.bin", PersistenceMode.SNAPSHOT, false));
+    }
+
+    public void testLogOnTopOfSnapshot() throws Exception {
+        assertMatchesFullLoad(config("products.json", PersistenceMode.LOG, true));
+    }
+
+    public void testMissingFile() throws Exception {
+        try (ProductOffsets offsets = ProductOffsets.build(config("products.json", PersistenceMode.SNAPSHOT, true))) {
+            assertEquals(0, offsets.records());
+            assertNull(offsets.find(1));
+        }
+    }
+
+    private static void assertMatchesFullLoad(PersistenceConfig config) throws Exception {
+        try (ProductServiceImpl service = new ProductServiceImpl(config)) {
+            for (int i = 0; i < 500; i++) {
+                service.create(new Product(NAMES.get(i % NAMES.size()) + " " + i, 1.5 + i, i % 40,
+                        Category.values()[i % Category.values().length]));
+            }
+            for (int id = 1; id <= 500; id += 7) service.delete(id);
+            for (int id = 2; id <= 500; id += 11) {
+                if (service.findById(id) == null) continue;
+                Product changed = new Product(service.findById(id));
+                changed.setName("Cambiado \"" + id + "\"");
+                service.update(id, changed);
+            }
+        }
+        try (ProductServiceImpl loaded = new ProductServiceImpl(config);
+             ProductOffsets offsets = ProductOffsets.build(config)) {
+            for (int id = 0; id <= 501; id++) {
+                Product expected = loaded.findById(id);
+                Product found = offsets.find(id);
+                if (expected == null) {
+                    assertNull("id " + id, found);
+                } else {
+                    assertEquals(id, found.getId());
+                    assertTrue("id " + id, expected.sameData(found));
+                    assertTrue(found.isFrozen());
+                }
+            }
+        }
+    }
+
+    private static PersistenceConfig config(String file, PersistenceMode mode, boolean prettyPrint) throws Exception {
+        String path = Files.createTempDirectory("inventory-test").resolve(file).toString();
+        return new PersistenceConfig(path, mode, SnapshotFormat.forPath(path), 100, prettyPrint,
+                PersistenceConfig.DEFAULT_FLUSH_INTERVAL_MILLIS, PersistenceConfig.DEFAULT_FLUSH_THRESHOLD,
+                PersistenceConfig.defaults().metrics());
+    }
+}
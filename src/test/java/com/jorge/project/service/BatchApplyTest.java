@@ -0,0 +1,143 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Runs the batch API (apply, createAll, updateAll, deleteAll) against every backend: ids are handed out in batch
+ * order, and a batch with one invalid change leaves both the catalog and its files untouched.
+ */
+public class BatchApplyTest extends TestCase {
+
+    public void testProductServiceImplSnapshot() throws Exception {
+        assertBatches(ProductServiceImpl::new, PersistenceMode.SNAPSHOT);
+    }
+
+    public void testProductServiceImplLog() throws Exception {
+        assertBatches(ProductServiceImpl::new, PersistenceMode.LOG);
+    }
+
+    public void testProductServiceImplAsync() throws Exception {
+        assertBatches(ProductServiceImpl::new, PersistenceMode.ASYNC);
+    }
+
+    public void testConcurrentProductServiceImpl() throws Exception {
+        assertBatches(ConcurrentProductServiceImpl::new, PersistenceMode.LOG);
+    }
+
+    public void testColumnarProductServiceImpl() throws Exception {
+        assertBatches(ColumnarProductServiceImpl::new, PersistenceMode.SNAPSHOT);
+    }
+
+    public void testRepositoryProductServiceImpl() throws Exception {
+        assertBatches(config -> new RepositoryProductServiceImpl(config, 4), PersistenceMode.SNAPSHOT);
+    }
+
+    public void testShardedProductService() throws Exception {
+        assertBatches(config -> ShardedProductService.open(config, 3), PersistenceMode.LOG);
+    }
+
+    private static void assertBatches(Function<PersistenceConfig, IProductService> open, PersistenceMode mode)
+            throws Exception {
+        Path dir = Files.createTempDirectory("inventory-test");
+        PersistenceConfig config = PersistenceConfig.defaults().withMode(mode)
+                .withPath(dir.resolve("products.json").toString());
+        List<Product> expected;
+        try (IProductService service = open.apply(config)) {
+            List<Product> created = new ArrayList<>();
+            for (int i = 1; i <= 6; i++) created.add(product("Producto " + i, i));
+            service.createAll(created);
+            for (int i = 0; i < created.size(); i++) {
+                assertEquals(i + 1, created.get(i).getId());
+                assertTrue(created.get(i).sameData(service.findById(i + 1)));
+            }
+
+            // Re-creating a stored product is rejected before an id is handed out
+            try {
+                service.create(created.getFirst());
+                fail();
+            } catch (ProductException stored) {
+                assertEquals("El producto ya está guardado; crea una copia", stored.getMessage());
+            }
+
+            service.flush();
+            List<Product> before = service.findAll();
+            Map<String, byte[]> files = files(dir);
+            assertRejected(() -> service.apply(List.of(new ProductMutation.Update(1, product("Cambiado", 50)),
+                    new ProductMutation.Delete(2), new ProductMutation.Delete(2))));
+            assertRejected(() -> service.apply(List.of(new ProductMutation.Create(product("Nuevo", 9)),
+                    new ProductMutation.Update(99, product("Cambiado", 50)))));
+            Map<Integer, Product> updates = new LinkedHashMap<>();
+            updates.put(1, product("Cambiado", 50));
+            updates.put(99, product("Cambiado", 50));
+            assertRejected(() -> service.updateAll(updates));
+            assertRejected(() -> service.deleteAll(List.of(3, 99)));
+            service.flush();
+            assertSameCatalog(before, service.findAll());
+            assertEquals(files.keySet(), files(dir).keySet());
+            files(dir).forEach((name, bytes) -> assertTrue(name, Arrays.equals(files.get(name), bytes)));
+
+            // Rejected batches don't use up ids: the next ones continue right after the first batch
+            Product seventh = product("Producto 7", 7);
+            Product eighth = product("Producto 8", 8);
+            service.apply(List.of(new ProductMutation.Create(seventh), new ProductMutation.Update(1,
+                    product("Cambiado", 50)), new ProductMutation.Delete(2), new ProductMutation.Create(eighth)));
+            assertEquals(7, seventh.getId());
+            assertEquals(8, eighth.getId());
+            service.updateAll(Map.of(3, product("Otro", 30)));
+            service.deleteAll(List.of(4, 5));
+            assertNull(service.findById(2));
+            assertEquals("Cambiado", service.findById(1).getName());
+            expected = service.findAll();
+            assertEquals(List.of(1, 3, 6, 7, 8), expected.stream().map(Product::getId).toList());
+        }
+        try (IProductService service = open.apply(config)) {
+            assertSameCatalog(expected, service.findAll());
+        }
+    }
+
+    private static void assertRejected(Runnable batch) {
+        try {
+            batch.run();
+            fail();
+        } catch (ProductException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("no existe un producto con ID"));
+        }
+    }
+
+    private static void assertSameCatalog(List<Product> expected, List<Product> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertTrue(expected.get(i).sameData(actual.get(i)));
+        }
+    }
+
+    private static Map<String, byte[]> files(Path dir) throws Exception {
+        Map<String, byte[]> files = new TreeMap<>();
+        try (Stream<Path> entries = Files.list(dir)) {
+            for (Path file : entries.toList()) files.put(file.getFileName().toString(), Files.readAllBytes(file));
+        }
+        return files;
+    }
+
+    private static Product product(String name, double price) {
+        return new Product(name, price, 1, Category.HOME);
+    }
+}
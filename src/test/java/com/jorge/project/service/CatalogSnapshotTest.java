@@ -0,0 +1,171 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.CategoryStats;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks that a snapshot answers like the service did when it was taken, that later writes never reach it, that
+ * stored products can't be modified in place, and that a snapshot never sees half of a batch under concurrent writers.
+ */
+public class CatalogSnapshotTest extends TestCase {
+    private static final int PRODUCTS = 2_000;
+    private static final int STOCK_PER_PRODUCT = 50;
+
+    public void testSnapshotMatchesServiceAndIgnoresLaterWrites() throws Exception {
+        try (ProductServiceImpl service = new ProductServiceImpl(config())) {
+            service.createAll(catalog(new Random(5)));
+            CatalogSnapshot snapshot = service.snapshot();
+            List<Product> all = service.findAll();
+            List<Product> range = service.findByPriceInRange(100, 200);
+            List<Product> named = service.findByName("silla 1");
+            List<Product> byStock = service.findAllSorted(ProductOrder.STOCK, 100, 50);
+            Map<Category, CategoryStats> stats = service.getCategoryStats();
+            ProductQuery query = ProductQuery.all().withCategory(Category.HOME).orderBy(ProductOrder.NAME).withLimit(20);
+            List<Product> queried = service.query(query);
+
+            Product first = service.findById(1);
+            Product changed = new Product(first);
+            changed.setPrice(150);
+            service.update(1, changed);
+            service.delete(2);
+            service.create(new Product("Silla 1 nueva", 150, 3, Category.HOME));
+
+            assertEquals(all, snapshot.findAll());
+            assertSame(first, snapshot.findById(1));
+            assertNotNull(snapshot.findById(2));
+            assertNull(snapshot.findById(PRODUCTS + 1));
+            assertEquals(range, snapshot.findByPriceInRange(100, 200));
+            assertEquals(range.subList(10, 30), snapshot.findByPriceInRange(100, 200, 10, 20));
+            assertEquals(List.of(), snapshot.findByPriceInRange(200, 100));
+            assertEquals(named, snapshot.findByName("silla 1"));
+            assertEquals(byStock, snapshot.findAllSorted(ProductOrder.STOCK, 100, 50));
+            assertEquals(byStock.subList(1, 50), snapshot.findAllSorted(ProductOrder.STOCK, byStock.getFirst(), 49));
+            assertEquals(stats, snapshot.getCategoryStats());
+            assertEquals(queried, snapshot.query(query));
+            assertEquals(PRODUCTS, snapshot.size());
+            assertFalse(service.snapshot().findAll().equals(all));
+        }
+    }
+
+    public void testNaNPriceBoundsMatchService() throws Exception {
+        try (ProductServiceImpl service = new ProductServiceImpl(config())) {
+            service.createAll(catalog(new Random(7)));
+            CatalogSnapshot snapshot = service.snapshot();
+            assertEquals(List.of(), service.findByPriceInRange(Double.NaN, 30));
+            // Before and after the price order is built
+            assertEquals(List.of(), snapshot.findByPriceInRange(Double.NaN, 30));
+            assertEquals(List.of(), snapshot.findByPriceInRange(10, Double.NaN, 0, 5));
+            snapshot.findAllSorted(ProductOrder.PRICE, 0, 1);
+            assertEquals(List.of(), snapshot.findByPriceInRange(Double.NaN, 30));
+            assertEquals(List.of(), snapshot.findByPriceInRange(10, Double.NaN, 0, 5));
+            assertEquals(service.findByPriceInRange(10, 30), snapshot.findByPriceInRange(10, 30));
+        }
+    }
+
+    public void testStoredProductsAreReadOnly() throws Exception {
+        try (ProductServiceImpl service = new ProductServiceImpl(config())) {
+            Product created = new Product("Silla", 10, 5, Category.HOME);
+            service.create(created);
+            assertTrue(created.isFrozen());
+            try {
+                service.findById(1).setStock(0);
+                fail();
+            } catch (IllegalStateException expected) {
+                assertEquals(5, service.findById(1).getStock());
+            }
+            Product copy = new Product(service.findById(1));
+            copy.setStock(0);
+            assertTrue(service.update(1, copy));
+            assertFalse(copy.isFrozen());
+            assertEquals(5, created.getStock());
+
+            // A stored product passed to a batch is rejected before anything is applied
+            try {
+                service.apply(List.of(new ProductMutation.Delete(1), new ProductMutation.Create(created)));
+                fail();
+            } catch (ProductException expected) {
+                assertNotNull(service.findById(1));
+            }
+        }
+    }
+
+    public void testSnapshotsNeverSeeHalfABatch() throws Exception {
+        List<IProductService> services = List.of(new ProductServiceImpl(config()), new ConcurrentProductServiceImpl(config()),
+                new ColumnarProductServiceImpl(config()));
+        for (IProductService service : services) {
+            try (service) {
+                service.createAll(catalog(new Random(9)));
+                AtomicBoolean running = new AtomicBoolean(true);
+                List<Thread> writers = new ArrayList<>();
+                for (int w = 0; w < 2; w++) {
+                    Random random = new Random(w);
+                    // Each batch moves stock between two products, so the total only holds if both land together
+                    writers.add(Thread.ofPlatform().start(() -> {
+                        while (running.get()) transfer(service, random);
+                    }));
+                }
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        CatalogSnapshot snapshot = service.snapshot();
+                        long total = snapshot.findAll().stream().mapToLong(Product::getStock).sum();
+                        assertEquals(service.getClass().getSimpleName(), (long) PRODUCTS * STOCK_PER_PRODUCT, total);
+                        long byCategory = snapshot.getCategoryStats().values().stream().mapToLong(CategoryStats::totalStock).sum();
+                        assertEquals(total, byCategory);
+                        assertEquals(PRODUCTS, snapshot.findByPriceInRange(0, Double.MAX_VALUE).size());
+                    }
+                } finally {
+                    running.set(false);
+                    for (Thread writer : writers) writer.join();
+                }
+            }
+        }
+    }
+
+    private static void transfer(IProductService service, Random random) {
+        int from = 1 + random.nextInt(PRODUCTS);
+        int to = 1 + random.nextInt(PRODUCTS);
+        if (from == to) return;
+        Product source = service.findById(from);
+        Product target = service.findById(to);
+        if (source.getStock() == 0) return;
+        Product lowered = new Product(source);
+        lowered.setStock(source.getStock() - 1);
+        Product raised = new Product(target);
+        raised.setStock(target.getStock() + 1);
+        // Check and apply under one lock so two writers can't both move the same unit
+        synchronized (service) {
+            if (!service.findById(from).sameData(source) || !service.findById(to).sameData(target)) return;
+            service.apply(List.of(new ProductMutation.Update(from, lowered), new ProductMutation.Update(to, raised)));
+        }
+    }
+
+    private static List<Product> catalog(Random random) {
+        String[] words = {"Silla", "Mesa", "Lámpara", "Monitor"};
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new Product(words[random.nextInt(words.length)] + " " + random.nextInt(100),
+                    1 + random.nextInt(300), STOCK_PER_PRODUCT, Category.values()[random.nextInt(Category.values().length)]));
+        }
+        return products;
+    }
+
+    private static PersistenceConfig config() throws Exception {
+        return PersistenceConfig.defaults().withMode(PersistenceMode.LOG)
+                .withPath(Files.createTempDirectory("inventory-test").resolve("products.json").toString());
+    }
+}
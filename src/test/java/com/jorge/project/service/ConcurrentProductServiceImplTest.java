@@ -0,0 +1,141 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Multi-threaded stress test for ConcurrentProductServiceImpl.
+ */
+public class ConcurrentProductServiceImplTest extends TestCase {
+    private static final int THREADS = 8;
+    private static final int PRODUCTS_PER_THREAD = 200;
+    private static final int UPDATES_PER_PRODUCT = 25;
+
+    private PersistenceConfig config;
+
+    @Override
+    protected void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("inventory-test");
+        config = PersistenceConfig.defaults()
+                .withPath(dir.resolve("products.json").toString())
+                .withMode(PersistenceMode.LOG)
+                .withCompactionThreshold(500);
+    }
+
+    public void testConcurrentWritesLoseNothing() throws Exception {
+        ConcurrentProductServiceImpl service = new ConcurrentProductServiceImpl(config);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<?> reader = pool.submit(() -> {
+            while (writing.get()) {
+                service.findAll();
+                service.findByPriceInRange(1, 100);
+            }
+        });
+
+        List<Future<Set<Integer>>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            writers.add(pool.submit(() -> {
+                Set<Integer> ids = new HashSet<>();
+                for (int i = 0; i < PRODUCTS_PER_THREAD; i++) {
+                    Product product = new Product("Producto", 1, 0, Category.OTHER);
+                    service.create(product);
+                    ids.add(product.getId());
+                }
+                for (int round = 1; round <= UPDATES_PER_PRODUCT; round++) {
+                    for (int id : ids) {
+                        assertTrue(service.update(id, new Product("Producto " + id, round, round, Category.HOME)));
+                    }
+                }
+                return ids;
+            }));
+        }
+
+        Set<Integer> allIds = new HashSet<>();
+        for (Future<Set<Integer>> writer : writers) {
+            allIds.addAll(writer.get(1, TimeUnit.MINUTES));
+        }
+        writing.set(false);
+        reader.get(1, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        int expected = THREADS * PRODUCTS_PER_THREAD;
+        assertEquals("duplicated ids", expected, allIds.size());
+        assertEquals(expected, service.findAll().size());
+        assertAllUpdated(service, allIds);
+        service.close();
+
+        ConcurrentProductServiceImpl reloaded = new ConcurrentProductServiceImpl(config);
+        assertEquals(expected, reloaded.findAll().size());
+        assertAllUpdated(reloaded, allIds);
+        reloaded.close();
+    }
+
+    public void testConcurrentReservationsNeverOversell() throws Exception {
+        ConcurrentProductServiceImpl service = new ConcurrentProductServiceImpl(config);
+        Product product = new Product("Producto", 1, 5_000, Category.OTHER);
+        service.create(product);
+        int id = product.getId();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS * 2);
+        List<Future<Integer>> buyers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            buyers.add(pool.submit(() -> {
+                int reserved = 0;
+                while (service.reserve(id, 1)) reserved++;
+                return reserved;
+            }));
+            pool.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    Product current = service.findById(id);
+                    Product repriced = new Product(current);
+                    repriced.setPrice(current.getPrice() + 1);
+                    service.compareAndSet(id, current, repriced);
+                }
+            });
+        }
+        int reserved = 0;
+        for (Future<Integer> buyer : buyers) {
+            reserved += buyer.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(5_000, reserved);
+        assertEquals(0, service.findById(id).getStock());
+        assertFalse(service.compareAndSetStock(id, 1, 10));
+        assertTrue(service.compareAndSetStock(id, 0, 10));
+        assertEquals(7, service.adjustStock(id, -3));
+        try {
+            service.adjustStock(id, -8);
+            fail("stock must not go negative");
+        } catch (ProductException expected) {
+            assertEquals(7, service.findById(id).getStock());
+        }
+        service.close();
+
+        ConcurrentProductServiceImpl reloaded = new ConcurrentProductServiceImpl(config);
+        assertEquals(7, reloaded.findById(id).getStock());
+        reloaded.close();
+    }
+
+    private static void assertAllUpdated(IProductService service, Set<Integer> ids) {
+        for (int id : ids) {
+            Product product = service.findById(id);
+            assertEquals("Producto " + id, product.getName());
+            assertEquals(UPDATES_PER_PRODUCT, product.getStock());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.jorge.project.service;
+
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that the lazy service answers id lookups while it is still loading, reports its progress, and once ready
+ * behaves like a service that loaded the same file up front.
+ */
+public class LazyProductServiceTest extends TestCase {
+    private static final int PRODUCTS = 20_000;
+
+    public void testServesLookupsWhileLoadingAndThenEverything() throws Exception {
+        PersistenceConfig config = PersistenceConfig.defaults().withMode(PersistenceMode.LOG)
+                .withPath(Files.createTempDirectory("inventory-test").resolve("products.json").toString());
+        try (ProductServiceImpl service = new ProductServiceImpl(config)) {
+            for (int i = 0; i < PRODUCTS; i++) {
+                service.create(new Product("Producto " + i, 1 + i % 500, i % 30, Category.values()[i % 7]));
+            }
+            service.delete(3);
+        }
+
+        try (ProductServiceImpl eager = new ProductServiceImpl(config);
+             LazyProductService lazy = new LazyProductService(config)) {
+            // Whatever the phase, lookups answer with the stored version
+            Product first = lazy.findById(PRODUCTS);
+            assertTrue(eager.findById(PRODUCTS).sameData(first));
+            assertTrue(first.isFrozen());
+            assertNull(lazy.findById(3));
+            assertTrue(lazy.progress() >= 0 && lazy.progress() <= 1);
+
+            lazy.ready().get(30, TimeUnit.SECONDS);
+            assertTrue(lazy.isReady());
+            assertEquals(StartupPhase.READY, lazy.phase());
+            assertEquals(1.0, lazy.progress());
+            assertEquals(eager.findAll(), lazy.findAll());
+            assertEquals(eager.findByName("producto 19", 10), lazy.findByName("producto 19", 10));
+
+            Product changed = new Product(lazy.findById(10));
+            changed.setStock(99);
+            assertTrue(lazy.update(10, changed));
+            assertEquals(99, lazy.findById(10).getStock());
+        }
+    }
+
+    public void testWritesWaitForTheLoad() throws Exception {
+        PersistenceConfig config = PersistenceConfig.defaults()
+                .withPath(Files.createTempDirectory("inventory-test").resolve("products.json").toString());
+        try (LazyProductService lazy = new LazyProductService(config)) {
+            Product created = new Product("Silla", 10, 1, Category.HOME);
+            lazy.create(created);
+            assertTrue(lazy.isReady());
+            assertEquals(1, created.getId());
+            assertTrue(lazy.findById(1).sameData(created));
+        }
+    }
+}
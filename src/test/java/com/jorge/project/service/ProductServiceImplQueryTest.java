@@ -0,0 +1,117 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+import com.jorge.project.persistence.PersistenceConfig;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that every query plan of ProductServiceImpl, and the category lookups, return what a plain filter over the
+ * catalog returns.
+ */
+public class ProductServiceImplQueryTest extends TestCase {
+    private static final String[] WORDS = {"Lámpara", "lamp", "Silla", "Mesa", "Balón", "Monitor", "Teclado"};
+
+    private ProductServiceImpl service;
+    private List<Product> catalog;
+
+    @Override
+    protected void setUp() throws Exception {
+        String path = Files.createTempDirectory("inventory-test").resolve("products.json").toString();
+        service = new ProductServiceImpl(PersistenceConfig.defaults().withPath(path));
+        Random random = new Random(17);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(1_000);
+            products.add(new Product(name, 1 + random.nextInt(500), random.nextInt(100),
+                    Category.values()[random.nextInt(Category.values().length)]));
+        }
+        service.createAll(products);
+        catalog = service.findAll();
+    }
+
+    @Override
+    protected void tearDown() {
+        service.close();
+    }
+
+    public void testEveryPlanMatchesFullFilter() {
+        assertPlansMatchFullFilter(QueryPlan.SCAN);
+    }
+
+    public void testParallelScanMatchesFullFilter() {
+        // Lower the threshold so the 5 000 products are already scanned in parallel
+        service.setParallelThreshold(1_000);
+        assertPlansMatchFullFilter(QueryPlan.PARALLEL_SCAN);
+    }
+
+    private void assertPlansMatchFullFilter(QueryPlan fullScan) {
+        Random random = new Random(23);
+        ProductOrder[] orders = {null, ProductOrder.NAME, ProductOrder.PRICE, ProductOrder.STOCK, ProductOrder.ID};
+        int[] limits = {1, 10, 200, Integer.MAX_VALUE};
+        HashSet<QueryPlan> plans = new HashSet<>();
+        for (int i = 0; i < 2_000; i++) {
+            ProductQuery query = ProductQuery.all();
+            if (random.nextBoolean()) query = query.withName(random.nextBoolean() ? "lamp" : WORDS[random.nextInt(WORDS.length)] + " 1");
+            if (random.nextBoolean()) {
+                int min = random.nextInt(500);
+                query = query.withPriceBetween(min, min + random.nextInt(random.nextBoolean() ? 5 : 300));
+            }
+            if (random.nextBoolean()) query = query.withCategory(Category.values()[random.nextInt(Category.values().length)]);
+            if (random.nextInt(4) == 0) query = query.withMinStock(random.nextInt(100));
+            query = query.orderBy(orders[random.nextInt(orders.length)]).withLimit(limits[random.nextInt(limits.length)]);
+
+            List<Product> matches = new ArrayList<>(catalog.stream().filter(query::matches).toList());
+            List<Product> actual = service.query(query);
+            plans.add(service.plan(query));
+            assertEquals(query.toString(), Math.min(query.limit(), matches.size()), actual.size());
+            if (query.order() == null) {
+                assertTrue(query.toString(), new HashSet<>(matches).containsAll(actual));
+            } else {
+                matches.sort(query.order().comparator());
+                assertEquals(query.toString(), matches.subList(0, actual.size()), actual);
+            }
+        }
+        assertTrue(plans.toString(), plans.containsAll(List.of(QueryPlan.NAME_INDEX, QueryPlan.PRICE_INDEX,
+                QueryPlan.CATEGORY, QueryPlan.SORTED_INDEX, fullScan)));
+    }
+
+    public void testCategoryAndPriceRangeFromEitherSide() {
+        Random random = new Random(29);
+        for (int i = 0; i < 500; i++) {
+            Category category = Category.values()[random.nextInt(Category.values().length)];
+            // Narrow ranges are walked through the price index, wide ones through the category
+            int min = random.nextInt(500);
+            int max = min + random.nextInt(random.nextBoolean() ? 3 : 600);
+            List<Product> matches = new ArrayList<>(catalog.stream()
+                    .filter(product -> product.getCategory() == category)
+                    .filter(product -> product.getPrice() >= min && product.getPrice() <= max).toList());
+            matches.sort(ProductOrder.PRICE.comparator());
+            assertEquals(category + " " + min + ".." + max, matches,
+                    service.findByCategoryAndPriceInRange(category, min, max));
+        }
+    }
+
+    public void testNullCategoryIsRejected() {
+        List<Runnable> lookups = List.of(() -> service.findByCategory(null),
+                () -> service.findByCategoryAndPriceInRange(null, 0, 100),
+                () -> service.findByCategoryAndName(null, "lamp"), () -> service.getCategoryStats(null));
+        for (Runnable lookup : lookups) {
+            try {
+                lookup.run();
+                fail();
+            } catch (ProductException expected) {
+                assertEquals("Categoría no puede ser nulo", expected.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.jorge.project.service;
+
+import com.jorge.project.exceptions.ProductException;
+import com.jorge.project.model.Category;
+import com.jorge.project.model.Product;
+import com.jorge.project.model.ProductMutation;
+import com.jorge.project.model.ProductOrder;
+import com.jorge.project.model.ProductQuery;
+import com.jorge.project.persistence.PersistenceConfig;
+import com.jorge.project.persistence.PersistenceMode;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Compares a sharded catalog against a single service fed the same changes, and checks that global ids stay unique,
+ * route to the right shard, survive reopening the per-shard files and refuse a different shard count.
+ */
+public class ShardedProductServiceTest extends TestCase {
+    private static final int SHARDS = 3;
+
+    public void testAnswersLikeASingleService() throws Exception {
+        Path dir = Files.createTempDirectory("inventory-test");
+        try (ProductServiceImpl single = new ProductServiceImpl(config(dir.resolve("single.json")));
+             ShardedProductService sharded = ShardedProductService.open(config(dir.resolve("products.json")), SHARDS)) {
+            Random random = new Random(3);
+            List<Product> products = catalog(random, 300);
+            single.createAll(copies(products));
+            sharded.createAll(products);
+            // Round-robin creates over dense local ids give the same ids a single service would
+            assertEquals(single.findAll(), sharded.findAll());
+            for (int i = 0; i < 100; i++) {
+                Product created = catalog(random, 1).getFirst();
+                single.create(new Product(created));
+                sharded.create(created);
+                assertTrue(created.isFrozen());
+                int id = 1 + random.nextInt(created.getId());
+                Product changed = catalog(random, 1).getFirst();
+                assertEquals(single.update(id, new Product(changed)), sharded.update(id, changed));
+                int deleted = 1 + random.nextInt(created.getId());
+                assertEquals(single.delete(deleted), sharded.delete(deleted));
+            }
+
+            assertEquals(single.findAll(), sharded.findAll());
+            assertEquals(single.findAll(40, 25), sharded.findAll(40, 25));
+            assertEquals(single.findById(7), sharded.findById(7));
+            assertNull(sharded.findById(0));
+            assertNull(sharded.findById(10_000));
+            assertEquals(single.findByName("silla 1"), sharded.findByName("silla 1"));
+            assertEquals(single.findByName("mesa", 5), sharded.findByName("mesa", 5));
+            assertEquals(single.findByPriceInRange(50, 120), sharded.findByPriceInRange(50, 120));
+            assertEquals(single.findByPriceInRange(50, 120, 10, 15), sharded.findByPriceInRange(50, 120, 10, 15));
+            // A single service lists a category in index order; shards agree on id order instead
+            assertEquals(byId(single.findByCategory(Category.HOME)), sharded.findByCategory(Category.HOME));
+            assertEquals(single.findByCategoryAndPriceInRange(Category.TOYS, 10, 200),
+                    sharded.findByCategoryAndPriceInRange(Category.TOYS, 10, 200));
+            assertEquals(byId(single.findByCategoryAndName(Category.HOME, "lámpara")),
+                    sharded.findByCategoryAndName(Category.HOME, "lámpara"));
+            assertEquals(single.getCategoryStats().keySet(), sharded.getCategoryStats().keySet());
+            for (Category category : Category.values()) {
+                assertEquals(single.getCategoryStats(category).productCount(), sharded.getCategoryStats(category).productCount());
+                assertEquals(single.getCategoryStats(category).totalStock(), sharded.getCategoryStats(category).totalStock());
+            }
+            ProductQuery query = ProductQuery.all().withName("a").withMinStock(10).orderBy(ProductOrder.NAME).withLimit(30);
+            assertEquals(single.query(query), sharded.query(query));
+            assertEquals(single.snapshot().findAll(), sharded.snapshot().findAll());
+
+            for (ProductOrder order : ProductOrder.values()) {
+                assertEquals(single.findAllSorted(order, 20, 30), sharded.findAllSorted(order, 20, 30));
+                List<Product> expected = single.findAllSorted(order, 0, Integer.MAX_VALUE);
+                List<Product> pages = new ArrayList<>();
+                Product cursor = null;
+                List<Product> page;
+                do {
+                    page = sharded.findAllSorted(order, cursor, 17);
+                    pages.addAll(page);
+                    if (!page.isEmpty()) cursor = page.getLast();
+                } while (!page.isEmpty());
+                assertEquals(order.name(), expected, pages);
+            }
+        }
+    }
+
+    public void testBatchesAreValidatedBeforeAnyShardApplies() throws Exception {
+        try (ShardedProductService service = ShardedProductService.open(config(temp()), SHARDS)) {
+            List<Product> products = catalog(new Random(1), 10);
+            service.createAll(products);
+            Set<Integer> ids = new HashSet<>();
+            for (Product product : products) {
+                assertTrue(product.isFrozen());
+                assertTrue(ids.add(product.getId()));
+                assertTrue(service.findById(product.getId()).sameData(product));
+            }
+
+            Product replacement = new Product("Silla nueva", 10, 1, Category.HOME);
+            try {
+                service.apply(List.of(new ProductMutation.Update(1, replacement), new ProductMutation.Delete(2),
+                        new ProductMutation.Delete(2)));
+                fail();
+            } catch (ProductException expected) {
+                assertEquals("Cambio #3: no existe un producto con ID 2", expected.getMessage());
+            }
+            assertNotNull(service.findById(2));
+            assertFalse(service.findById(1).sameData(replacement));
+
+            Product created = new Product("Mesa nueva", 20, 2, Category.HOME);
+            service.apply(List.of(new ProductMutation.Update(1, replacement), new ProductMutation.Delete(2),
+                    new ProductMutation.Create(created)));
+            assertTrue(service.findById(1).sameData(replacement));
+            assertNull(service.findById(2));
+            assertEquals(11, created.getId());
+            assertTrue(service.findById(11).sameData(created));
+            try {
+                service.create(created);
+                fail();
+            } catch (ProductException expected) {
+                assertEquals(10, service.findAll().size());
+            }
+        }
+    }
+
+    public void testReopenKeepsIdsAndShards() throws Exception {
+        Path path = temp();
+        List<Product> before;
+        try (ShardedProductService service = ShardedProductService.open(config(path), SHARDS)) {
+            service.createAll(catalog(new Random(2), 50));
+            service.delete(4);
+            service.delete(5);
+            before = service.findAll();
+        }
+        for (int s = 0; s < SHARDS; s++) {
+            String prefix = "products.shard-" + s + ".json";
+            try (Stream<Path> files = Files.list(path.getParent())) {
+                assertTrue(files.anyMatch(file -> file.getFileName().toString().startsWith(prefix)));
+            }
+        }
+        try (ShardedProductService service = ShardedProductService.open(config(path), SHARDS)) {
+            assertEquals(before, service.findAll());
+            Product created = new Product("Monitor", 100, 1, Category.ELECTRONIC);
+            service.create(created);
+            assertFalse(before.stream().anyMatch(product -> product.getId() == created.getId()));
+            assertEquals(created.getId(), service.findById(created.getId()).getId());
+        }
+    }
+
+    public void testReopenWithAnotherShardCountFails() throws Exception {
+        Path path = temp();
+        try (ShardedProductService service = ShardedProductService.open(config(path), SHARDS)) {
+            service.createAll(catalog(new Random(4), 10));
+        }
+        Path manifest = Path.of(ShardedProductService.manifestPath(path.toString()));
+        assertEquals(String.valueOf(SHARDS), Files.readString(manifest).strip());
+        for (int shards : new int[]{SHARDS - 1, SHARDS + 1}) {
+            try {
+                ShardedProductService.open(config(path), shards).close();
+                fail();
+            } catch (IllegalArgumentException expected) {
+                assertTrue(expected.getMessage().contains("tiene " + SHARDS + " particiones"));
+            }
+        }
+        // Without the manifest, shard files beyond the requested count still give the mismatch away
+        Files.delete(manifest);
+        try {
+            ShardedProductService.open(config(path), SHARDS - 1).close();
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertFalse(Files.exists(manifest));
+        }
+        try (ShardedProductService service = ShardedProductService.open(config(path), SHARDS)) {
+            assertEquals(10, service.findAll().size());
+        }
+        assertTrue(Files.exists(manifest));
+    }
+
+    public void testShardPath() {
+        assertEquals("dir/products.shard-2.json", ShardedProductService.shardPath("dir/products.json", 2));
+        assertEquals("dir.v1/products.shard-0", ShardedProductService.shardPath("dir.v1/products", 0));
+    }
+
+    private static List<Product> catalog(Random random, int size) {
+        String[] words = {"Silla", "Mesa", "Lámpara", "Monitor"};
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            products.add(new Product(words[random.nextInt(words.length)] + " " + random.nextInt(30),
+                    1 + random.nextInt(200), random.nextInt(50), Category.values()[random.nextInt(Category.values().length)]));
+        }
+        return products;
+    }
+
+    private static List<Product> byId(List<Product> products) {
+        return products.stream().sorted(ProductOrder.ID.comparator()).toList();
+    }
+
+    private static List<Product> copies(List<Product> products) {
+        return products.stream().map(Product::new).toList();
+    }
+
+    private static Path temp() throws Exception {
+        return Files.createTempDirectory("inventory-test").resolve("products.json");
+    }
+
+    private static PersistenceConfig config(Path path) {
+        return PersistenceConfig.defaults().withMode(PersistenceMode.LOG).withPath(path.toString());
+    }
+}